@@ -0,0 +1,90 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Deterministic synthetic datasets for the benchmarks.
+ *
+ * Sizes are given in rows: line items for the order data, grades for the
+ * gradebook. The same seed and size always produce the same data.
+ *
+ * {@link #orders} is generated lazily while it is iterated, so a dataset of
+ * 10^8 line items can be encoded into a columnar store without ever holding
+ * all of the records in memory at once.
+ */
+public final class Datasets {
+
+    public static final int PRODUCTS = 1_000;
+    public static final int CATEGORIES = 20;
+    public static final int DAYS = 3 * 365;
+    public static final LocalDate FIRST_DAY = LocalDate.of(2022, 1, 1);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private Datasets() {
+    }
+
+    public static List<Product> catalog() {
+        SplittableRandom random = new SplittableRandom(17);
+        return IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> new Product(String.format("P%05d", i), "Product " + i,
+                        "Category" + random.nextInt(CATEGORIES),
+                        random.nextInt(100, 200_000) / 100.0))
+                .toList();
+    }
+
+    /**
+     * Orders holding roughly {@code rows} line items in total: rows / 2 orders
+     * of 1 to 3 items, with rows / 20 distinct customers.
+     */
+    public static Collection<CustomerOrder> orders(List<Product> catalog, long rows) {
+        int orders = (int) Math.max(1, rows / 2);
+        int customers = (int) Math.max(1, rows / 20);
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<CustomerOrder> iterator() {
+                SplittableRandom random = new SplittableRandom(42);
+                return IntStream.range(0, orders)
+                        .mapToObj(i -> order(random, catalog, i, customers))
+                        .iterator();
+            }
+
+            @Override
+            public int size() {
+                return orders;
+            }
+        };
+    }
+
+    private static CustomerOrder order(SplittableRandom random, List<Product> catalog, int i, int customers) {
+        OrderItem[] items = new OrderItem[random.nextInt(1, 4)];
+        for (int j = 0; j < items.length; j++) {
+            items[j] = new OrderItem(catalog.get(random.nextInt(catalog.size())), random.nextInt(1, 6));
+        }
+        return new CustomerOrder("O" + i, String.format("C%08d", random.nextInt(customers)),
+                List.of(items), FIRST_DAY.plusDays(random.nextInt(DAYS)), STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    /**
+     * A gradebook of {@code rows} grades: rows / 10 students with 10 grades
+     * each, insertion-ordered by student name.
+     */
+    public static Map<String, List<Integer>> gradebook(long rows) {
+        SplittableRandom random = new SplittableRandom(7);
+        int students = (int) Math.max(1, rows / 10);
+        Map<String, List<Integer>> gradebook = new LinkedHashMap<>();
+        for (int s = 0; s < students; s++) {
+            int center = random.nextInt(45, 101);
+            Integer[] grades = new Integer[10];
+            for (int g = 0; g < grades.length; g++) {
+                grades[g] = Math.max(0, Math.min(100, center + random.nextInt(-10, 11)));
+            }
+            gradebook.put(String.format("S%08d", s), List.of(grades));
+        }
+        return gradebook;
+    }
+}
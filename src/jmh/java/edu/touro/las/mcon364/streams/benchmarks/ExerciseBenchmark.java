@@ -0,0 +1,170 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.collectors.RunningStats;
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Throughput of every public StreamExercise query, sequential and parallel.
+ *
+ * rows is the number of grades (10 per student); pick sizes with
+ * -p rows=... and give the JVM enough heap for the largest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ExerciseBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public long rows;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ForkJoinPool pool;
+    private StreamExercise exercise;
+    private String student;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, List<Integer>> gradebook = Datasets.gradebook(rows);
+        student = gradebook.keySet().iterator().next();
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        exercise = new StreamExercise(gradebook).withExecutionPolicy("parallel".equals(mode)
+                ? ExecutionPolicy.parallel(pool)
+                : ExecutionPolicy.sequential());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // Part 1
+
+    @Benchmark
+    public List<String> getAllStudentNames() {
+        return exercise.getAllStudentNames();
+    }
+
+    @Benchmark
+    public long countStudents() {
+        return exercise.countStudents();
+    }
+
+    @Benchmark
+    public List<Integer> getStudentGrades() {
+        return exercise.getStudentGrades(student);
+    }
+
+    // Part 2
+
+    @Benchmark
+    public double calculateAverage() {
+        return exercise.calculateAverage(student);
+    }
+
+    @Benchmark
+    public List<Integer> getAllGradesFlattened() {
+        return exercise.getAllGradesFlattened();
+    }
+
+    @Benchmark
+    public int findHighestGrade() {
+        return exercise.findHighestGrade();
+    }
+
+    @Benchmark
+    public int findLowestGrade() {
+        return exercise.findLowestGrade();
+    }
+
+    @Benchmark
+    public long getTotalGradeCount() {
+        return exercise.getTotalGradeCount();
+    }
+
+    // Part 3
+
+    @Benchmark
+    public List<String> getPassingStudents() {
+        return exercise.getPassingStudents(80);
+    }
+
+    @Benchmark
+    public List<String> getFailingStudents() {
+        return exercise.getFailingStudents(70);
+    }
+
+    /**
+     * A sweep of 101 thresholds, as an interactive advising tool would run.
+     */
+    @Benchmark
+    public long countPassingStudents() {
+        long total = 0;
+        for (int threshold = 0; threshold <= 100; threshold++) {
+            total += exercise.countPassingStudents(threshold);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public SortedMap<Integer, Integer> getAverageHistogram() {
+        return exercise.getAverageHistogram(10);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> groupByPerformance() {
+        return exercise.groupByPerformance();
+    }
+
+    @Benchmark
+    public Map<String, Double> getStudentAverages() {
+        return exercise.getStudentAverages();
+    }
+
+    @Benchmark
+    public String findTopPerformer() {
+        return exercise.findTopPerformer();
+    }
+
+    // Bonus
+
+    @Benchmark
+    public List<String> getStudentsWithPerfectScore() {
+        return exercise.getStudentsWithPerfectScore();
+    }
+
+    @Benchmark
+    public boolean hasFailingStudent() {
+        return exercise.hasFailingStudent(50);
+    }
+
+    @Benchmark
+    public double calculateClassAverage() {
+        return exercise.calculateClassAverage();
+    }
+
+    @Benchmark
+    public String findMostConsistentStudent() {
+        return exercise.findMostConsistentStudent();
+    }
+
+    @Benchmark
+    public Map<String, RunningStats> getStudentStatistics() {
+        return exercise.getStudentStatistics();
+    }
+
+    @Benchmark
+    public RunningStats getClassStatistics() {
+        return exercise.getClassStatistics();
+    }
+}
@@ -0,0 +1,55 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.exercises.ConcurrentGradebook;
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Grade recording throughput of a {@link ConcurrentGradebook} while a report
+ * thread keeps running snapshot queries against it. Each iteration starts
+ * from an empty gradebook of {@code students} registered students.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+public class GradebookWriteBenchmark {
+
+    @Param({"1000", "100000"})
+    public int students;
+
+    private String[] names;
+    private ConcurrentGradebook gradebook;
+    private StreamExercise exercise;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        names = new String[students];
+        gradebook = new ConcurrentGradebook();
+        for (int s = 0; s < students; s++) {
+            names[s] = "Student" + s;
+            gradebook.register(names[s]);
+        }
+        exercise = new StreamExercise(gradebook);
+    }
+
+    @Benchmark
+    @Group("postWhileReporting")
+    @GroupThreads(4)
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        gradebook.record(names[random.nextInt(students)], random.nextInt(101));
+    }
+
+    @Benchmark
+    @Group("postWhileReporting")
+    @GroupThreads(1)
+    public double calculateClassAverage() {
+        return exercise.calculateClassAverage();
+    }
+}
@@ -0,0 +1,209 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.Report;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Throughput of every public StreamHomework query, sequential and parallel.
+ *
+ * rows is the number of line items; pick sizes with -p rows=... and give
+ * the JVM enough heap for the largest (-jvmArgs -Xmx32g for 10^8).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+public class HomeworkBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public long rows;
+
+    @Param({"sequential", "parallel"})
+    public String mode;
+
+    private ForkJoinPool pool;
+    private StreamHomework hw;
+    private LocalDate rangeStart;
+    private LocalDate rangeEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Product> catalog = Datasets.catalog();
+        StreamHomework base = new StreamHomework(catalog, Datasets.orders(catalog, rows));
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        hw = base.withExecutionPolicy("parallel".equals(mode)
+                ? ExecutionPolicy.parallel(pool)
+                : ExecutionPolicy.sequential());
+        rangeStart = Datasets.FIRST_DAY.plusDays(100);
+        rangeEnd = rangeStart.plusDays(30);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // Part 1
+
+    @Benchmark
+    public double getTotalRevenue() {
+        return hw.getTotalRevenue();
+    }
+
+    @Benchmark
+    public long getOrderCount() {
+        return hw.getOrderCount(OrderStatus.DELIVERED);
+    }
+
+    @Benchmark
+    public Set<Product> getUniqueProducts() {
+        return hw.getUniqueProducts();
+    }
+
+    @Benchmark
+    public double getAverageOrderValue() {
+        return hw.getAverageOrderValue();
+    }
+
+    @Benchmark
+    public LongSummaryStatistics getOrderValueStatisticsCents() {
+        return hw.getOrderValueStatisticsCents();
+    }
+
+    // Part 2
+
+    @Benchmark
+    public Map<String, Double> getRevenueByCustomer() {
+        return hw.getRevenueByCustomer();
+    }
+
+    @Benchmark
+    public List<String> getTopCustomers() {
+        return hw.getTopCustomers(10);
+    }
+
+    @Benchmark
+    public Map<String, Long> getCustomerOrderCounts() {
+        return hw.getCustomerOrderCounts();
+    }
+
+    @Benchmark
+    public List<String> getCustomersWithMultipleOrders() {
+        return hw.getCustomersWithMultipleOrders();
+    }
+
+    // Part 3
+
+    @Benchmark
+    public Map<String, Double> getRevenueByCategory() {
+        return hw.getRevenueByCategory();
+    }
+
+    @Benchmark
+    public List<Product> getTopSellingProducts() {
+        return hw.getTopSellingProducts(10);
+    }
+
+    @Benchmark
+    public Map<String, Integer> getProductQuantitySold() {
+        return hw.getProductQuantitySold();
+    }
+
+    @Benchmark
+    public Map<String, CategorySummary> getCategorySummary() {
+        return hw.getCategorySummary();
+    }
+
+    // Part 4
+
+    @Benchmark
+    public Map<YearMonth, List<CustomerOrder>> getOrdersByMonth() {
+        return hw.getOrdersByMonth();
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> getMonthlyRevenue() {
+        return hw.getMonthlyRevenue();
+    }
+
+    @Benchmark
+    public List<CustomerOrder> getOrdersInDateRange() {
+        return hw.getOrdersInDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Long> getDailyOrderCounts() {
+        return hw.getDailyOrderCounts();
+    }
+
+    @Benchmark
+    public double getRevenueInDateRange() {
+        return hw.getRevenueInDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public long getOrderCountInDateRange() {
+        return hw.getOrderCountInDateRange(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public long getOrderCountInDateRangeWithStatus() {
+        return hw.getOrderCountInDateRange(rangeStart, rangeEnd, OrderStatus.PENDING);
+    }
+
+    // Bonus
+
+    @Benchmark
+    public List<Product> getNeverOrderedProducts() {
+        return hw.getNeverOrderedProducts();
+    }
+
+    @Benchmark
+    public Map<String, Product> getMostPopularByCategory() {
+        return hw.getMostPopularByCategory();
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> getMonthlyGrowthRate() {
+        return hw.getMonthlyGrowthRate();
+    }
+
+    // Approximate analytics
+
+    @Benchmark
+    public long getApproxUniqueProductCount() {
+        return hw.getApproxUniqueProductCount();
+    }
+
+    @Benchmark
+    public long getApproxCustomerCount() {
+        return hw.getApproxCustomerCount();
+    }
+
+    @Benchmark
+    public long getApproxCustomerCountInDateRange() {
+        return hw.getApproxCustomerCount(rangeStart, rangeEnd);
+    }
+
+    @Benchmark
+    public double getApproxOrderValueQuantile() {
+        return hw.getApproxOrderValueQuantile(0.5);
+    }
+
+    // Fused reports
+
+    @Benchmark
+    public Object runAllReports() {
+        return hw.runReports(EnumSet.allOf(Report.class));
+    }
+}
@@ -0,0 +1,79 @@
+package edu.touro.las.mcon364.streams.benchmarks;
+
+import edu.touro.las.mcon364.streams.kernels.Kernels;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Scalar vs. vector array kernels over line-item columns of {@code rows}
+ * elements: prices in cents, quantities and status codes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+public class KernelBenchmark {
+
+    private static final byte DELIVERED = 3;
+
+    @Param({"1000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"scalar", "vector"})
+    public String kernels;
+
+    private Kernels kernel;
+    private long[] prices;
+    private int[] quantities;
+    private byte[] statuses;
+    private int[] days;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        kernel = "vector".equals(kernels) ? Kernels.vector() : Kernels.scalar();
+        Random random = new Random(20);
+        prices = random.longs(rows, 100, 100_000).toArray();
+        quantities = random.ints(rows, 1, 10).toArray();
+        statuses = new byte[rows];
+        random.nextBytes(statuses);
+        for (int i = 0; i < rows; i++) {
+            statuses[i] &= 3;
+        }
+        days = new int[rows];
+        for (int i = 1; i < rows; i++) {
+            days[i] = days[i - 1] + (random.nextInt(50) == 0 ? 1 : 0);
+        }
+    }
+
+    @Benchmark
+    public long sumProduct() {
+        return kernel.sumProduct(prices, quantities, 0, rows);
+    }
+
+    @Benchmark
+    public long maskedSumProduct() {
+        return kernel.sumProduct(prices, quantities, statuses, DELIVERED, 0, rows);
+    }
+
+    @Benchmark
+    public long count() {
+        return kernel.count(statuses, DELIVERED, 0, rows);
+    }
+
+    @Benchmark
+    public LongSummaryStatistics summary() {
+        return kernel.summary(prices, statuses, DELIVERED, 0, rows);
+    }
+
+    @Benchmark
+    public long[] runSums() {
+        long[] sums = new long[days[rows - 1] + 1];
+        kernel.runSums(days, prices, 0, rows, sums);
+        return sums;
+    }
+}
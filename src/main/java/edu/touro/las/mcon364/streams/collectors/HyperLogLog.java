@@ -0,0 +1,198 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * HyperLogLog distinct-count sketch.
+ *
+ * Keeps 2^precision one-byte registers regardless of how many values are
+ * offered, so memory is fixed (16 KiB at the default precision of 14). The
+ * estimate has a relative standard error of about 1.04 / sqrt(2^precision):
+ * 0.8% at precision 14. Small cardinalities are corrected with linear
+ * counting, which makes them nearly exact.
+ *
+ * Values are offered as 64-bit hashes; {@link #offer(long)} and
+ * {@link #offer(Object)} mix their input first, so plain ids or dictionary
+ * codes can be passed directly. Strings are hashed over all 64 bits; any
+ * other object only has its 32-bit {@code hashCode()}, whose collisions
+ * bias estimates low past roughly 10^7 distinct values, so offer large key
+ * spaces as dictionary codes or through {@link #offerHash}.
+ *
+ * Sketches of the same precision merge by register-wise max, which makes a
+ * sketch a mutable container for
+ * {@code collect(supplier, accumulator, HyperLogLog::merge)} on parallel
+ * streams.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be in [" + MIN_PRECISION + ", "
+                    + MAX_PRECISION + "]: " + precision);
+        }
+        this.precision = precision;
+        registers = new byte[1 << precision];
+    }
+
+    /**
+     * The smallest sketch whose relative standard error is at most the given
+     * bound, e.g. 0.01 for 1%.
+     */
+    public static HyperLogLog withError(double relativeError) {
+        if (!(relativeError > 0)) {
+            throw new IllegalArgumentException("relativeError must be > 0: " + relativeError);
+        }
+        double registers = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(registers) / Math.log(2));
+        return new HyperLogLog(Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision)));
+    }
+
+    /**
+     * A collector estimating the number of distinct keys.
+     */
+    public static <T> Collector<T, HyperLogLog, Long> distinct(int precision, Function<? super T, ?> key) {
+        return Collector.of(() -> new HyperLogLog(precision),
+                (sketch, t) -> sketch.offer(key.apply(t)),
+                HyperLogLog::merge,
+                HyperLogLog::estimate,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Estimates the number of distinct values in a stream of ints, e.g.
+     * dictionary codes.
+     */
+    public static long distinct(IntStream values, int precision) {
+        return values.collect(() -> new HyperLogLog(precision), HyperLogLog::offer, HyperLogLog::merge)
+                .estimate();
+    }
+
+    public int precision() {
+        return precision;
+    }
+
+    /**
+     * Relative standard error of this sketch's estimates.
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    /**
+     * Offers a string by a 64-bit hash of its characters, boxed integers by
+     * value, and anything else by its {@code hashCode()}.
+     */
+    public void offer(Object value) {
+        offerHash(switch (value) {
+            case CharSequence text -> hash(text);
+            case Long number -> mix(number);
+            case Integer number -> mix(number);
+            case null, default -> mix(Objects.hashCode(value));
+        });
+    }
+
+    public void offer(int value) {
+        offerHash(mix(value));
+    }
+
+    public void offer(long value) {
+        offerHash(mix(value));
+    }
+
+    /**
+     * Offers a value that is already a well-mixed 64-bit hash.
+     */
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    /**
+     * Combiner for parallel streams: folds another sketch of the same
+     * precision into this one.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Estimated number of distinct values offered.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /**
+     * 64-bit hash of a string: FNV-1a over its UTF-16 chars, then mixed.
+     * Unlike {@link String#hashCode()} it does not collide for strings such
+     * as "Aa" and "BB".
+     */
+    static long hash(CharSequence text) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            h ^= text.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3 fmix64): spreads every input bit over the
+     * whole hash.
+     */
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
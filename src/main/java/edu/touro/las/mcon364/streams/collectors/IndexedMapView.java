@@ -0,0 +1,66 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only {@link Map} over a {@link KeyIndex} and a parallel value array.
+ * Values are boxed only when they are read through the view.
+ */
+final class IndexedMapView<K, V> extends AbstractMap<K, V> {
+
+    private final KeyIndex<K> index;
+    private final IntFunction<V> value;
+
+    IndexedMapView(KeyIndex<K> index, IntFunction<V> value) {
+        this.index = index;
+        this.value = value;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    @Override
+    public V get(Object key) {
+        int position = index.indexOf(key);
+        return position < 0 ? null : value.apply(position);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return index.size();
+            }
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < index.size();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int position = next++;
+                        return new SimpleImmutableEntry<>(index.key(position), value.apply(position));
+                    }
+                };
+            }
+        };
+    }
+}
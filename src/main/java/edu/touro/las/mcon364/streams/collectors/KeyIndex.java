@@ -0,0 +1,102 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+
+/**
+ * Open-addressing hash index from keys to dense entry positions.
+ *
+ * Keys are appended to an array in insertion order; a power-of-two table of
+ * {@code position + 1} (0 = empty) is probed linearly to find them. Kept at
+ * most half full. The primitive maps store their values in arrays parallel
+ * to the key array, so a lookup or update never boxes, and iteration is in
+ * insertion order. Entries cannot be removed.
+ */
+final class KeyIndex<K> {
+
+    private Object[] keys;
+    private int[] table;
+    private int size;
+
+    KeyIndex(int expected) {
+        int capacity = Math.max(4, expected);
+        keys = new Object[capacity];
+        table = new int[tableSize(capacity)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Length of the key array; value arrays must be at least this long.
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    K key(int position) {
+        return (K) keys[position];
+    }
+
+    /**
+     * Position of a key, or -1 if absent.
+     */
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = hash(key) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int position = table[slot] - 1;
+            if (key.equals(keys[position])) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Position of a key, appending it first if absent.
+     */
+    int add(K key) {
+        Objects.requireNonNull(key, "key");
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            int position = table[slot] - 1;
+            if (key.equals(keys[position])) {
+                return position;
+            }
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            rehash();
+            return add(key);
+        }
+        keys[size] = key;
+        table[slot] = ++size;
+        return size - 1;
+    }
+
+    private void rehash() {
+        table = new int[tableSize(keys.length)];
+        int mask = table.length - 1;
+        for (int position = 0; position < size; position++) {
+            int slot = hash(keys[position]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = position + 1;
+        }
+    }
+
+    private static int tableSize(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,277 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * KLL quantile sketch over doubles.
+ *
+ * Values enter level 0; when the sketch is full, the lowest over-full level
+ * is sorted and every other item (starting at a random offset) is promoted
+ * to the next level with twice the weight. Level capacities shrink
+ * geometrically by 2/3 below the top, so the sketch holds O(k) items for any
+ * stream length. With the default k of 200 the rank error of a single
+ * quantile is about 1.65% with 99% confidence; it falls roughly as 1/k.
+ *
+ * Sketches built with the same k merge level by level, which makes a sketch
+ * a mutable container for {@code collect(supplier, accumulator,
+ * KllSketch::merge)} on parallel streams. Min and max are tracked exactly.
+ */
+public final class KllSketch {
+
+    public static final int DEFAULT_K = 200;
+    public static final int MIN_K = 8;
+
+    private final int k;
+    private final SplittableRandom random;
+    private double[][] levels;
+    private int[] sizes;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public KllSketch() {
+        this(DEFAULT_K);
+    }
+
+    public KllSketch(int k) {
+        if (k < MIN_K) {
+            throw new IllegalArgumentException("k must be >= " + MIN_K + ": " + k);
+        }
+        this.k = k;
+        random = new SplittableRandom(k);
+        levels = new double[][] {new double[k]};
+        sizes = new int[1];
+    }
+
+    /**
+     * The smallest sketch whose single-quantile rank error is at most the
+     * given bound, e.g. 0.01 for 1%.
+     */
+    public static KllSketch withError(double rankError) {
+        if (!(rankError > 0 && rankError < 1)) {
+            throw new IllegalArgumentException("rankError must be in (0, 1): " + rankError);
+        }
+        return new KllSketch(Math.max(MIN_K, (int) Math.ceil(Math.pow(2.446 / rankError, 1 / 0.9433))));
+    }
+
+    /**
+     * A collector building a sketch of the mapped values.
+     */
+    public static <T> Collector<T, KllSketch, KllSketch> of(int k, ToDoubleFunction<? super T> value) {
+        return Collector.of(() -> new KllSketch(k),
+                (sketch, t) -> sketch.add(value.applyAsDouble(t)),
+                KllSketch::merge,
+                Collector.Characteristics.IDENTITY_FINISH, Collector.Characteristics.UNORDERED);
+    }
+
+    public static KllSketch of(DoubleStream values, int k) {
+        return values.collect(() -> new KllSketch(k), KllSketch::add, KllSketch::merge);
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Approximate single-quantile rank error at 99% confidence.
+     */
+    public double rankError() {
+        return 2.446 / Math.pow(k, 0.9433);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Number of items retained, which stays O(k).
+     */
+    public int retained() {
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        return total;
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        push(0, value);
+        compress();
+    }
+
+    /**
+     * Combiner for parallel streams: folds another sketch with the same k
+     * into this one.
+     */
+    public KllSketch merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge k=" + other.k + " into k=" + k);
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        for (int h = 0; h < other.sizes.length; h++) {
+            for (int i = 0; i < other.sizes[h]; i++) {
+                push(h, other.levels[h][i]);
+            }
+        }
+        compress();
+        return this;
+    }
+
+    /**
+     * Approximate value at normalized rank q in [0, 1]: 0 is the minimum, 1
+     * the maximum, 0.5 the median. NaN when the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("q must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+        // Each level sorted on its own, then merged: every item of level h weighs 2^h
+        double[][] sorted = new double[sizes.length][];
+        for (int h = 0; h < sizes.length; h++) {
+            sorted[h] = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(sorted[h]);
+        }
+        int[] next = new int[sizes.length];
+        double target = q * count;
+        long cumulative = 0;
+        while (true) {
+            int lowest = -1;
+            for (int h = 0; h < sorted.length; h++) {
+                if (next[h] < sorted[h].length
+                        && (lowest < 0 || sorted[h][next[h]] < sorted[lowest][next[lowest]])) {
+                    lowest = h;
+                }
+            }
+            if (lowest < 0) {
+                return max;
+            }
+            cumulative += 1L << lowest;
+            if (cumulative >= target) {
+                return sorted[lowest][next[lowest]];
+            }
+            next[lowest]++;
+        }
+    }
+
+    /**
+     * Approximate fraction of values less than or equal to the given one.
+     */
+    public double rank(double value) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long below = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= value) {
+                    below += 1L << h;
+                }
+            }
+        }
+        return (double) below / count;
+    }
+
+    // ====================================================================
+    // Compaction
+    // ====================================================================
+
+    private int capacity(int level) {
+        int depth = sizes.length - level - 1;
+        return Math.max(2, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+    }
+
+    private void push(int level, double value) {
+        if (level == sizes.length) {
+            levels = Arrays.copyOf(levels, level + 1);
+            levels[level] = new double[capacity(level)];
+            sizes = Arrays.copyOf(sizes, level + 1);
+        }
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], Math.max(2, sizes[level] * 2));
+        }
+        levels[level][sizes[level]++] = value;
+    }
+
+    private int capacityTotal() {
+        int total = 0;
+        for (int h = 0; h < sizes.length; h++) {
+            total += capacity(h);
+        }
+        return total;
+    }
+
+    private void compress() {
+        while (retained() > capacityTotal()) {
+            for (int h = 0; h < sizes.length; h++) {
+                if (sizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sorts a level and promotes every other item to the level above. With
+     * an odd size, one item stays behind so no weight is lost.
+     */
+    private void compact(int level) {
+        double[] items = levels[level];
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        int keep = size & 1;
+        int offset = random.nextBoolean() ? 1 : 0;
+        double leftover = keep == 1 ? items[size - 1] : 0.0;
+        int pairs = size - keep;
+        double[] promoted = new double[pairs / 2];
+        for (int i = offset, j = 0; i < pairs; i += 2, j++) {
+            promoted[j] = items[i];
+        }
+        sizes[level] = 0;
+        if (keep == 1) {
+            items[sizes[level]++] = leftover;
+        }
+        for (double value : promoted) {
+            push(level + 1, value);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Hash map from objects to primitive doubles.
+ *
+ * Values live in a {@code double[]} beside an open-addressing key index, so
+ * accumulating into the map ({@link #addTo}) never allocates a boxed
+ * {@code Double} or a map entry. Iteration follows insertion order. Keys may
+ * not be null and entries cannot be removed.
+ *
+ * A map is a mutable container usable with
+ * {@code Stream.collect(ObjectDoubleMap::new, ..., ObjectDoubleMap::addAll)},
+ * or through {@link #summing}. {@link #asMap()} gives a read-only
+ * {@code Map<K, Double>} view for code that expects a standard map.
+ */
+public final class ObjectDoubleMap<K> {
+
+    private final KeyIndex<K> index;
+    private double[] values;
+
+    public ObjectDoubleMap() {
+        this(16);
+    }
+
+    public ObjectDoubleMap(int expectedSize) {
+        index = new KeyIndex<>(expectedSize);
+        values = new double[index.capacity()];
+    }
+
+    /**
+     * A collector that sums the values of elements with equal keys.
+     */
+    public static <T, K> Collector<T, ObjectDoubleMap<K>, ObjectDoubleMap<K>> summing(
+            Function<? super T, ? extends K> key, ToDoubleFunction<? super T> value) {
+        return Collector.of(ObjectDoubleMap::new,
+                (map, t) -> map.addTo(key.apply(t), value.applyAsDouble(t)),
+                ObjectDoubleMap::addAll);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean isEmpty() {
+        return index.size() == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    public double getOrDefault(Object key, double defaultValue) {
+        int position = index.indexOf(key);
+        return position < 0 ? defaultValue : values[position];
+    }
+
+    public void put(K key, double value) {
+        int position = index.add(key);
+        values()[position] = value;
+    }
+
+    /**
+     * Adds to the value of a key, starting from 0.0 if absent, and returns
+     * the new value.
+     */
+    public double addTo(K key, double delta) {
+        int position = index.add(key);
+        return values()[position] += delta;
+    }
+
+    /**
+     * Combiner for parallel streams: adds every entry of another map into
+     * this one.
+     */
+    public ObjectDoubleMap<K> addAll(ObjectDoubleMap<K> other) {
+        for (int i = 0; i < other.size(); i++) {
+            addTo(other.index.key(i), other.values[i]);
+        }
+        return this;
+    }
+
+    public void forEach(ObjDoubleConsumer<? super K> action) {
+        for (int i = 0; i < index.size(); i++) {
+            action.accept(index.key(i), values[i]);
+        }
+    }
+
+    /**
+     * Read-only view; boxes a value each time one is read.
+     */
+    public Map<K, Double> asMap() {
+        return new IndexedMapView<>(index, i -> values[i]);
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private double[] values() {
+        if (values.length < index.capacity()) {
+            values = Arrays.copyOf(values, index.capacity());
+        }
+        return values;
+    }
+}
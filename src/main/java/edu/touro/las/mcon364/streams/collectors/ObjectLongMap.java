@@ -0,0 +1,121 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Hash map from objects to primitive longs.
+ *
+ * Values live in a {@code long[]} beside an open-addressing key index, so
+ * accumulating into the map ({@link #addTo}) never allocates a boxed
+ * {@code Long} or a map entry. Iteration follows insertion order. Keys may
+ * not be null and entries cannot be removed.
+ *
+ * A map is a mutable container usable with
+ * {@code Stream.collect(ObjectLongMap::new, ..., ObjectLongMap::addAll)},
+ * or through {@link #summing}. {@link #asMap()} gives a read-only
+ * {@code Map<K, Long>} view for code that expects a standard map.
+ */
+public final class ObjectLongMap<K> {
+
+    private final KeyIndex<K> index;
+    private long[] values;
+
+    public ObjectLongMap() {
+        this(16);
+    }
+
+    public ObjectLongMap(int expectedSize) {
+        index = new KeyIndex<>(expectedSize);
+        values = new long[index.capacity()];
+    }
+
+    /**
+     * A collector that sums the values of elements with equal keys.
+     */
+    public static <T, K> Collector<T, ObjectLongMap<K>, ObjectLongMap<K>> summing(
+            Function<? super T, ? extends K> key, ToLongFunction<? super T> value) {
+        return Collector.of(ObjectLongMap::new,
+                (map, t) -> map.addTo(key.apply(t), value.applyAsLong(t)),
+                ObjectLongMap::addAll);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean isEmpty() {
+        return index.size() == 0;
+    }
+
+    public boolean containsKey(Object key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    public long getOrDefault(Object key, long defaultValue) {
+        int position = index.indexOf(key);
+        return position < 0 ? defaultValue : values[position];
+    }
+
+    public void put(K key, long value) {
+        int position = index.add(key);
+        values()[position] = value;
+    }
+
+    /**
+     * Adds to the value of a key, starting from 0 if absent, and returns
+     * the new value.
+     *
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public long addTo(K key, long delta) {
+        int position = index.add(key);
+        long[] values = values();
+        return values[position] = Math.addExact(values[position], delta);
+    }
+
+    /**
+     * Combiner for parallel streams: adds every entry of another map into
+     * this one.
+     */
+    public ObjectLongMap<K> addAll(ObjectLongMap<K> other) {
+        for (int i = 0; i < other.size(); i++) {
+            addTo(other.index.key(i), other.values[i]);
+        }
+        return this;
+    }
+
+    public void forEach(ObjLongConsumer<? super K> action) {
+        for (int i = 0; i < index.size(); i++) {
+            action.accept(index.key(i), values[i]);
+        }
+    }
+
+    /**
+     * Read-only view; boxes a value each time one is read.
+     */
+    public Map<K, Long> asMap() {
+        return asMap(Long::valueOf);
+    }
+
+    /**
+     * Read-only view with values converted by the given function, e.g.
+     * {@code asMap(Math::toIntExact)} for a {@code Map<K, Integer>}.
+     */
+    public <V> Map<K, V> asMap(LongFunction<? extends V> box) {
+        return new IndexedMapView<>(index, i -> box.apply(values[i]));
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private long[] values() {
+        if (values.length < index.capacity()) {
+            values = Arrays.copyOf(values, index.capacity());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,173 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * One-pass count, mean, variance, min and max of a stream of values.
+ *
+ * Values are folded in with Welford's update, which keeps the running mean
+ * and the sum of squared deviations from it (M2) rather than a raw sum of
+ * squares, so the variance does not suffer the cancellation of
+ * {@code E[x^2] - E[x]^2} when values are large relative to their spread.
+ * Two partial results are merged with Chan's pairwise formula, which makes a
+ * stats object the mutable container of a parallel
+ * {@code collect(RunningStats::new, RunningStats::accept, RunningStats::combine)}.
+ *
+ * Ints widen to doubles exactly, so {@link #accept(double)} and
+ * {@link #of(IntStream)} take them directly.
+ *
+ * Like {@link DoubleSummaryStatistics}, an instance is not thread-safe.
+ */
+public final class RunningStats implements DoubleConsumer {
+
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public RunningStats() {
+    }
+
+    /**
+     * Restores stats from their parts, e.g. ones kept in primitive columns.
+     *
+     * @param m2 sum of squared deviations from the mean
+     */
+    public static RunningStats of(long count, double mean, double m2, double min, double max) {
+        if (count < 0 || m2 < 0 || count > 0 && min > max) {
+            throw new IllegalArgumentException("Inconsistent stats: count=" + count + ", m2=" + m2
+                    + ", min=" + min + ", max=" + max);
+        }
+        RunningStats stats = new RunningStats();
+        if (count > 0) {
+            stats.count = count;
+            stats.mean = mean;
+            stats.m2 = m2;
+            stats.min = min;
+            stats.max = max;
+        }
+        return stats;
+    }
+
+    public static RunningStats of(IntStream values) {
+        return values.collect(RunningStats::new, (stats, value) -> stats.accept(value), RunningStats::combine);
+    }
+
+    public static RunningStats of(DoubleStream values) {
+        return values.collect(RunningStats::new, RunningStats::accept, RunningStats::combine);
+    }
+
+    /**
+     * A collector of the stats of the given values.
+     */
+    public static <T> Collector<T, RunningStats, RunningStats> collector(ToDoubleFunction<? super T> value) {
+        return Collector.of(RunningStats::new,
+                (stats, t) -> stats.accept(value.applyAsDouble(t)),
+                RunningStats::combine);
+    }
+
+    /**
+     * A collector of the stats per key, keys in encounter order.
+     */
+    public static <T, K> Collector<T, ?, Map<K, RunningStats>> byKey(Function<? super T, ? extends K> key,
+                                                                      ToDoubleFunction<? super T> value) {
+        return Collectors.groupingBy(key, LinkedHashMap::new, collector(value));
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merges another partial result into this one.
+     */
+    public RunningStats combine(RunningStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * ((double) other.count / total);
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Mean of the values; 0.0 if there are none.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sum of squared deviations from the mean.
+     */
+    public double getM2() {
+        return m2;
+    }
+
+    /**
+     * Population variance, sum((x - mean)^2) / n; 0.0 if there are no values.
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Sample variance, sum((x - mean)^2) / (n - 1); 0.0 for fewer than two values.
+     */
+    public double getSampleVariance() {
+        return count < 2 ? 0.0 : m2 / (count - 1);
+    }
+
+    /**
+     * Population standard deviation.
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * Smallest value; positive infinity if there are none.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Largest value; negative infinity if there are none.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{count=%d, mean=%f, stddev=%f, min=%f, max=%f}",
+                getClass().getSimpleName(), count, mean, getStandardDeviation(), min, max);
+    }
+}
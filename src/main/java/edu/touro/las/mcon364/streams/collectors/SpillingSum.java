@@ -0,0 +1,346 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Group-by-and-sum over more groups than fit on the heap.
+ *
+ * Sums accumulate in an {@link ObjectLongMap} until it holds more than
+ * {@code maxGroups} keys; the table is then sorted by key, written to a run
+ * file in the spill directory and cleared. Reading the result merges the runs
+ * with a k-way merge that adds up the sums of equal keys, so every key comes
+ * out once, in key order, while only one entry per run is held in memory.
+ * More than {@link #MAX_FAN_IN} runs are first merged into larger ones. When
+ * nothing was spilled the table is simply sorted in memory. Sums are exact
+ * and overflow-checked.
+ *
+ * A sum is the mutable container of {@link #summing}, with {@link #addAll} as
+ * the combiner; the budget applies to each container, so a parallel stream
+ * may hold {@code maxGroups} keys per worker. It is not thread-safe. Close it
+ * to delete its run files.
+ *
+ * Example:
+ * <pre>
+ *   try (SpillingSum&lt;String&gt; spent = orders.collect(SpillingSum.summing(
+ *           () -&gt; new SpillingSum&lt;&gt;(Comparator.naturalOrder(), Codec.utf8(), 1_000_000, dir),
+ *           CustomerOrder::customerId, CustomerOrder::getTotalCents))) {
+ *       spent.forEach((customer, cents) -&gt; ...);
+ *   }
+ * </pre>
+ */
+public final class SpillingSum<K> implements AutoCloseable {
+
+    /**
+     * Number of runs merged at once.
+     */
+    public static final int MAX_FAN_IN = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Binary encoding of keys in run files.
+     */
+    public interface Codec<K> {
+
+        void write(DataOutput out, K key) throws IOException;
+
+        K read(DataInput in) throws IOException;
+
+        /**
+         * Strings in modified UTF-8, up to 65535 bytes each.
+         */
+        static Codec<String> utf8() {
+            return new Codec<>() {
+                @Override
+                public void write(DataOutput out, String key) throws IOException {
+                    out.writeUTF(key);
+                }
+
+                @Override
+                public String read(DataInput in) throws IOException {
+                    return in.readUTF();
+                }
+            };
+        }
+    }
+
+    private final Comparator<? super K> order;
+    private final Codec<K> codec;
+    private final int maxGroups;
+    private final Path directory;
+    private final List<Path> runs = new ArrayList<>();
+    private final List<Merge> open = new ArrayList<>();
+    private ObjectLongMap<K> table = new ObjectLongMap<>();
+
+    /**
+     * @param order     key order of the runs and of the result
+     * @param codec     key encoding in run files
+     * @param maxGroups keys held in memory before the table is spilled
+     * @param directory where run files are created
+     */
+    public SpillingSum(Comparator<? super K> order, Codec<K> codec, int maxGroups, Path directory) {
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups must be positive: " + maxGroups);
+        }
+        this.order = Objects.requireNonNull(order);
+        this.codec = Objects.requireNonNull(codec);
+        this.maxGroups = maxGroups;
+        this.directory = Objects.requireNonNull(directory);
+    }
+
+    /**
+     * A collector that sums the values of elements with equal keys into the
+     * containers made by the supplier.
+     */
+    public static <T, K> Collector<T, SpillingSum<K>, SpillingSum<K>> summing(
+            Supplier<SpillingSum<K>> supplier, Function<? super T, ? extends K> key,
+            ToLongFunction<? super T> value) {
+        return Collector.of(supplier,
+                (sum, t) -> sum.add(key.apply(t), value.applyAsLong(t)),
+                SpillingSum::addAll);
+    }
+
+    /**
+     * Adds to the sum of a key, spilling the table once it passes the budget.
+     *
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public void add(K key, long value) {
+        table.addTo(key, value);
+        if (table.size() > maxGroups) {
+            spill();
+        }
+    }
+
+    /**
+     * Combiner for parallel streams: adds the table of another sum into this
+     * one and takes over its runs.
+     */
+    public SpillingSum<K> addAll(SpillingSum<K> other) {
+        other.table.forEach(this::add);
+        other.table = new ObjectLongMap<>();
+        runs.addAll(other.runs);
+        other.runs.clear();
+        return this;
+    }
+
+    /**
+     * Number of run files written so far, including merged ones.
+     */
+    public int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * Every key with its total, in key order. Iterating reads the run files;
+     * an iterator that is not exhausted holds them open until this sum is
+     * closed.
+     */
+    public Iterator<Map.Entry<K, Long>> iterator() {
+        if (runs.isEmpty()) {
+            return sortedTable().iterator();
+        }
+        spill();
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> merged = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            try (Merge merge = new Merge(merged)) {
+                write(merge);
+            }
+            delete(merged);
+        }
+        return new Merge(runs);
+    }
+
+    public void forEach(ObjLongConsumer<? super K> action) {
+        for (Iterator<Map.Entry<K, Long>> entries = iterator(); entries.hasNext(); ) {
+            Map.Entry<K, Long> entry = entries.next();
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Every key with its converted total, in a sorted map on the heap.
+     */
+    public <V> SortedMap<K, V> toMap(LongFunction<? extends V> convert) {
+        SortedMap<K, V> result = new TreeMap<>(order);
+        forEach((key, sum) -> result.put(key, convert.apply(sum)));
+        return result;
+    }
+
+    /**
+     * Closes open iterators and deletes every run file.
+     */
+    @Override
+    public void close() {
+        List.copyOf(open).forEach(Merge::close);
+        table = new ObjectLongMap<>();
+        try {
+            delete(runs);
+        } finally {
+            runs.clear();
+        }
+    }
+
+    private List<Map.Entry<K, Long>> sortedTable() {
+        List<Map.Entry<K, Long>> entries = new ArrayList<>(table.size());
+        table.forEach((key, sum) -> entries.add(Map.entry(key, sum)));
+        entries.sort(Map.Entry.comparingByKey(order));
+        return entries;
+    }
+
+    private void spill() {
+        if (!table.isEmpty()) {
+            write(sortedTable().iterator());
+            table = new ObjectLongMap<>();
+        }
+    }
+
+    /**
+     * Writes sorted entries to a new run: each entry is a true flag, the key
+     * and the sum; a false flag ends the run.
+     */
+    private void write(Iterator<Map.Entry<K, Long>> entries) {
+        try {
+            Path run = Files.createTempFile(directory, "spill-", ".run");
+            runs.add(run);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(run), BUFFER_SIZE))) {
+                while (entries.hasNext()) {
+                    Map.Entry<K, Long> entry = entries.next();
+                    out.writeBoolean(true);
+                    codec.write(out, entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                out.writeBoolean(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void delete(List<Path> files) {
+        IOException failure = null;
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * K-way merge of runs through a heap ordered by each run's current key.
+     */
+    private final class Merge implements Iterator<Map.Entry<K, Long>>, Closeable {
+
+        private final List<Run> sources = new ArrayList<>();
+        private final PriorityQueue<Run> heap = new PriorityQueue<>(Comparator.comparing((Run r) -> r.key, order));
+
+        Merge(List<Path> files) {
+            open.add(this);
+            try {
+                for (Path file : files) {
+                    Run run = new Run(file);
+                    sources.add(run);
+                    refill(run);
+                }
+                if (heap.isEmpty()) {
+                    close();
+                }
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<K, Long> next() {
+            Run first = heap.poll();
+            if (first == null) {
+                throw new NoSuchElementException();
+            }
+            K key = first.key;
+            long sum = first.value;
+            refill(first);
+            while (!heap.isEmpty() && order.compare(heap.peek().key, key) == 0) {
+                Run run = heap.poll();
+                sum = Math.addExact(sum, run.value);
+                refill(run);
+            }
+            if (heap.isEmpty()) {
+                close();
+            }
+            return Map.entry(key, sum);
+        }
+
+        private void refill(Run run) {
+            try {
+                if (run.advance()) {
+                    heap.add(run);
+                }
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            open.remove(this);
+            heap.clear();
+            IOException failure = null;
+            for (Run run : sources) {
+                try {
+                    run.in.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            sources.clear();
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+    }
+
+    /**
+     * Cursor over one run file.
+     */
+    private final class Run {
+
+        final DataInputStream in;
+        K key;
+        long value;
+
+        Run(Path file) {
+            try {
+                in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean advance() throws IOException {
+            if (!in.readBoolean()) {
+                return false;
+            }
+            key = codec.read(in);
+            value = in.readLong();
+            return true;
+        }
+    }
+}
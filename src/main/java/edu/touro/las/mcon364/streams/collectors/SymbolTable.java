@@ -0,0 +1,88 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+
+/**
+ * Interns identifiers such as customer ids or categories to dense int codes.
+ *
+ * Codes are assigned 0, 1, 2, ... in first-seen order, so they can index
+ * plain arrays of per-symbol aggregates: a grouping query hashes each
+ * identifier once at ingest and then works on ints, decoding back to the
+ * symbol only when it builds its result. {@link #symbol(int)} always returns
+ * the first instance interned, so decoded strings are shared rather than
+ * duplicated per row. Symbols may not be null and cannot be removed.
+ *
+ * Not thread-safe; share a table only after it has been filled.
+ */
+public final class SymbolTable<K> {
+
+    private final KeyIndex<K> index;
+
+    public SymbolTable() {
+        this(16);
+    }
+
+    public SymbolTable(int expectedSize) {
+        index = new KeyIndex<>(expectedSize);
+    }
+
+    /**
+     * Code of a symbol, assigning the next free code if it is new.
+     */
+    public int intern(K symbol) {
+        return index.add(symbol);
+    }
+
+    /**
+     * Code of a symbol, or -1 if it has not been interned.
+     */
+    public int code(Object symbol) {
+        return index.indexOf(symbol);
+    }
+
+    public K symbol(int code) {
+        Objects.checkIndex(code, index.size());
+        return index.key(code);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Read-only view of the symbols in code order.
+     */
+    public List<K> symbols() {
+        return new AbstractList<>() {
+            @Override
+            public K get(int code) {
+                return symbol(code);
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+        };
+    }
+
+    /**
+     * Renumbering that puts the codes in symbol order: element {@code c} is
+     * the new code of old code {@code c}. Used to hand out sorted codes once
+     * ingest is complete.
+     */
+    public int[] sortedRemapping(Comparator<? super K> order) {
+        // Sorts the symbols themselves and finds each one's code again, so no code is boxed
+        @SuppressWarnings("unchecked")
+        K[] sorted = (K[]) new Object[index.size()];
+        for (int c = 0; c < sorted.length; c++) {
+            sorted[c] = index.key(c);
+        }
+        Arrays.sort(sorted, order);
+        int[] remap = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            remap[index.indexOf(sorted[i])] = i;
+        }
+        return remap;
+    }
+}
@@ -0,0 +1,157 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Bounded selection of the k highest-scoring ids.
+ *
+ * Keeps a fixed-size binary min-heap in two primitive arrays (scores and int
+ * ids), so selecting the top k of U candidates costs O(U log k) time and O(k)
+ * memory instead of sorting all U. Higher scores rank first; equal scores
+ * rank the lower id first, which makes the result deterministic regardless
+ * of input order or how a parallel stream was split.
+ *
+ * A TopK is a mutable container usable with
+ * {@code IntStream.collect(() -> new TopK(k), ..., TopK::merge)}, or through
+ * {@link #collector}.
+ */
+public final class TopK {
+
+    private final int k;
+    private double[] scores;
+    private int[] ids;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0: " + k);
+        }
+        this.k = k;
+        int capacity = Math.min(k, 16);
+        scores = new double[capacity];
+        ids = new int[capacity];
+    }
+
+    /**
+     * Selects the top k ids from a stream, scoring each with the given
+     * function.
+     */
+    public static int[] select(IntStream candidates, int k, IntToDoubleFunction score) {
+        return candidates
+                .collect(() -> new TopK(k), (top, id) -> top.offer(id, score.applyAsDouble(id)), TopK::merge)
+                .ids();
+    }
+
+    /**
+     * A collector that maps each element to an id and a score and returns the
+     * top k ids, best first.
+     */
+    public static <T> Collector<T, TopK, int[]> collector(int k, ToIntFunction<? super T> id,
+                                                          ToDoubleFunction<? super T> score) {
+        return Collector.of(() -> new TopK(k),
+                (top, t) -> top.offer(id.applyAsInt(t), score.applyAsDouble(t)),
+                TopK::merge,
+                TopK::ids);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Offers one candidate. Kept only if it beats the current k-th best.
+     */
+    public void offer(int id, double score) {
+        if (size < k) {
+            if (size == ids.length) {
+                int capacity = (int) Math.min(k, 2L * ids.length);
+                scores = Arrays.copyOf(scores, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            scores[size] = score;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (k > 0 && ranksBelow(scores[0], ids[0], score, id)) {
+            scores[0] = score;
+            ids[0] = id;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Combiner for parallel streams: folds another heap into this one.
+     */
+    public TopK merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.ids[i], other.scores[i]);
+        }
+        return this;
+    }
+
+    /**
+     * The selected ids, best first.
+     */
+    public int[] ids() {
+        double[] s = Arrays.copyOf(scores, size);
+        int[] h = Arrays.copyOf(ids, size);
+        int[] result = new int[size];
+        for (int n = size; n > 0; n--) {
+            // Pop the worst remaining entry into the last free slot
+            result[n - 1] = h[0];
+            s[0] = s[n - 1];
+            h[0] = h[n - 1];
+            siftDown(s, h, 0, n - 1);
+        }
+        return result;
+    }
+
+    /**
+     * True if (scoreA, idA) ranks below (scoreB, idB).
+     */
+    private static boolean ranksBelow(double scoreA, int idA, double scoreB, int idB) {
+        int c = Double.compare(scoreA, scoreB);
+        return c < 0 || (c == 0 && idA > idB);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!ranksBelow(scores[i], ids[i], scores[parent], ids[parent])) {
+                break;
+            }
+            swap(scores, ids, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int n) {
+        siftDown(scores, ids, i, n);
+    }
+
+    private static void siftDown(double[] scores, int[] ids, int i, int n) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= n) {
+                return;
+            }
+            int child = left + 1 < n && ranksBelow(scores[left + 1], ids[left + 1], scores[left], ids[left])
+                    ? left + 1 : left;
+            if (!ranksBelow(scores[child], ids[child], scores[i], ids[i])) {
+                return;
+            }
+            swap(scores, ids, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(double[] scores, int[] ids, int a, int b) {
+        double s = scores[a];
+        scores[a] = scores[b];
+        scores[b] = s;
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
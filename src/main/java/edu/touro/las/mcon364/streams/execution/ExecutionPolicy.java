@@ -0,0 +1,272 @@
+package edu.touro.las.mcon364.streams.execution;
+
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Decides whether an analytics query runs sequentially or as a parallel
+ * stream, and on which {@link ForkJoinPool}.
+ *
+ * A parallel stream normally runs on {@link ForkJoinPool#commonPool()}, which
+ * is shared with everything else in the JVM. Evaluating the terminal operation
+ * from inside a task of another pool makes the stream use that pool instead,
+ * so queries can be isolated from the web tier.
+ *
+ * Three policies are available:
+ * - {@link #sequential()}: always sequential
+ * - {@link #parallel(ForkJoinPool)}: always parallel on the given pool
+ * - {@link #adaptive(ForkJoinPool, long)}: parallel only when the input has
+ *   at least {@code threshold} elements, since small inputs are faster
+ *   sequentially
+ *
+ * A policy can also carry a cancellation check ({@link #withCancellation}),
+ * which {@link #overRange} polls every {@value #CHECK_INTERVAL} rows, and
+ * {@link #overBlocks} and {@link #anyBlock} before every block, so a long
+ * CPU-bound query stops soon after a deadline passes.
+ *
+ * Policies are immutable and safe to share.
+ */
+public final class ExecutionPolicy {
+
+    public static final int CHECK_INTERVAL = 4096;
+
+    /**
+     * Rows per block of {@link #overBlocks} and {@link #anyBlock}, and so per
+     * entry of the zone maps they prune with. Independent of
+     * {@link #CHECK_INTERVAL}.
+     */
+    public static final int BLOCK_SIZE = 4096;
+
+    private static final ExecutionPolicy SEQUENTIAL = new ExecutionPolicy(null, Long.MAX_VALUE, null);
+
+    private final ForkJoinPool pool;
+    private final long threshold;
+    private final BooleanSupplier cancelled;
+
+    private ExecutionPolicy(ForkJoinPool pool, long threshold, BooleanSupplier cancelled) {
+        this.pool = pool;
+        this.threshold = threshold;
+        this.cancelled = cancelled;
+    }
+
+    public static ExecutionPolicy sequential() {
+        return SEQUENTIAL;
+    }
+
+    public static ExecutionPolicy parallel(ForkJoinPool pool) {
+        return adaptive(pool, 0);
+    }
+
+    public static ExecutionPolicy adaptive(ForkJoinPool pool, long threshold) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0: " + threshold);
+        }
+        return new ExecutionPolicy(pool, threshold, null);
+    }
+
+    /**
+     * The same policy, abandoning queries once the check returns true. A
+     * check already on the policy stays in force alongside the new one. The
+     * check runs on whichever thread processes the rows, so it must be
+     * thread-safe and cheap, e.g. a volatile flag or a deadline comparison.
+     *
+     * Example:
+     *   policy.withCancellation(() -> System.nanoTime() - deadline > 0)
+     */
+    public ExecutionPolicy withCancellation(BooleanSupplier cancelled) {
+        Objects.requireNonNull(cancelled);
+        BooleanSupplier previous = this.cancelled;
+        return new ExecutionPolicy(pool, threshold, previous == null ? cancelled
+                : () -> previous.getAsBoolean() || cancelled.getAsBoolean());
+    }
+
+    /**
+     * Whether an input of the given size would be processed in parallel.
+     */
+    public boolean isParallel(long size) {
+        return pool != null && size >= threshold;
+    }
+
+    /**
+     * Applies a query to a stream, switching the stream to parallel or
+     * sequential mode first. Parallel queries are evaluated inside the
+     * policy's pool. The size is reported to {@link QueryMetrics} as rows
+     * scanned by the query being measured, if any.
+     *
+     * Example:
+     *   policy.evaluate(list.stream(), list.size(), s -> s.map(f).toList())
+     *
+     * @param stream the unconsumed source stream
+     * @param size   number of elements, used by adaptive policies
+     * @param query  builds the rest of the pipeline and runs its terminal operation
+     */
+    public <S extends BaseStream<?, S>, R> R evaluate(S stream, long size, Function<? super S, ? extends R> query) {
+        QueryMetrics.scanned(size);
+        if (!isParallel(size)) {
+            return query.apply(stream.sequential());
+        }
+        S parallel = stream.parallel();
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == pool) {
+            return query.apply(parallel);
+        }
+        return pool.<R>submit(() -> query.apply(parallel)).join();
+    }
+
+    /**
+     * Applies a query to {@code IntStream.range(0, size)}, typically row
+     * indexes of a columnar store.
+     *
+     * @throws CancellationException if the policy's cancellation check fires
+     */
+    public <R> R overRange(int size, Function<? super IntStream, ? extends R> query) {
+        if (cancelled == null) {
+            return evaluate(IntStream.range(0, size), size, query);
+        }
+        checkCancelled();
+        return evaluate(IntStream.range(0, size).peek(i -> {
+            if (i % CHECK_INTERVAL == 0) {
+                checkCancelled();
+            }
+        }), size, query);
+    }
+
+    /**
+     * A query over one block {@code [from, to)} of a row range.
+     */
+    @FunctionalInterface
+    public interface RangeQuery<R> {
+        R apply(int from, int to);
+    }
+
+    /**
+     * A query over block number {@code block}, rows {@code [from, to)}, of a
+     * row range; the number indexes per-block statistics such as a zone map.
+     */
+    @FunctionalInterface
+    public interface BlockQuery<R> {
+        R apply(int block, int from, int to);
+    }
+
+    /**
+     * A test of block number {@code block}, rows {@code [from, to)}, of a row
+     * range.
+     */
+    @FunctionalInterface
+    public interface BlockPredicate {
+        boolean test(int block, int from, int to);
+    }
+
+    /**
+     * Number of blocks of {@value #BLOCK_SIZE} rows covering
+     * {@code [0, size)}; block {@code b} starts at row {@code b × BLOCK_SIZE}.
+     * Zone maps kept at this granularity line up with the blocks of
+     * {@link #overBlocks}.
+     */
+    public static int blockCount(int size) {
+        return (int) ((size + (long) BLOCK_SIZE - 1) / BLOCK_SIZE);
+    }
+
+    /**
+     * Applies a kernel to consecutive blocks of {@value #BLOCK_SIZE} rows
+     * of {@code [0, size)} and combines the block results in order, for array
+     * kernels that loop over a whole range themselves. Blocks are spread over
+     * the pool under parallel policies and the cancellation check runs before
+     * each one. An empty range is a single empty block.
+     *
+     * Example:
+     *   policy.overBlocks(values.length, (from, to) -> sum(values, from, to), Math::addExact)
+     *
+     * @throws CancellationException if the policy's cancellation check fires
+     */
+    public <R> R overBlocks(int size, RangeQuery<? extends R> block, BinaryOperator<R> combine) {
+        return overBlocks(size, b -> true, (b, from, to) -> block.apply(from, to), combine);
+    }
+
+    /**
+     * Like {@link #overBlocks(int, RangeQuery, BinaryOperator)}, but skips the
+     * blocks for which {@code mayMatch}, given the block number, is false,
+     * e.g. because a zone map of per-block minima and maxima rules out every
+     * row of the block. The kernel gets the block number along with its rows,
+     * so it can consult the same statistics. Only the remaining rows and blocks are reported to
+     * {@link QueryMetrics} as scanned; the others count as skipped. If no
+     * block is left the result is that of a single empty block.
+     *
+     * @throws CancellationException if the policy's cancellation check fires
+     */
+    public <R> R overBlocks(int size, IntPredicate mayMatch, BlockQuery<? extends R> block,
+                            BinaryOperator<R> combine) {
+        int[] kept = keptBlocks(size, mayMatch);
+        QueryMetrics.blocks(kept.length, blockCount(size) - kept.length);
+        return evaluate(Arrays.stream(kept), rowsIn(kept, size), stream -> stream
+                .<R>mapToObj(b -> {
+                    if (cancelled != null) {
+                        checkCancelled();
+                    }
+                    int from = b * BLOCK_SIZE;
+                    return block.apply(b, from, Math.min(size, from + BLOCK_SIZE));
+                })
+                .reduce(combine)
+                .orElseGet(() -> block.apply(0, 0, 0)));
+    }
+
+    /**
+     * Whether any block of {@code [0, size)} not ruled out by
+     * {@code mayMatch} passes the test, stopping at the first that does.
+     * Blocks left unvisited, pruned or after the match, count as skipped in
+     * {@link QueryMetrics}.
+     *
+     * @throws CancellationException if the policy's cancellation check fires
+     */
+    public boolean anyBlock(int size, IntPredicate mayMatch, BlockPredicate block) {
+        int[] kept = keptBlocks(size, mayMatch);
+        LongAdder visited = new LongAdder();
+        boolean found = evaluate(Arrays.stream(kept), rowsIn(kept, size), stream -> stream
+                .anyMatch(b -> {
+                    if (cancelled != null) {
+                        checkCancelled();
+                    }
+                    visited.increment();
+                    int from = b * BLOCK_SIZE;
+                    return block.test(b, from, Math.min(size, from + BLOCK_SIZE));
+                }));
+        QueryMetrics.blocks(visited.sum(), blockCount(size) - visited.sum());
+        return found;
+    }
+
+    /**
+     * The blocks of {@code [0, size)} that may match.
+     */
+    private static int[] keptBlocks(int size, IntPredicate mayMatch) {
+        return IntStream.range(0, blockCount(size)).filter(mayMatch).toArray();
+    }
+
+    private static long rowsIn(int[] blocks, int size) {
+        long rows = 0;
+        for (int b : blocks) {
+            rows += Math.min(size, (b + 1L) * BLOCK_SIZE) - (long) b * BLOCK_SIZE;
+        }
+        return rows;
+    }
+
+    private void checkCancelled() {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Query cancelled");
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (pool == null) {
+            return "ExecutionPolicy[sequential]";
+        }
+        return "ExecutionPolicy[parallel=" + pool.getParallelism() + ", threshold=" + threshold + "]";
+    }
+}
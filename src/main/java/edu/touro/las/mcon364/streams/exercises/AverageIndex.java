@@ -0,0 +1,218 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+/**
+ * Index of the students of a {@link GradebookStore} by average grade.
+ *
+ * {@code averages} holds every student's average in ascending order and
+ * {@code byAverage} the matching student codes, ties in code order. A
+ * fixed-width histogram of one-point buckets, {@code bucketStart[b]} being
+ * the first position whose average is at least {@code base + b}, narrows any
+ * threshold to one bucket before a binary search, so "average at least t"
+ * is a suffix of the sorted order and "below t" the matching prefix.
+ *
+ * Letter grades are precomputed ranges of the sorted order; {@code byLetter}
+ * is {@code byAverage} with each letter's range re-sorted by student code,
+ * so a letter's students come out in gradebook order without a sort.
+ * Arbitrary thresholds cannot be precomputed: their students are either the
+ * index range re-sorted by code, O(r log r) for r students, or, when that
+ * would cost more, a scan of {@code byCode}, O(students).
+ *
+ * Built once, in O(students log students), and immutable afterwards; the
+ * build counts as rows scanned by the measured query that triggered it.
+ */
+final class AverageIndex {
+
+    /**
+     * Letter grades, best first, and the lowest average of each but the last.
+     */
+    static final List<String> LETTERS = List.of("A", "B", "C", "D", "F");
+    private static final double[] LETTER_FLOORS = {90, 80, 70, 60};
+
+    private final double[] averages;        // ascending
+    private final double[] byCode;          // average of each student code
+    private final int[] byAverage;          // student codes, by average, then by code
+    private final long base;                // floor of the lowest average
+    private final int[] bucketStart;        // length buckets + 1
+    private final int[] letterStart;        // length LETTERS + 1, positions in byLetter
+    private final int[] byLetter;           // student codes, by letter, then by code
+
+    AverageIndex(GradebookStore store) {
+        int n = store.studentCount();
+        double[] unsorted = new double[n];
+        for (int s = 0; s < n; s++) {
+            unsorted[s] = store.average(s);
+        }
+        QueryMetrics.scanned(n);
+        byCode = unsorted;
+        averages = unsorted.clone();
+        Arrays.sort(averages);
+
+        base = n == 0 ? 0 : (long) Math.floor(averages[0]);
+        int buckets = n == 0 ? 0 : Math.toIntExact((long) Math.floor(averages[n - 1]) - base + 1);
+        bucketStart = new int[buckets + 1];
+        for (double average : averages) {
+            bucketStart[bucket(average) + 1]++;
+        }
+        Arrays.parallelPrefix(bucketStart, Integer::sum);
+
+        // Equal averages share a lower bound, so ties are placed in code order
+        byAverage = new int[n];
+        int[] placed = new int[n];
+        for (int s = 0; s < n; s++) {
+            int first = atLeast(unsorted[s]);
+            byAverage[first + placed[first]++] = s;
+        }
+
+        letterStart = new int[LETTERS.size() + 1];
+        letterStart[LETTERS.size()] = n;
+        for (int l = 0; l < LETTER_FLOORS.length; l++) {
+            letterStart[l + 1] = n - atLeast(LETTER_FLOORS[l]);
+        }
+        byLetter = new int[n];
+        for (int l = 0; l < LETTERS.size(); l++) {
+            // Letters run best first, averages ascending: A is the top suffix
+            int from = n - letterStart[l + 1];
+            int to = n - letterStart[l];
+            System.arraycopy(byAverage, from, byLetter, letterStart[l], to - from);
+            Arrays.sort(byLetter, letterStart[l], letterStart[l + 1]);
+        }
+    }
+
+    /**
+     * Letter grade of an average: A from 90, B from 80, C from 70, D from 60,
+     * F below.
+     */
+    static String letter(double average) {
+        for (int l = 0; l < LETTER_FLOORS.length; l++) {
+            if (average >= LETTER_FLOORS[l]) {
+                return LETTERS.get(l);
+            }
+        }
+        return LETTERS.get(LETTERS.size() - 1);
+    }
+
+    private int bucket(double average) {
+        return (int) ((long) Math.floor(average) - base);
+    }
+
+    // =========================================================================
+    // THRESHOLDS
+    // =========================================================================
+
+    int size() {
+        return averages.length;
+    }
+
+    /**
+     * Position of the first student whose average is at least the threshold,
+     * i.e. the number of students below it. O(log bucket size).
+     */
+    int atLeast(double threshold) {
+        int n = averages.length;
+        if (Double.isNaN(threshold)) {
+            return n;
+        }
+        if (n == 0 || threshold <= averages[0]) {
+            return 0;
+        }
+        if (threshold > averages[n - 1]) {
+            return n;
+        }
+        int b = bucket(threshold);
+        int low = bucketStart[b];
+        int high = bucketStart[b + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (averages[mid] < threshold) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Codes of the students whose average is at least the threshold, in
+     * ascending code (i.e. gradebook) order. O(min(r log r, students)) for
+     * r results.
+     */
+    int[] studentsAtLeast(double threshold) {
+        if (Double.isNaN(threshold)) {
+            return new int[0];
+        }
+        int from = atLeast(threshold);
+        return inCodeOrder(from, averages.length, s -> byCode[s] >= threshold);
+    }
+
+    /**
+     * Codes of the students whose average is below the threshold, in
+     * ascending code order. O(min(r log r, students)) for r results.
+     */
+    int[] studentsBelow(double threshold) {
+        if (Double.isNaN(threshold)) {
+            return new int[0];
+        }
+        int to = atLeast(threshold);
+        return inCodeOrder(0, to, s -> byCode[s] < threshold);
+    }
+
+    /**
+     * The codes in {@code byAverage[from, to)}, ascending: sorted when the
+     * range is small, otherwise found by a scan of every code with the
+     * predicate that selects the same range.
+     */
+    private int[] inCodeOrder(int from, int to, IntPredicate inRange) {
+        int size = to - from;
+        int n = byCode.length;
+        if (size > 1 && (long) size * (32 - Integer.numberOfLeadingZeros(size)) > n) {
+            int[] students = new int[size];
+            int found = 0;
+            for (int s = 0; s < n; s++) {
+                if (inRange.test(s)) {
+                    students[found++] = s;
+                }
+            }
+            return students;
+        }
+        int[] students = Arrays.copyOfRange(byAverage, from, to);
+        Arrays.sort(students);
+        return students;
+    }
+
+    // =========================================================================
+    // BUCKETS
+    // =========================================================================
+
+    /**
+     * Codes of the students with a letter grade, an index into
+     * {@link #LETTERS}, in ascending code order. O(result).
+     */
+    int[] studentsWithLetter(int letter) {
+        return Arrays.copyOfRange(byLetter, letterStart[letter], letterStart[letter + 1]);
+    }
+
+    /**
+     * Number of students per fixed-width bucket of averages, keyed by the
+     * bucket's lower bound, a multiple of the width; empty buckets are left
+     * out. O(range of averages).
+     */
+    SortedMap<Integer, Integer> histogram(int width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("Width must be positive: " + width);
+        }
+        SortedMap<Integer, Integer> histogram = new TreeMap<>();
+        for (int b = 0; b + 1 < bucketStart.length; b++) {
+            int students = bucketStart[b + 1] - bucketStart[b];
+            if (students > 0) {
+                histogram.merge(Math.floorDiv((int) (base + b), width) * width, students, Integer::sum);
+            }
+        }
+        return histogram;
+    }
+}
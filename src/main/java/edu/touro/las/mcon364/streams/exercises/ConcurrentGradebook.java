@@ -0,0 +1,273 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import java.lang.invoke.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Gradebook that teachers post grades to while reports run.
+ *
+ * Every event, a student's registration or one grade, is appended to a log of
+ * packed {@code long} slots split into fixed-size chunks. A writer claims the
+ * next slot with one atomic increment and publishes its event with a release
+ * store, so recording a grade never takes a lock and concurrent writers only
+ * share that increment. Registering a new student takes a short lock, which
+ * keeps registrations in code order in the log.
+ *
+ * {@link #snapshot()} packs the longest prefix of published slots into an
+ * immutable {@link GradebookStore}. A slot still being written merely ends the
+ * prefix, so readers never block writers, and a prefix is a consistent cut:
+ * a student's grades appear in recorded order, and a grade recorded after
+ * another has returned is only seen together with it. A snapshot is cached
+ * until a new event is published. A new one reads only the slots published
+ * since the previous snapshot and appends them to its store (see
+ * {@link GradebookStore#append}): pages of students without new grades, and
+ * the name lookup, are shared with the previous store rather than copied.
+ * Snapshots are taken one at a time.
+ *
+ * The log is compacted as it is packed: chunks below the latest snapshot
+ * are released, and their positions in the chunk ring reused, so memory and
+ * the 2^30-event limit apply only to events not yet in a snapshot.
+ *
+ * Alongside the log each student keeps a live count and sum in
+ * {@link LongAdder}s, for monitoring without a snapshot. Live stats are
+ * updated after the event is published, so they may lag or lead the latest
+ * snapshot by the grades in flight.
+ *
+ * Layout of a slot:
+ * <pre>
+ *   0                             not yet published
+ *   (code + 1) << 32 | grade      grade of the student with that code
+ *   (code + 1) << 32 | REGISTERED registration of the student with that code
+ * </pre>
+ */
+public final class ConcurrentGradebook {
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 14;                // ring of 2^30 unpacked events
+    private static final int REGISTERED = Integer.MIN_VALUE;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private record Student(String name, int code, LongAdder count, LongAdder sum) {}
+
+    private record Snapshot(long end, GradebookStore store) {}
+
+    /**
+     * Slots {@code [number * CHUNK_SIZE, (number + 1) * CHUNK_SIZE)} of the
+     * log, held at {@code number % MAX_CHUNKS} in the ring.
+     */
+    private record Chunk(long number, long[] slots) {}
+
+    private final ConcurrentHashMap<String, Student> students = new ConcurrentHashMap<>();
+    private final Object registration = new Object();
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private int registered;                             // guarded by registration
+    private volatile String[] names = new String[16];   // by code, grown under registration
+    // Set before the registration is logged, so every snapshot can look up its students
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile Snapshot latest = new Snapshot(0, GradebookStore.of(Map.of()));
+    private long released;                              // chunks below this are packed; guarded by this
+
+    public ConcurrentGradebook() {
+    }
+
+    /**
+     * A gradebook holding the given grades, students in the iteration order
+     * of the map.
+     *
+     * @throws IllegalArgumentException if a grade does not fit in a short
+     */
+    public static ConcurrentGradebook of(Map<String, ? extends Collection<Integer>> gradebook) {
+        ConcurrentGradebook book = new ConcurrentGradebook();
+        gradebook.forEach((name, grades) -> {
+            book.register(name);
+            grades.forEach(grade -> book.record(name, grade));
+        });
+        return book;
+    }
+
+    // =========================================================================
+    // WRITES
+    // =========================================================================
+
+    /**
+     * Adds a student without grades, if absent.
+     */
+    public void register(String student) {
+        student(student);
+    }
+
+    /**
+     * Appends one grade to a student's grades, registering the student first
+     * if needed. Lock-free unless the student is new.
+     *
+     * @throws IllegalArgumentException if the grade does not fit in a short
+     */
+    public void record(String student, int grade) {
+        if (grade < Short.MIN_VALUE || grade > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Grade out of range for " + student + ": " + grade);
+        }
+        Student s = student(student);
+        append(s.code(), grade);
+        s.count().increment();
+        s.sum().add(grade);
+    }
+
+    private Student student(String name) {
+        Student s = students.get(Objects.requireNonNull(name));
+        return s != null ? s : students.computeIfAbsent(name, this::newStudent);
+    }
+
+    /**
+     * Called at most once per name, inside the map's computeIfAbsent.
+     */
+    private Student newStudent(String name) {
+        synchronized (registration) {
+            String[] byCode = names;
+            int code = registered++;
+            if (code == byCode.length) {
+                byCode = Arrays.copyOf(byCode, byCode.length * 2);
+            }
+            byCode[code] = name;
+            names = byCode;
+            codes.put(name, code);
+            append(code, REGISTERED);
+            return new Student(name, code, new LongAdder(), new LongAdder());
+        }
+    }
+
+    private void append(int code, int value) {
+        long slot = nextSlot.getAndIncrement();
+        long number = slot >>> CHUNK_BITS;
+        int c = (int) (number & (MAX_CHUNKS - 1));
+        Chunk chunk = chunks.get(c);
+        if (chunk == null) {
+            chunks.compareAndSet(c, null, new Chunk(number, new long[CHUNK_SIZE]));
+            chunk = chunks.get(c);
+        }
+        if (chunk == null || chunk.number() != number) {
+            throw new IllegalStateException("Gradebook log is full: 2^30 events recorded since the last snapshot");
+        }
+        SLOT.setRelease(chunk.slots(), (int) slot & (CHUNK_SIZE - 1),
+                (long) (code + 1) << 32 | (value & 0xFFFFFFFFL));
+    }
+
+    /**
+     * A published slot, or 0 if it is still being written; never called for
+     * a released slot.
+     */
+    private long read(long slot) {
+        long number = slot >>> CHUNK_BITS;
+        Chunk chunk = chunks.get((int) (number & (MAX_CHUNKS - 1)));
+        return chunk == null || chunk.number() != number
+                ? 0 : (long) SLOT.getAcquire(chunk.slots(), (int) slot & (CHUNK_SIZE - 1));
+    }
+
+    // =========================================================================
+    // READS
+    // =========================================================================
+
+    /**
+     * An immutable store of every event in the longest published prefix of
+     * the log. Never blocks writers.
+     */
+    public GradebookStore snapshot() {
+        Snapshot last = latest;
+        if (read(last.end()) == 0 && latest == last) {
+            // Nothing published since, and no newer snapshot released the slot read
+            return last.store();
+        }
+        synchronized (this) {
+            last = latest;
+            long end = last.end();
+            while (read(end) != 0) {
+                end++;
+            }
+            if (end == last.end()) {
+                return last.store();
+            }
+            latest = new Snapshot(end, pack(last, end));
+            // Every slot below end is in the store now; free their chunks for reuse
+            for (long full = end >>> CHUNK_BITS; released < full; released++) {
+                int c = (int) (released & (MAX_CHUNKS - 1));
+                Chunk chunk = chunks.get(c);
+                if (chunk != null && chunk.number() == released) {
+                    chunks.compareAndSet(c, chunk, null);
+                }
+            }
+            return latest.store();
+        }
+    }
+
+    /**
+     * The previous snapshot's store with the events in
+     * {@code [last.end, end)} appended.
+     */
+    private GradebookStore pack(Snapshot last, long end) {
+        String[] byCode = names;
+        int events = Math.toIntExact(end - last.end());
+        int[] studentOf = new int[events];
+        int[] grades = new int[events];
+        int registrations = 0;
+        int count = 0;
+        for (long slot = last.end(); slot < end; slot++) {
+            long event = read(slot);
+            int code = (int) (event >>> 32) - 1;
+            int grade = (int) event;
+            if (grade == REGISTERED) {
+                registrations++;
+            } else {
+                studentOf[count] = code;
+                grades[count++] = grade;
+            }
+        }
+        // Registrations are logged in code order, so the prefix holds codes [0, known + registrations)
+        int known = last.store().studentCount();
+        return GradebookStore.append(last.store(), roster(byCode), known + registrations, studentOf, grades,
+                count);
+    }
+
+    /**
+     * Names by code from the array current when the snapshot was packed, which
+     * holds every code the snapshot knows; codes through the live code map,
+     * shared by every snapshot.
+     */
+    private GradebookStore.Roster roster(String[] byCode) {
+        return new GradebookStore.Roster() {
+            @Override
+            public String name(int code) {
+                return byCode[code];
+            }
+
+            @Override
+            public int code(String name) {
+                Integer code = name == null ? null : codes.get(name);
+                return code == null ? -1 : code;
+            }
+        };
+    }
+
+    /**
+     * Number of grades recorded so far, including ones still in flight.
+     */
+    public long liveGradeCount() {
+        return students.values().stream().mapToLong(s -> s.count().sum()).sum();
+    }
+
+    /**
+     * Running average of a student's grades, without taking a snapshot; empty
+     * for an unknown student or one without grades.
+     */
+    public OptionalDouble liveAverage(String student) {
+        Student s = students.get(student);
+        if (s == null) {
+            return OptionalDouble.empty();
+        }
+        long sum = s.sum().sum();
+        long count = s.count().sum();
+        return count == 0 ? OptionalDouble.empty() : OptionalDouble.of((double) sum / count);
+    }
+}
@@ -0,0 +1,546 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import edu.touro.las.mcon364.streams.collectors.RunningStats;
+import edu.touro.las.mcon364.streams.collectors.SymbolTable;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+
+import java.util.*;
+
+/**
+ * Compact, immutable gradebook: grades packed into primitive arenas.
+ *
+ * Student codes follow the order of the source map and are split into pages
+ * of {@value ExecutionPolicy#BLOCK_SIZE} codes, the blocks of
+ * {@link ExecutionPolicy#overBlocks}. Each page stores its students' grades
+ * student after student in a {@code byte[]} when they all fit in a byte
+ * (0-100 always does), otherwise in a {@code short[]}; {@code start[i]} is
+ * the offset of the page's {@code i}-th student's first grade. Names are
+ * looked up in a {@link Roster}, by default a {@link SymbolTable}.
+ *
+ * Each student also keeps a count, exact sum, min, max and the sum of
+ * squared deviations from the mean (M2), computed once at build time in a
+ * single {@link RunningStats} pass, so averages, extremes, standard
+ * deviations and perfect-score checks cost O(1) per student and never box a
+ * grade.
+ *
+ * Layout of a page:
+ * <pre>
+ *   bytes | shorts   grades, student by student
+ *   start            int[students + 1]
+ *   sum              long[students]
+ *   m2               double[students], Welford sum of squared deviations
+ *   min, max         int[students], meaningless for a student with no grades
+ *   perfect          students with at least one {@value #PERFECT}
+ *   blockMax         highest grade of the page
+ *   blockMinAverage, blockMaxAverage
+ *                    bounds of the averages of the page
+ * </pre>
+ *
+ * The block fields form a zone map: a query for perfect scores skips every
+ * page whose highest grade is below {@value #PERFECT}, and a search for a
+ * failing average skips every page whose lowest average passes and stops,
+ * unread, at a page whose highest average fails.
+ *
+ * Pages are immutable, so a store built from another by {@link #append}
+ * shares every page without new grades, along with the roster.
+ *
+ * An {@link AverageIndex} of students by average is built on first use.
+ */
+public final class GradebookStore {
+
+    public static final int PERFECT = 100;
+
+    private static final int PAGE = ExecutionPolicy.BLOCK_SIZE;
+
+    /**
+     * Student names by code. A roster shared by successive stores may know
+     * students a store does not hold yet; each store only asks about its own.
+     */
+    interface Roster {
+
+        String name(int code);
+
+        /**
+         * Code of a student, or -1 if absent.
+         */
+        int code(String name);
+    }
+
+    private final Roster roster;
+    private final int students;
+    private final Page[] pages;
+    private final int gradeCount;
+    private final long totalSum;
+    private final int lowest;
+    private final int highest;
+
+    private volatile AverageIndex averageIndex;
+
+    private GradebookStore(Roster roster, int students, Page[] pages) {
+        this.roster = roster;
+        this.students = students;
+        this.pages = pages;
+        int grades = 0;
+        long total = 0;
+        int low = Integer.MAX_VALUE;
+        int high = Integer.MIN_VALUE;
+        for (Page page : pages) {
+            grades = Math.addExact(grades, page.gradeCount());
+            total += page.totalSum;
+            low = Math.min(low, page.lowest);
+            high = Math.max(high, page.highest);
+        }
+        gradeCount = grades;
+        totalSum = total;
+        lowest = low;
+        highest = high;
+    }
+
+    /**
+     * Packs a gradebook, in the iteration order of the map.
+     *
+     * @throws IllegalArgumentException if a grade does not fit in a short
+     */
+    public static GradebookStore of(Map<String, ? extends Collection<Integer>> gradebook) {
+        SymbolTable<String> names = new SymbolTable<>(gradebook.size());
+        Page[] pages = new Page[ExecutionPolicy.blockCount(gradebook.size())];
+        List<Collection<Integer>> page = new ArrayList<>(Math.min(PAGE, gradebook.size()));
+        for (Map.Entry<String, ? extends Collection<Integer>> entry : gradebook.entrySet()) {
+            for (int grade : entry.getValue()) {
+                if (grade < Short.MIN_VALUE || grade > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Grade out of range for " + entry.getKey() + ": " + grade);
+                }
+            }
+            int s = names.intern(entry.getKey());
+            page.add(entry.getValue());
+            if (page.size() == PAGE || s == gradebook.size() - 1) {
+                pages[s / PAGE] = Page.of(page);
+                page.clear();
+            }
+        }
+        return new GradebookStore(roster(names), names.size(), pages);
+    }
+
+    private static Roster roster(SymbolTable<String> names) {
+        return new Roster() {
+            @Override
+            public String name(int code) {
+                return names.symbol(code);
+            }
+
+            @Override
+            public int code(String name) {
+                return names.code(name);
+            }
+        };
+    }
+
+    /**
+     * A store holding the grades of {@code previous} followed by more grades,
+     * given as parallel columns of student codes and grades in recorded
+     * order; grades must fit in a short. The roster names {@code students}
+     * students, extending those of {@code previous}.
+     *
+     * Only pages with new grades or new students are rebuilt, their other
+     * students keeping their stats; every other page is shared. The cost is
+     * O(new grades + pages) plus one copy of each rebuilt page.
+     */
+    static GradebookStore append(GradebookStore previous, Roster roster, int students, int[] studentOf,
+                                 int[] grades, int count) {
+        int pageCount = ExecutionPolicy.blockCount(students);
+        Page[] pages = Arrays.copyOf(previous.pages, pageCount);
+        // Counting sort of the new grades by page, keeping recorded order within each
+        int[] pageStart = new int[pageCount + 1];
+        for (int i = 0; i < count; i++) {
+            pageStart[studentOf[i] / PAGE + 1]++;
+        }
+        for (int p = 0; p < pageCount; p++) {
+            pageStart[p + 1] += pageStart[p];
+        }
+        int[] byPage = new int[count];
+        int[] next = Arrays.copyOf(pageStart, pageCount);
+        for (int i = 0; i < count; i++) {
+            byPage[next[studentOf[i] / PAGE]++] = i;
+        }
+        for (int p = 0; p < pageCount; p++) {
+            Page old = p < previous.pages.length ? previous.pages[p] : null;
+            int size = Math.min(PAGE, students - p * PAGE);
+            if (pageStart[p] < pageStart[p + 1] || old == null || old.size() != size) {
+                pages[p] = Page.append(old, size, p * PAGE, studentOf, grades, byPage, pageStart[p],
+                        pageStart[p + 1]);
+            }
+        }
+        return new GradebookStore(roster, students, pages);
+    }
+
+    /**
+     * Students {@code [n × PAGE, n × PAGE + size())} of page {@code n};
+     * immutable.
+     */
+    private static final class Page {
+
+        final byte[] bytes;                 // null when grades need shorts
+        final short[] shorts;               // null when grades fit in bytes
+        final int[] start;
+        final long[] sum;
+        final double[] m2;
+        final int[] min;
+        final int[] max;
+        final BitSet perfect;
+        final long totalSum;
+        final int lowest;
+        final int highest;
+        final int blockMax;
+        final double blockMinAverage;
+        final double blockMaxAverage;
+
+        /**
+         * Packs grades laid out student by student. Students of
+         * {@code previous} not set in {@code changed} keep their stats from it
+         * rather than rescanning their grades.
+         */
+        Page(byte[] bytes, short[] shorts, int[] start, Page previous, BitSet changed) {
+            this.bytes = bytes;
+            this.shorts = shorts;
+            this.start = start;
+            int n = start.length - 1;
+            sum = new long[n];
+            m2 = new double[n];
+            min = new int[n];
+            max = new int[n];
+            perfect = new BitSet(n);
+            long total = 0;
+            int low = Integer.MAX_VALUE;
+            int high = Integer.MIN_VALUE;
+            int kept = previous == null ? 0 : previous.size();
+            for (int s = 0; s < n; s++) {
+                if (s < kept && !changed.get(s)) {
+                    sum[s] = previous.sum[s];
+                    m2[s] = previous.m2[s];
+                    min[s] = previous.min[s];
+                    max[s] = previous.max[s];
+                    perfect.set(s, previous.perfect.get(s));
+                } else {
+                    long grades = 0;
+                    int smallest = Integer.MAX_VALUE;
+                    int largest = Integer.MIN_VALUE;
+                    RunningStats stats = new RunningStats();
+                    for (int i = start[s], end = start[s + 1]; i < end; i++) {
+                        int grade = grade(i);
+                        grades += grade;
+                        stats.accept(grade);
+                        smallest = Math.min(smallest, grade);
+                        largest = Math.max(largest, grade);
+                        if (grade == PERFECT) {
+                            perfect.set(s);
+                        }
+                    }
+                    sum[s] = grades;
+                    m2[s] = stats.getM2();
+                    min[s] = smallest;
+                    max[s] = largest;
+                }
+                total += sum[s];
+                low = Math.min(low, min[s]);
+                high = Math.max(high, max[s]);
+            }
+            totalSum = total;
+            lowest = low;
+            highest = high;
+
+            int maxGrade = Integer.MIN_VALUE;
+            double minAverage = Double.POSITIVE_INFINITY;
+            double maxAverage = Double.NEGATIVE_INFINITY;
+            for (int s = 0; s < n; s++) {
+                if (count(s) > 0) {
+                    maxGrade = Math.max(maxGrade, max[s]);
+                }
+                minAverage = Math.min(minAverage, average(s));
+                maxAverage = Math.max(maxAverage, average(s));
+            }
+            blockMax = maxGrade;
+            blockMinAverage = minAverage;
+            blockMaxAverage = maxAverage;
+        }
+
+        static Page of(List<? extends Collection<Integer>> grades) {
+            int[] start = new int[grades.size() + 1];
+            boolean fitsInBytes = true;
+            for (int s = 0; s < grades.size(); s++) {
+                start[s + 1] = Math.addExact(start[s], grades.get(s).size());
+                for (int grade : grades.get(s)) {
+                    fitsInBytes &= grade >= Byte.MIN_VALUE && grade <= Byte.MAX_VALUE;
+                }
+            }
+            int count = start[grades.size()];
+            byte[] bytes = fitsInBytes ? new byte[count] : null;
+            short[] shorts = fitsInBytes ? null : new short[count];
+            int i = 0;
+            for (Collection<Integer> list : grades) {
+                for (int grade : list) {
+                    if (fitsInBytes) {
+                        bytes[i++] = (byte) grade;
+                    } else {
+                        shorts[i++] = (short) grade;
+                    }
+                }
+            }
+            return new Page(bytes, shorts, start, null, null);
+        }
+
+        /**
+         * {@code previous}, possibly null, grown to {@code size} students and
+         * with the grades {@code order[from..to)} appended; {@code base} is
+         * the code of the page's first student.
+         */
+        static Page append(Page previous, int size, int base, int[] studentOf, int[] grades, int[] order,
+                           int from, int to) {
+            int kept = previous == null ? 0 : previous.size();
+            int[] start = new int[size + 1];
+            BitSet changed = new BitSet(size);
+            boolean fitsInBytes = previous == null || previous.bytes != null;
+            for (int k = from; k < to; k++) {
+                int i = order[k];
+                start[studentOf[i] - base + 1]++;
+                changed.set(studentOf[i] - base);
+                fitsInBytes &= grades[i] >= Byte.MIN_VALUE && grades[i] <= Byte.MAX_VALUE;
+            }
+            for (int s = 0; s < kept; s++) {
+                start[s + 1] += previous.count(s);
+            }
+            for (int s = 0; s < size; s++) {
+                start[s + 1] = Math.addExact(start[s + 1], start[s]);
+            }
+            byte[] bytes = fitsInBytes ? new byte[start[size]] : null;
+            short[] shorts = fitsInBytes ? null : new short[start[size]];
+            int[] next = Arrays.copyOf(start, size);
+            for (int s = 0; s < kept; s++) {
+                int first = previous.start[s];
+                int count = previous.count(s);
+                if (fitsInBytes) {
+                    System.arraycopy(previous.bytes, first, bytes, next[s], count);
+                } else if (previous.shorts != null) {
+                    System.arraycopy(previous.shorts, first, shorts, next[s], count);
+                } else {
+                    for (int i = 0; i < count; i++) {
+                        shorts[next[s] + i] = previous.bytes[first + i];
+                    }
+                }
+                next[s] += count;
+            }
+            for (int k = from; k < to; k++) {
+                int i = order[k];
+                int slot = next[studentOf[i] - base]++;
+                if (fitsInBytes) {
+                    bytes[slot] = (byte) grades[i];
+                } else {
+                    shorts[slot] = (short) grades[i];
+                }
+            }
+            return new Page(bytes, shorts, start, previous, changed);
+        }
+
+        int size() {
+            return start.length - 1;
+        }
+
+        int count(int s) {
+            return start[s + 1] - start[s];
+        }
+
+        int gradeCount() {
+            return start[size()];
+        }
+
+        double average(int s) {
+            int n = count(s);
+            return n == 0 ? 0.0 : (double) sum[s] / n;
+        }
+
+        int grade(int i) {
+            return bytes != null ? bytes[i] : shorts[i];
+        }
+    }
+
+    // =========================================================================
+    // STUDENTS
+    // =========================================================================
+
+    public int studentCount() {
+        return students;
+    }
+
+    public String student(int s) {
+        return roster.name(Objects.checkIndex(s, students));
+    }
+
+    /**
+     * Code of a student, or -1 if absent.
+     */
+    public int indexOf(String student) {
+        int s = roster.code(student);
+        return s < students ? s : -1;
+    }
+
+    private Page page(int s) {
+        return pages[s / PAGE];
+    }
+
+    public int count(int s) {
+        return page(s).count(s % PAGE);
+    }
+
+    public long sum(int s) {
+        return page(s).sum[s % PAGE];
+    }
+
+    /**
+     * Mean grade; 0.0 for a student with no grades.
+     */
+    public double average(int s) {
+        return page(s).average(s % PAGE);
+    }
+
+    /**
+     * Population variance, sum((x - mean)^2) / n; 0.0 for a student with no
+     * grades.
+     */
+    public double variance(int s) {
+        int n = count(s);
+        return n == 0 ? 0.0 : page(s).m2[s % PAGE] / n;
+    }
+
+    public double standardDeviation(int s) {
+        return Math.sqrt(variance(s));
+    }
+
+    public int min(int s) {
+        return page(s).min[s % PAGE];
+    }
+
+    public int max(int s) {
+        return page(s).max[s % PAGE];
+    }
+
+    /**
+     * A student's stats as a fresh, mergeable {@link RunningStats}.
+     */
+    public RunningStats statistics(int s) {
+        return RunningStats.of(count(s), average(s), page(s).m2[s % PAGE], min(s), max(s));
+    }
+
+    public boolean hasPerfectScore(int s) {
+        return page(s).perfect.get(s % PAGE);
+    }
+
+    /**
+     * Read-only view of a student's grades, in recorded order.
+     */
+    public List<Integer> grades(int s) {
+        Page page = page(s);
+        int from = page.start[s % PAGE];
+        int size = page.count(s % PAGE);
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return page.grade(from + Objects.checkIndex(index, size));
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // =========================================================================
+    // BLOCKS OF STUDENTS
+    // =========================================================================
+
+    /**
+     * Highest grade of any student of a block; {@code Integer.MIN_VALUE} if
+     * none has grades.
+     */
+    public int blockMax(int block) {
+        return pages[block].blockMax;
+    }
+
+    public double blockMinAverage(int block) {
+        return pages[block].blockMinAverage;
+    }
+
+    public double blockMaxAverage(int block) {
+        return pages[block].blockMaxAverage;
+    }
+
+    // =========================================================================
+    // WHOLE GRADEBOOK
+    // =========================================================================
+
+    public int gradeCount() {
+        return gradeCount;
+    }
+
+    public long totalSum() {
+        return totalSum;
+    }
+
+    /**
+     * Highest grade of any student; empty for a gradebook without grades.
+     */
+    public OptionalInt highest() {
+        return gradeCount() == 0 ? OptionalInt.empty() : OptionalInt.of(highest);
+    }
+
+    public OptionalInt lowest() {
+        return gradeCount() == 0 ? OptionalInt.empty() : OptionalInt.of(lowest);
+    }
+
+    /**
+     * Every grade in ascending order, counting-sorted over the grade range in
+     * O(grades + range), as a read-only view.
+     */
+    public List<Integer> sortedGrades() {
+        int n = gradeCount();
+        if (n == 0) {
+            return List.of();
+        }
+        int[] counts = new int[highest - lowest + 1];
+        for (Page page : pages) {
+            for (int i = 0, end = page.gradeCount(); i < end; i++) {
+                counts[page.grade(i) - lowest]++;
+            }
+        }
+        int[] sorted = new int[n];
+        for (int g = 0, i = 0; g < counts.length; g++) {
+            Arrays.fill(sorted, i, i += counts[g], g + lowest);
+        }
+        return new AbstractList<>() {
+            @Override
+            public Integer get(int index) {
+                return sorted[index];
+            }
+
+            @Override
+            public int size() {
+                return sorted.length;
+            }
+        };
+    }
+
+    /**
+     * Index of the students by average, built on first use.
+     */
+    AverageIndex averageIndex() {
+        AverageIndex index = averageIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = averageIndex;
+                if (index == null) {
+                    averageIndex = index = new AverageIndex(this);
+                }
+            }
+        }
+        return index;
+    }
+}
@@ -1,6 +1,12 @@
 package edu.touro.las.mcon364.streams.exercises;
 
+import edu.touro.las.mcon364.streams.collectors.ObjectDoubleMap;
+import edu.touro.las.mcon364.streams.collectors.RunningStats;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
 import java.util.*;
+import java.util.function.*;
 import java.util.stream.*;
 
 /**
@@ -10,19 +16,29 @@ import java.util.stream.*;
  * represented as a Map<String, List<Integer>> where:
  * - Key: Student name
  * - Value: List of grades (0-100)
- * Complete all methods marked with TODO.
- * Use stream operations - no explicit loops allowed!
+ * The map is packed into a {@link GradebookStore}, and every query is a
+ * stream pipeline over student codes that reads the store's per-student
+ * statistics rather than unboxing grades. Queries run under an
+ * {@link ExecutionPolicy}, sequential by default. Over a
+ * {@link ConcurrentGradebook}, each query reads one snapshot while grades
+ * keep being recorded.
  * 
  * See EXERCISES_README.md for detailed instructions.
  */
 public class StreamExercise {
-    // The gradebook: student name -> list of grades
-    private final Map<String, List<Integer>> gradebook;
+    // The gradebook: student name -> grades, packed; each query reads one store
+    private final Supplier<GradebookStore> gradebook;
+    private final ExecutionPolicy policy;
+    private final QueryMetrics metrics;
     /**
      * Constructor initializes the gradebook with sample data.
      */
     public StreamExercise() {
-        gradebook = new LinkedHashMap<>();
+        this(sampleGradebook());
+    }
+    
+    private static Map<String, List<Integer>> sampleGradebook() {
+        Map<String, List<Integer>> gradebook = new LinkedHashMap<>();
         gradebook.put("Alice", List.of(95, 87, 92, 88, 91));
         gradebook.put("Bob", List.of(78, 82, 75, 80, 79));
         gradebook.put("Carol", List.of(92, 95, 98, 94, 100));
@@ -31,6 +47,54 @@ public class StreamExercise {
         gradebook.put("Frank", List.of(55, 60, 58, 62, 52));
         gradebook.put("Grace", List.of(100, 98, 95, 97, 99));
         gradebook.put("Henry", List.of(72, 75, 70, 78, 74));
+        return gradebook;
+    }
+    
+    /**
+     * Creates an exercise over the given gradebook. Student order is the
+     * iteration order of the given map.
+     */
+    public StreamExercise(Map<String, List<Integer>> gradebook) {
+        this(GradebookStore.of(gradebook));
+    }
+    
+    /**
+     * Creates an exercise over an already-packed gradebook.
+     */
+    public StreamExercise(GradebookStore gradebook) {
+        this(() -> gradebook, ExecutionPolicy.sequential(), null);
+    }
+    
+    /**
+     * Creates an exercise over a gradebook that is updated concurrently. Each
+     * query runs against one snapshot, taken when the query starts, so it
+     * sees every grade recorded before and none of those recorded while it
+     * runs.
+     */
+    public StreamExercise(ConcurrentGradebook gradebook) {
+        this(gradebook::snapshot, ExecutionPolicy.sequential(), null);
+    }
+    
+    private StreamExercise(Supplier<GradebookStore> gradebook, ExecutionPolicy policy, QueryMetrics metrics) {
+        this.gradebook = gradebook;
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Returns a view of the same gradebook whose queries run under the given
+     * policy, e.g. in parallel on a dedicated ForkJoinPool.
+     */
+    public StreamExercise withExecutionPolicy(ExecutionPolicy policy) {
+        return new StreamExercise(gradebook, policy, metrics);
+    }
+    
+    /**
+     * Returns a view of the same gradebook that records every query into the
+     * given metrics.
+     */
+    public StreamExercise withMetrics(QueryMetrics metrics) {
+        return new StreamExercise(gradebook, policy, Objects.requireNonNull(metrics));
     }
     
     // =========================================================================
@@ -43,9 +107,10 @@ public class StreamExercise {
      * Expected output: [Alice, Bob, Carol, David, Eva, Frank, Grace, Henry]
      */
     public List<String> getAllStudentNames() {
-        // TODO: Implement using streams
-        // Hint: Use keySet().stream() and sorted()
-        return null;
+        return measured("getAllStudentNames", store -> overStudents(store, students -> students
+                .mapToObj(store::student)
+                .sorted()
+                .toList()));
     }
     
     /**
@@ -54,8 +119,7 @@ public class StreamExercise {
      * Expected output: 8
      */
     public long countStudents() {
-        // TODO: Implement using streams
-        return 0;
+        return measured("countStudents", store -> overStudents(store, IntStream::count));
     }
 
     /**
@@ -73,13 +137,9 @@ public class StreamExercise {
      *    may not exist in the map.
      */
     public List<Integer> getStudentGrades(String studentName) {
-
-        // TODO:
-        // 1. Retrieve the value from the map using gradebook.get(studentName)
-        // 2. Wrap it in Optional.ofNullable(...)
-        // 3. Use orElse(...) to return an empty list if null
-
-        return null; // Replace with your implementation
+        return measured("getStudentGrades", store -> student(store, studentName)
+                .map(store::grades)
+                .orElse(List.of()));
     }
     // =========================================================================
     // PART 2: Grade Analysis
@@ -93,9 +153,9 @@ public class StreamExercise {
      * Example: calculateAverage("Unknown") -> 0.0
      */
     public double calculateAverage(String studentName) {
-        // TODO: Implement using streams
-        // Hint: Use mapToInt() and average()
-        return 0.0;
+        return measured("calculateAverage", store -> student(store, studentName)
+                .map(store::average)
+                .orElse(0.0));
     }
     
     /**
@@ -104,9 +164,7 @@ public class StreamExercise {
      * Expected: A sorted list of all grades from all students
      */
     public List<Integer> getAllGradesFlattened() {
-        // TODO: Implement using streams
-        // Hint: Use flatMap() to flatten the lists
-        return null;
+        return measured("getAllGradesFlattened", GradebookStore::sortedGrades);
     }
     
     /**
@@ -115,9 +173,7 @@ public class StreamExercise {
      * Expected output: 100 (Grace has perfect scores)
      */
     public int findHighestGrade() {
-        // TODO: Implement using streams
-        // Hint: Flatten first, then find max
-        return 0;
+        return measured("findHighestGrade", store -> store.highest().orElse(0));
     }
     
     /**
@@ -126,8 +182,7 @@ public class StreamExercise {
      * Expected output: 52 (Frank's lowest)
      */
     public int findLowestGrade() {
-        // TODO: Implement using streams
-        return 0;
+        return measured("findLowestGrade", store -> store.lowest().orElse(0));
     }
     
     /**
@@ -136,9 +191,7 @@ public class StreamExercise {
      * Expected output: 40 (8 students × 5 grades each)
      */
     public long getTotalGradeCount() {
-        // TODO: Implement using streams
-        // Hint: You can use flatMap and count, or sum the sizes
-        return 0;
+        return measured("getTotalGradeCount", store -> (long) store.gradeCount());
     }
     
     // =========================================================================
@@ -149,21 +202,33 @@ public class StreamExercise {
      * Task 3.1: Get names of students whose average is >= threshold.
      * 
      * Example: getPassingStudents(80) -> [Alice, Carol, Eva, Grace]
+     * 
+     * A suffix of the gradebook's average index, found by binary search.
      */
     public List<String> getPassingStudents(double threshold) {
-        // TODO: Implement using streams
-        // Hint: Filter entries based on average of their grades
-        return null;
+        return measured("getPassingStudents", store -> names(store, store.averageIndex().studentsAtLeast(threshold)));
+    }
+    
+    /**
+     * Number of students whose average is >= threshold, without listing
+     * them: O(log students), for sweeping thresholds.
+     */
+    public int countPassingStudents(double threshold) {
+        return measured("countPassingStudents", store -> {
+            AverageIndex index = store.averageIndex();
+            return index.size() - index.atLeast(threshold);
+        });
     }
     
     /**
      * Task 3.2: Get names of students whose average is < threshold.
      * 
      * Example: getFailingStudents(70) -> [Frank]
+     * 
+     * A prefix of the gradebook's average index, found by binary search.
      */
     public List<String> getFailingStudents(double threshold) {
-        // TODO: Implement using streams
-        return null;
+        return measured("getFailingStudents", store -> names(store, store.averageIndex().studentsBelow(threshold)));
     }
     
     /**
@@ -184,22 +249,46 @@ public class StreamExercise {
      *   "D" -> [David],
      *   "F" -> [Frank]
      * }
+     * 
+     * Letters are precomputed ranges of the gradebook's average index; only
+     * letters with students are present.
      */
     public Map<String, List<String>> groupByPerformance() {
-        // TODO: Implement using streams
-        // Hint: Use Collectors.groupingBy() with a classifier function
-        return null;
+        return measured("groupByPerformance", store -> {
+            AverageIndex index = store.averageIndex();
+            Map<String, List<String>> groups = new TreeMap<>();
+            for (int letter = 0; letter < AverageIndex.LETTERS.size(); letter++) {
+                int[] students = index.studentsWithLetter(letter);
+                if (students.length > 0) {
+                    groups.put(AverageIndex.LETTERS.get(letter), names(store, students));
+                }
+            }
+            return groups;
+        });
+    }
+    
+    /**
+     * Number of students per fixed-width band of averages, keyed by the
+     * band's lower bound, e.g. {70=2, 80=1, 90=3} for a width of 10. Empty
+     * bands are left out.
+     */
+    public SortedMap<Integer, Integer> getAverageHistogram(int width) {
+        return measured("getAverageHistogram", store -> store.averageIndex().histogram(width));
     }
     
     /**
      * Task 3.4: Create a map of student name to their average grade.
      * 
      * Expected: {Alice=90.6, Bob=78.8, Carol=95.8, ...}
+     * 
+     * Read-only, in gradebook order, backed by unboxed doubles.
      */
     public Map<String, Double> getStudentAverages() {
-        // TODO: Implement using streams
-        // Hint: Use Collectors.toMap() with a value mapper that calculates average
-        return null;
+        return measured("getStudentAverages", store -> overStudents(store, students -> students
+                .collect(() -> new ObjectDoubleMap<String>(),
+                        (m, s) -> m.put(store.student(s), store.average(s)),
+                        ObjectDoubleMap::addAll))
+                .asMap());
     }
     
     /**
@@ -208,9 +297,11 @@ public class StreamExercise {
      * Expected output: "Grace" (average 97.8)
      */
     public String findTopPerformer() {
-        // TODO: Implement using streams
-        // Hint: Use max() with a comparator based on average
-        return null;
+        return measured("findTopPerformer", store -> overStudents(store, students -> students
+                .boxed()
+                .max(Comparator.comparingDouble(store::average))
+                .map(store::student)
+                .orElse(null)));
     }
 
     // =========================================================================
@@ -221,10 +312,26 @@ public class StreamExercise {
      * Bonus 1: Find all students who have at least one perfect score (100).
      * 
      * Expected: [Carol, Grace]
+     * 
+     * Blocks of students whose highest grade is below 100 are skipped.
      */
     public List<String> getStudentsWithPerfectScore() {
-        // TODO: Implement if time permits
-        return null;
+        return measured("getStudentsWithPerfectScore", store -> names(store, policy.overBlocks(store.studentCount(),
+                b -> store.blockMax(b) >= GradebookStore.PERFECT,
+                (b, from, to) -> IntStream.range(from, to).filter(store::hasPerfectScore).toArray(),
+                StreamExercise::concat)));
+    }
+    
+    /**
+     * Whether any student's average is < threshold, stopping at the first
+     * one found. Blocks of students whose lowest average passes are skipped,
+     * and a block whose highest average fails is a hit without a scan.
+     */
+    public boolean hasFailingStudent(double threshold) {
+        return measured("hasFailingStudent", store -> policy.anyBlock(store.studentCount(),
+                b -> store.blockMinAverage(b) < threshold,
+                (b, from, to) -> store.blockMaxAverage(b) < threshold
+                        || IntStream.range(from, to).anyMatch(s -> store.average(s) < threshold)));
     }
     
     /**
@@ -233,8 +340,9 @@ public class StreamExercise {
      * Expected: approximately 81.275
      */
     public double calculateClassAverage() {
-        // TODO: Implement if time permits
-        return 0.0;
+        return measured("calculateClassAverage", store -> store.gradeCount() == 0
+                ? 0.0
+                : (double) store.totalSum() / store.gradeCount());
     }
     
     /**
@@ -244,24 +352,70 @@ public class StreamExercise {
      * Hint: Standard deviation = sqrt(sum((x - mean)^2) / n)
      */
     public String findMostConsistentStudent() {
-        // TODO: Implement if time permits
-        return null;
+        return measured("findMostConsistentStudent", store -> overStudents(store, students -> students
+                .boxed()
+                .min(Comparator.comparingDouble(store::standardDeviation))
+                .map(store::student)
+                .orElse(null)));
+    }
+    
+    /**
+     * Count, mean, standard deviation, min and max of each student's grades,
+     * in gradebook order. Read-only.
+     * 
+     * The deviations come from one Welford pass per student at load time,
+     * so no query makes a second pass over the grades.
+     */
+    public Map<String, RunningStats> getStudentStatistics() {
+        return measured("getStudentStatistics", store -> overStudents(store, students -> students
+                .boxed()
+                .collect(Collectors.collectingAndThen(
+                        Collectors.toMap(store::student, store::statistics, (a, b) -> a, LinkedHashMap::new),
+                        Collections::unmodifiableMap))));
+    }
+    
+    /**
+     * Stats of all grades, merging the per-student stats pairwise.
+     */
+    public RunningStats getClassStatistics() {
+        return measured("getClassStatistics", store -> overStudents(store, students -> students
+                .mapToObj(store::statistics)
+                .collect(RunningStats::new, RunningStats::combine, RunningStats::combine)));
     }
     
     // =========================================================================
-    // HELPER METHOD - Letter grade classifier
+    // HELPER METHODS
     // =========================================================================
     
     /**
-     * Helper method to convert numeric average to letter grade.
-     * You may use this in your groupByPerformance() implementation.
+     * Runs a query against the current store of the gradebook.
      */
-    private String getLetterGrade(double average) {
-        if (average >= 90) return "A";
-        if (average >= 80) return "B";
-        if (average >= 70) return "C";
-        if (average >= 60) return "D";
-        return "F";
+    private <R> R measured(String query, Function<GradebookStore, R> body) {
+        return metrics == null
+                ? body.apply(gradebook.get())
+                : metrics.measure(query, () -> body.apply(gradebook.get()));
+    }
+    
+    /**
+     * Applies a query to the student codes of a store under the policy.
+     */
+    private <R> R overStudents(GradebookStore store, Function<IntStream, R> query) {
+        return policy.overRange(store.studentCount(), query);
+    }
+    
+    private static List<String> names(GradebookStore store, int[] students) {
+        return Arrays.stream(students).mapToObj(store::student).toList();
+    }
+    
+    private static int[] concat(int[] first, int[] second) {
+        int[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+        return both;
+    }
+    
+    private static Optional<Integer> student(GradebookStore store, String studentName) {
+        int s = store.indexOf(studentName);
+        return s < 0 ? Optional.empty() : Optional.of(s);
     }
     
     // =========================================================================
@@ -0,0 +1,149 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+import edu.touro.las.mcon364.streams.kernels.Kernels;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Time-bucketed index over the orders of an {@link OrderSource}.
+ *
+ * Orders are counting-sorted by day slot; {@code dayStart[d]} is the offset
+ * of day {@code d}'s orders in {@code byDay}, and {@code monthStart[m]} the
+ * first day slot of month {@code m}. Because day slots are dense, locating a
+ * date is arithmetic rather than a search. Per-day delivered revenue and
+ * counts are kept as prefix sums, so any date range is answered with a
+ * prefix difference and any range of orders is a slice of {@code byDay}.
+ *
+ * Built once, in O(orders + days), and immutable afterwards.
+ */
+final class DateIndex {
+
+    private static final byte DELIVERED = (byte) OrderStatus.DELIVERED.ordinal();
+    private static final Kernels KERNELS = Kernels.best();
+
+    private final long minEpochDay;
+    private final int[] byDay;              // order indices, by day, then by index
+    private final int[] dayStart;           // length days + 1
+    private final int[] monthStart;         // length months + 1, in day slots
+    private final long[] revenuePrefix;     // delivered revenue of days [0, d), Money units
+    private final long[] deliveredPrefix;   // delivered orders of days [0, d)
+    private final long[] monthRevenue;      // Money units
+
+    DateIndex(OrderSource source, OrderDictionary dictionary) {
+        minEpochDay = dictionary.minEpochDay;
+        int[] monthOfDay = dictionary.monthOfDay;
+        int days = dictionary.daySpan();
+        int months = dictionary.monthSpan();
+        int orders = source.orderCount();
+
+        dayStart = new int[days + 1];
+        long[] dayRevenue = new long[days];
+        long[] dayDelivered = new long[days];
+        for (int o = 0; o < orders; o++) {
+            int d = (int) (source.epochDay(o) - minEpochDay);
+            dayStart[d + 1]++;
+            if (source.statusCode(o) == DELIVERED) {
+                dayRevenue[d] = Math.addExact(dayRevenue[d], source.orderTotalCents(o));
+                dayDelivered[d]++;
+            }
+        }
+        Arrays.parallelPrefix(dayStart, Integer::sum);
+
+        byDay = new int[orders];
+        int[] next = Arrays.copyOf(dayStart, days);
+        for (int o = 0; o < orders; o++) {
+            byDay[next[(int) (source.epochDay(o) - minEpochDay)]++] = o;
+        }
+
+        revenuePrefix = new long[days + 1];
+        deliveredPrefix = new long[days + 1];
+        monthStart = new int[months + 1];
+        monthRevenue = new long[months];
+        for (int d = 0; d < days; d++) {
+            revenuePrefix[d + 1] = Math.addExact(revenuePrefix[d], dayRevenue[d]);
+            deliveredPrefix[d + 1] = deliveredPrefix[d] + dayDelivered[d];
+            int m = monthOfDay[d];
+            if (d == 0 || m != monthOfDay[d - 1]) {
+                monthStart[m] = d;
+            }
+        }
+        monthStart[months] = days;
+        // Month slots never decrease with the day slot, so each month is a run
+        KERNELS.runSums(monthOfDay, dayRevenue, 0, days, monthRevenue);
+    }
+
+    /**
+     * Day slot of an epoch day, clamped to {@code [0, days]}.
+     */
+    private int slot(long epochDay) {
+        return (int) Math.max(0, Math.min(dayStart.length - 1, epochDay - minEpochDay));
+    }
+
+    // =========================================================================
+    // RANGES (inclusive epoch days)
+    // =========================================================================
+
+    /**
+     * Indices of the orders placed between two days, in ascending index
+     * (i.e. encounter) order. O(result log result).
+     */
+    int[] ordersBetween(long fromDay, long toDay) {
+        if (fromDay > toDay) {
+            return new int[0];
+        }
+        int[] orders = Arrays.copyOfRange(byDay, dayStart[slot(fromDay)], dayStart[slot(toDay + 1)]);
+        Arrays.sort(orders);
+        return orders;
+    }
+
+    long orderCountBetween(long fromDay, long toDay) {
+        return fromDay > toDay ? 0 : dayStart[slot(toDay + 1)] - dayStart[slot(fromDay)];
+    }
+
+    long deliveredRevenueBetween(long fromDay, long toDay) {
+        return fromDay > toDay ? 0 : revenuePrefix[slot(toDay + 1)] - revenuePrefix[slot(fromDay)];
+    }
+
+    long deliveredCountBetween(long fromDay, long toDay) {
+        return fromDay > toDay ? 0 : deliveredPrefix[slot(toDay + 1)] - deliveredPrefix[slot(fromDay)];
+    }
+
+    // =========================================================================
+    // BUCKETS
+    // =========================================================================
+
+    int days() {
+        return dayStart.length - 1;
+    }
+
+    int months() {
+        return monthRevenue.length;
+    }
+
+    int orderCountOnDay(int day) {
+        return dayStart[day + 1] - dayStart[day];
+    }
+
+    /**
+     * Indices of the orders in one month slot, in ascending index order.
+     */
+    IntStream ordersInMonth(int month) {
+        int[] orders = Arrays.copyOfRange(byDay, dayStart[monthStart[month]], dayStart[monthStart[month + 1]]);
+        Arrays.sort(orders);
+        return Arrays.stream(orders);
+    }
+
+    boolean hasOrdersInMonth(int month) {
+        return dayStart[monthStart[month]] < dayStart[monthStart[month + 1]];
+    }
+
+    boolean hasDeliveredInMonth(int month) {
+        return deliveredPrefix[monthStart[month]] < deliveredPrefix[monthStart[month + 1]];
+    }
+
+    long monthRevenue(int month) {
+        return monthRevenue[month];
+    }
+}
@@ -0,0 +1,237 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.collectors.*;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.*;
+
+/**
+ * Mutable per-group accumulator indexed by dictionary code.
+ *
+ * Each group keeps a running long sum (money in {@link Money} units,
+ * quantities or counts) and the number of values added to it, so a group
+ * that received only zero amounts is still distinguishable from one that
+ * never appeared. Sums are exact and overflow-checked. Works as the container
+ * of a three-argument {@code IntStream.collect(...)}: {@link #merge} is the
+ * combiner.
+ *
+ * A parallel collect makes one accumulator per leaf, so storage grows with
+ * the groups a leaf actually sees: it starts as an open-addressing table of
+ * the codes added, probed linearly and kept at most half full, and turns
+ * into dense arrays over every group once it holds a
+ * 1/{@value #DENSE_FRACTION} of them. Merging a sparse accumulator costs
+ * only its own entries, so a fan-out over many cores stays proportional to
+ * the input even for a grouping as wide as customers. Group counts up to
+ * {@value #DENSE_GROUPS} start dense.
+ */
+final class GroupTotals {
+
+    private static final int DENSE_FRACTION = 8;
+    private static final int DENSE_GROUPS = 256;
+
+    private final int groups;
+    private int[] table;        // sparse: entry + 1 per slot, 0 = empty; null once dense
+    private int[] group;        // sparse: code of each entry, in insertion order
+    private long[] sums;        // indexed by entry while sparse, by code once dense
+    private long[] counts;
+    private int entries;
+
+    GroupTotals(int groups) {
+        this.groups = groups;
+        if (groups <= DENSE_GROUPS) {
+            sums = new long[groups];
+            counts = new long[groups];
+        } else {
+            table = new int[32];
+            group = new int[16];
+            sums = new long[16];
+            counts = new long[16];
+        }
+    }
+
+    void add(int group, long amount) {
+        add(group, amount, 1);
+    }
+
+    private void add(int code, long sum, long count) {
+        int at = table == null ? code : entry(code);
+        sums[at] = Math.addExact(sums[at], sum);
+        counts[at] += count;
+    }
+
+    void merge(GroupTotals other) {
+        if (other.table == null) {
+            if (table != null) {
+                densify();
+            }
+            for (int g = 0; g < groups; g++) {
+                if (other.counts[g] > 0) {
+                    sums[g] = Math.addExact(sums[g], other.sums[g]);
+                    counts[g] += other.counts[g];
+                }
+            }
+        } else {
+            for (int e = 0; e < other.entries; e++) {
+                add(other.group[e], other.sums[e], other.counts[e]);
+            }
+        }
+    }
+
+    /**
+     * Slot of a code in the sparse arrays, adding it if new; may switch to
+     * dense storage, after which the code itself is the slot.
+     */
+    private int entry(int code) {
+        Objects.checkIndex(code, groups);
+        int mask = table.length - 1;
+        int slot = hash(code) & mask;
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (group[table[slot] - 1] == code) {
+                return table[slot] - 1;
+            }
+        }
+        if ((entries + 1) * DENSE_FRACTION >= groups) {
+            densify();
+            return code;
+        }
+        if (entries == group.length) {
+            group = Arrays.copyOf(group, entries * 2);
+            sums = Arrays.copyOf(sums, entries * 2);
+            counts = Arrays.copyOf(counts, entries * 2);
+            rehash();
+            return entry(code);
+        }
+        group[entries] = code;
+        table[slot] = ++entries;
+        return entries - 1;
+    }
+
+    private void rehash() {
+        table = new int[group.length * 2];
+        int mask = table.length - 1;
+        for (int e = 0; e < entries; e++) {
+            int slot = hash(group[e]) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = e + 1;
+        }
+    }
+
+    private void densify() {
+        long[] denseSums = new long[groups];
+        long[] denseCounts = new long[groups];
+        for (int e = 0; e < entries; e++) {
+            denseSums[group[e]] = sums[e];
+            denseCounts[group[e]] = counts[e];
+        }
+        sums = denseSums;
+        counts = denseCounts;
+        table = null;
+        group = null;
+        entries = 0;
+    }
+
+    private static int hash(int code) {
+        int h = code * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int find(int code) {
+        if (table == null) {
+            return code;
+        }
+        int mask = table.length - 1;
+        for (int slot = hash(code) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (group[table[slot] - 1] == code) {
+                return table[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    long sum(int group) {
+        int at = find(group);
+        return at < 0 ? 0 : sums[at];
+    }
+
+    long count(int group) {
+        int at = find(group);
+        return at < 0 ? 0 : counts[at];
+    }
+
+    boolean present(int group) {
+        return count(group) > 0;
+    }
+
+    int size() {
+        return groups;
+    }
+
+    /**
+     * Codes of the groups that received a value, in code order.
+     */
+    IntStream presentGroups() {
+        if (table == null) {
+            return IntStream.range(0, groups).filter(g -> counts[g] > 0);
+        }
+        int[] present = Arrays.copyOf(group, entries);
+        Arrays.sort(present);
+        return Arrays.stream(present);
+    }
+
+    /**
+     * The n present groups with the largest sums, largest first. Ties go to
+     * the lower code. Uses a bounded heap, so cost is O(groups log n).
+     */
+    int[] topGroups(int n) {
+        return TopK.select(presentGroups(), n, this::sum);
+    }
+
+    /**
+     * Decodes money sums of every present group into a map of amounts. Keys
+     * that decode to the same value are summed exactly before conversion.
+     * The result is a read-only view over a primitive map, in group order.
+     */
+    <K> Map<K, Double> moneyByKey(IntFunction<K> decode) {
+        return longSumsByKey(decode).asMap(Money::toDouble);
+    }
+
+    <K, M extends Map<K, Double>> M moneyByKey(IntFunction<K> decode, M result) {
+        longSumsByKey(decode).forEach((key, units) -> result.put(key, Money.toDouble(units)));
+        return result;
+    }
+
+    /**
+     * Decodes the counts of every present group into a read-only view over a
+     * primitive map, in group order.
+     */
+    <K> Map<K, Long> countsByKey(IntFunction<K> decode) {
+        return longCountsByKey(decode).asMap();
+    }
+
+    <K, M extends Map<K, Long>> M countsByKey(IntFunction<K> decode, M result) {
+        presentGroups().forEach(g -> result.merge(decode.apply(g), count(g), Long::sum));
+        return result;
+    }
+
+    /**
+     * Decodes the counts of every present group into a primitive map.
+     */
+    <K> ObjectLongMap<K> longCountsByKey(IntFunction<K> decode) {
+        ObjectLongMap<K> result = new ObjectLongMap<>();
+        presentGroups().forEach(g -> result.addTo(decode.apply(g), count(g)));
+        return result;
+    }
+
+    /**
+     * Decodes the sums of every present group into a primitive map. Keys
+     * that decode to the same value are summed.
+     */
+    <K> ObjectLongMap<K> longSumsByKey(IntFunction<K> decode) {
+        ObjectLongMap<K> result = new ObjectLongMap<>();
+        presentGroups().forEach(g -> result.addTo(decode.apply(g), sum(g)));
+        return result;
+    }
+}
@@ -0,0 +1,342 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.collectors.SymbolTable;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Event-driven analytics that keep the StreamHomework aggregates up to date
+ * instead of recomputing them from the full order list.
+ *
+ * Each {@link OrderEvent} is applied in O(items in the order), plus O(log U)
+ * to reposition the order's customer and products in the top-N rankings.
+ * Scalar reads such as {@link #getTotalRevenue()} are O(1), rankings are O(n)
+ * in the number of entries requested, and map reads return a snapshot copy.
+ * Customer ids, categories and products are interned to int codes as events
+ * arrive, so running totals live in arrays indexed by code and strings are
+ * hashed once per event rather than once per aggregate.
+ *
+ * Query methods have the same meaning as their StreamHomework counterparts,
+ * ties in rankings included: customers tie by id, and products by catalog
+ * position, then by first appearance in the events. Seed the analytics with
+ * the same catalog as the StreamHomework it should agree with.
+ * All methods are synchronized, so one thread may apply events while others
+ * read. With a {@link QueryCache} attached, map and list reads are served
+ * read-only from the cache until the next event invalidates it.
+ */
+public class IncrementalAnalytics {
+
+    /**
+     * Running sum in {@link Money} units plus the number of contributions, so
+     * a group can be dropped exactly when its last contribution is withdrawn.
+     */
+    private static final class Tally {
+        long sum;
+        long count;
+    }
+
+    /**
+     * Tallies indexed by symbol code, grown as new symbols are interned. A
+     * code with no contributions left is absent from query results.
+     */
+    private static final class CodeTallies {
+        long[] sums = new long[16];
+        long[] counts = new long[16];
+
+        void add(int code, int sign, long amount) {
+            if (code >= sums.length) {
+                int capacity = Math.max(code + 1, sums.length * 2);
+                sums = Arrays.copyOf(sums, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            counts[code] += sign;
+            sums[code] = Math.addExact(sums[code], sign * amount);
+        }
+
+        boolean present(int code) {
+            return code < counts.length && counts[code] > 0;
+        }
+    }
+
+    private record Ranked(int code, double score) {}
+
+    private final Map<String, CustomerOrder> orders = new HashMap<>();
+
+    private long totalRevenue;                      // Money units
+    private long deliveredOrders;
+    private final long[] statusCounts = new long[OrderStatus.values().length];
+
+    // Identifiers are interned once per event; aggregates are indexed by code
+    private final SymbolTable<String> customers = new SymbolTable<>();
+    private final SymbolTable<String> categories = new SymbolTable<>();
+    private final SymbolTable<Product> products = new SymbolTable<>();
+
+    private final CodeTallies revenueByCustomer = new CodeTallies();
+    private final CodeTallies ordersByCustomer = new CodeTallies();
+    private final CodeTallies revenueByCategory = new CodeTallies();
+    private final CodeTallies quantityByCategory = new CodeTallies();
+    private final CodeTallies quantityByProduct = new CodeTallies();
+    private final Map<YearMonth, Tally> monthlyRevenue = new TreeMap<>();
+    private final Map<LocalDate, Long> dailyOrderCounts = new TreeMap<>();
+
+    private final NavigableSet<Ranked> customerRanking = new TreeSet<>(
+            Comparator.comparingDouble(Ranked::score).reversed()
+                    .thenComparing(r -> customers.symbol(r.code())));
+    private final NavigableSet<Ranked> productRanking = new TreeSet<>(
+            Comparator.comparingDouble(Ranked::score).reversed()
+                    .thenComparingInt(r -> productRank(r.code())));
+
+    private final Map<Product, Integer> catalogPosition = new HashMap<>();
+    private final QueryCache cache;
+
+    public IncrementalAnalytics() {
+        this(null);
+    }
+
+    /**
+     * @param cache results cache invalidated by every event, or null
+     */
+    public IncrementalAnalytics(QueryCache cache) {
+        this(List.of(), cache);
+    }
+
+    /**
+     * @param catalog products in the order that breaks ranking ties, as in
+     *                {@code new StreamHomework(catalog, orders)}
+     * @param cache   results cache invalidated by every event, or null
+     */
+    public IncrementalAnalytics(List<Product> catalog, QueryCache cache) {
+        catalog.forEach(product -> catalogPosition.putIfAbsent(product, catalogPosition.size()));
+        this.cache = cache;
+    }
+
+    /**
+     * Creates analytics seeded with an existing set of orders.
+     */
+    public static IncrementalAnalytics of(Collection<CustomerOrder> initialOrders) {
+        return of(initialOrders, null);
+    }
+
+    public static IncrementalAnalytics of(Collection<CustomerOrder> initialOrders, QueryCache cache) {
+        return of(List.of(), initialOrders, cache);
+    }
+
+    public static IncrementalAnalytics of(List<Product> catalog, Collection<CustomerOrder> initialOrders,
+                                          QueryCache cache) {
+        IncrementalAnalytics analytics = new IncrementalAnalytics(catalog, cache);
+        initialOrders.forEach(order -> analytics.apply(new OrderEvent.OrderAdded(order)));
+        return analytics;
+    }
+
+    // =========================================================================
+    // EVENTS
+    // =========================================================================
+
+    /**
+     * Applies one event.
+     *
+     * @throws IllegalArgumentException if an added order id already exists, or
+     *                                  a status change names an unknown order
+     */
+    public synchronized void apply(OrderEvent event) {
+        if (cache != null) {
+            cache.invalidate(this);
+        }
+        switch (event) {
+            case OrderEvent.OrderAdded added -> addOrder(added.order());
+            case OrderEvent.StatusChanged changed -> changeStatus(changed.orderId(), changed.status());
+        }
+    }
+
+    private void addOrder(CustomerOrder order) {
+        if (orders.putIfAbsent(order.id(), order) != null) {
+            throw new IllegalArgumentException("Duplicate order id: " + order.id());
+        }
+        ordersByCustomer.add(customers.intern(order.customerId()), 1, 1);
+        dailyOrderCounts.merge(order.orderDate(), 1L, Long::sum);
+        for (OrderItem item : order.items()) {
+            int product = products.intern(item.product());
+            if (quantityByProduct.present(product)) {
+                productRanking.remove(new Ranked(product, quantityByProduct.sums[product]));
+            }
+            quantityByProduct.add(product, 1, item.quantity());
+            productRanking.add(new Ranked(product, quantityByProduct.sums[product]));
+        }
+        countStatus(order, 1);
+    }
+
+    private void changeStatus(String orderId, OrderStatus status) {
+        CustomerOrder order = orders.get(orderId);
+        if (order == null) {
+            throw new IllegalArgumentException("Unknown order id: " + orderId);
+        }
+        if (order.status() == status) {
+            return;
+        }
+        countStatus(order, -1);
+        CustomerOrder updated = new CustomerOrder(order.id(), order.customerId(), order.items(),
+                order.orderDate(), status);
+        orders.put(orderId, updated);
+        countStatus(updated, 1);
+    }
+
+    /**
+     * Adds (sign = 1) or withdraws (sign = -1) the status-dependent
+     * contributions of one order.
+     */
+    private void countStatus(CustomerOrder order, int sign) {
+        statusCounts[order.status().ordinal()] += sign;
+        if (order.status() != OrderStatus.DELIVERED) {
+            return;
+        }
+        long total = order.getTotalCents();
+        totalRevenue = Math.addExact(totalRevenue, sign * total);
+        deliveredOrders += sign;
+
+        int customer = customers.intern(order.customerId());
+        if (revenueByCustomer.present(customer)) {
+            customerRanking.remove(new Ranked(customer, revenueByCustomer.sums[customer]));
+        }
+        revenueByCustomer.add(customer, sign, total);
+        if (revenueByCustomer.present(customer)) {
+            customerRanking.add(new Ranked(customer, revenueByCustomer.sums[customer]));
+        }
+
+        tally(monthlyRevenue, YearMonth.from(order.orderDate()), sign, total);
+        for (OrderItem item : order.items()) {
+            int category = categories.intern(item.product().category());
+            revenueByCategory.add(category, sign, item.getLineTotalCents());
+            quantityByCategory.add(category, sign, item.quantity());
+        }
+    }
+
+    private static <K> void tally(Map<K, Tally> map, K key, int sign, long amount) {
+        Tally tally = map.computeIfAbsent(key, k -> new Tally());
+        tally.count += sign;
+        tally.sum = Math.addExact(tally.sum, sign * amount);
+        if (tally.count == 0) {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * Tie-break of a product in the rankings, as StreamHomework numbers
+     * products: catalog position, then first appearance.
+     */
+    private int productRank(int code) {
+        Integer position = catalogPosition.get(products.symbol(code));
+        return position != null ? position : catalogPosition.size() + code;
+    }
+
+    // =========================================================================
+    // QUERIES
+    // =========================================================================
+
+    public synchronized double getTotalRevenue() {
+        return Money.toDouble(totalRevenue);
+    }
+
+    public synchronized long getOrderCount(OrderStatus status) {
+        return statusCounts[status.ordinal()];
+    }
+
+    public synchronized double getAverageOrderValue() {
+        return Money.average(totalRevenue, deliveredOrders);
+    }
+
+    public synchronized Set<Product> getUniqueProducts() {
+        return cached("getUniqueProducts", List.of(), () -> Set.copyOf(products.symbols()));
+    }
+
+    public synchronized Map<String, Double> getRevenueByCustomer() {
+        return cached("getRevenueByCustomer", List.of(), () -> money(revenueByCustomer, customers));
+    }
+
+    public synchronized List<String> getTopCustomers(int n) {
+        return cached("getTopCustomers", List.of(n),
+                () -> customerRanking.stream().limit(n).map(r -> customers.symbol(r.code())).toList());
+    }
+
+    public synchronized Map<String, Long> getCustomerOrderCounts() {
+        return cached("getCustomerOrderCounts", List.of(), this::customerOrderCounts);
+    }
+
+    private Map<String, Long> customerOrderCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int c = 0; c < customers.size(); c++) {
+            if (ordersByCustomer.present(c)) {
+                counts.put(customers.symbol(c), ordersByCustomer.counts[c]);
+            }
+        }
+        return counts;
+    }
+
+    public synchronized Map<String, Double> getRevenueByCategory() {
+        return cached("getRevenueByCategory", List.of(), () -> money(revenueByCategory, categories));
+    }
+
+    public synchronized Map<String, CategorySummary> getCategorySummary() {
+        return cached("getCategorySummary", List.of(), this::categorySummary);
+    }
+
+    private Map<String, CategorySummary> categorySummary() {
+        Map<String, CategorySummary> summary = new HashMap<>();
+        for (int c = 0; c < categories.size(); c++) {
+            if (revenueByCategory.present(c)) {
+                summary.put(categories.symbol(c), new CategorySummary(Money.toDouble(revenueByCategory.sums[c]),
+                        Math.toIntExact(quantityByCategory.sums[c])));
+            }
+        }
+        return summary;
+    }
+
+    public synchronized List<Product> getTopSellingProducts(int n) {
+        return cached("getTopSellingProducts", List.of(n),
+                () -> productRanking.stream().limit(n).map(r -> products.symbol(r.code())).toList());
+    }
+
+    public synchronized Map<String, Integer> getProductQuantitySold() {
+        return cached("getProductQuantitySold", List.of(), this::productQuantitySold);
+    }
+
+    private Map<String, Integer> productQuantitySold() {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (int p = 0; p < products.size(); p++) {
+            quantities.merge(products.symbol(p).id(), Math.toIntExact(quantityByProduct.sums[p]), Math::addExact);
+        }
+        return quantities;
+    }
+
+    public synchronized Map<YearMonth, Double> getMonthlyRevenue() {
+        return cached("getMonthlyRevenue", List.of(), () -> sums(monthlyRevenue, new TreeMap<>()));
+    }
+
+    public synchronized Map<LocalDate, Long> getDailyOrderCounts() {
+        return cached("getDailyOrderCounts", List.of(), () -> new TreeMap<>(dailyOrderCounts));
+    }
+
+    private <R> R cached(String method, List<?> arguments, Supplier<R> query) {
+        return cache == null ? query.get() : cache.get(this, method, arguments, query);
+    }
+
+    private static <K> Map<K, Double> sums(Map<K, Tally> tallies, Map<K, Double> into) {
+        tallies.forEach((key, tally) -> into.put(key, Money.toDouble(tally.sum)));
+        return into;
+    }
+
+    /**
+     * Decodes the present codes of money tallies at the API boundary.
+     */
+    private static Map<String, Double> money(CodeTallies tallies, SymbolTable<String> symbols) {
+        Map<String, Double> result = new HashMap<>();
+        for (int c = 0; c < symbols.size(); c++) {
+            if (tallies.present(c)) {
+                result.put(symbols.symbol(c), Money.toDouble(tallies.sums[c]));
+            }
+        }
+        return result;
+    }
+}
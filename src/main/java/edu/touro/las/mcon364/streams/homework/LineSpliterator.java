@@ -0,0 +1,159 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Splittable source of parsed lines over a byte range of a file.
+ *
+ * The range always starts and ends on a line boundary. {@link #trySplit()}
+ * cuts it near the middle, at the first newline after the midpoint, so every
+ * line belongs to exactly one half and halves can be parsed on different
+ * cores. Lines are read with positional {@link FileChannel} reads, so many
+ * spliterators can share one channel, and only one buffer per spliterator is
+ * ever held in memory.
+ *
+ * Blank lines and lines for which the parser returns null are skipped. Line
+ * terminators are {@code \n} or {@code \r\n}; the file must be UTF-8.
+ */
+final class LineSpliterator<T> implements Spliterator<T> {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long MIN_SPLIT_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final Function<String, T> parser;
+    private long position;
+    private final long end;
+
+    private ByteBuffer buffer;
+    private byte[] line = new byte[256];
+    private int lineLength;
+
+    LineSpliterator(FileChannel channel, long start, long end, Function<String, T> parser) {
+        this.channel = channel;
+        this.position = start;
+        this.end = end;
+        this.parser = parser;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        for (String text; (text = nextLine()) != null; ) {
+            if (text.isBlank()) {
+                continue;
+            }
+            T value = parser.apply(text);
+            if (value != null) {
+                action.accept(value);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (buffer != null || end - position < 2 * MIN_SPLIT_BYTES) {
+            return null;
+        }
+        long split = nextLineStart(position + (end - position) / 2);
+        if (split >= end) {
+            return null;
+        }
+        LineSpliterator<T> prefix = new LineSpliterator<>(channel, position, split, parser);
+        position = split;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+
+    /**
+     * Offset just past the first newline at or after {@code from}, or
+     * {@code end} if there is none.
+     */
+    private long nextLineStart(long from) {
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (long at = from; at < end; ) {
+            probe.clear().limit((int) Math.min(probe.capacity(), end - at));
+            int n = read(probe, at);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (probe.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+            at += n;
+        }
+        return end;
+    }
+
+    private String nextLine() {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+        }
+        lineLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                if (position >= end) {
+                    return lineLength > 0 ? decode() : null;
+                }
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                int n = read(buffer, position);
+                if (n <= 0) {
+                    position = end;
+                    continue;
+                }
+                position += n;
+                buffer.flip();
+            }
+            byte[] bytes = buffer.array();
+            int from = buffer.position();
+            int newline = from;
+            while (newline < buffer.limit() && bytes[newline] != '\n') {
+                newline++;
+            }
+            append(bytes, from, newline - from);
+            if (newline < buffer.limit()) {
+                buffer.position(newline + 1);
+                return decode();
+            }
+            buffer.position(newline);
+        }
+    }
+
+    private void append(byte[] bytes, int from, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(bytes, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private String decode() {
+        int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int read(ByteBuffer into, long at) {
+        try {
+            return channel.read(into, at);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
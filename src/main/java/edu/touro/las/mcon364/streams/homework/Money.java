@@ -0,0 +1,83 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.math.*;
+
+/**
+ * Fixed-point money: an amount is a long count of hundredths (cents).
+ *
+ * Adding cents is exact, and every operation here is overflow-checked with
+ * {@link Math#addExact} / {@link Math#multiplyExact}, so a revenue total over
+ * any number of line items is either exact or fails with an
+ * {@link ArithmeticException}. Queries accumulate in cents and convert to a
+ * double once, at the end; the double returned is the one nearest the exact
+ * total.
+ *
+ * {@link #SCALE} is the single place that fixes the resolution.
+ */
+public final class Money {
+
+    /** Decimal digits after the point. */
+    public static final int SCALE = 2;
+
+    /** Units per whole currency unit: 10^SCALE. */
+    public static final long ONE;
+
+    static {
+        long one = 1;
+        for (int digit = 0; digit < SCALE; digit++) {
+            one = Math.multiplyExact(one, 10);
+        }
+        ONE = one;
+    }
+
+    private static final double ONE_D = ONE;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a decimal amount to units, rounding half up at {@link #SCALE}
+     * digits. Amounts already representable at that scale, such as 999.99,
+     * convert without allocating.
+     *
+     * @throws ArithmeticException if the amount is not finite or out of range
+     */
+    public static long of(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new ArithmeticException("Not a finite amount: " + amount);
+        }
+        double scaled = amount * ONE_D;
+        if (Math.abs(scaled) < 0x1p52) {
+            long units = Math.round(scaled);
+            if (units / ONE_D == amount) {
+                return units;
+            }
+        }
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static double toDouble(long units) {
+        return units / ONE_D;
+    }
+
+    /**
+     * Unit price × quantity, overflow-checked.
+     */
+    public static long times(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, quantity);
+    }
+
+    /**
+     * Average of a total over a count, as a double; 0.0 for no items.
+     */
+    public static double average(long total, long count) {
+        return count == 0 ? 0.0 : total / (ONE_D * count);
+    }
+
+    /**
+     * Plain decimal string, e.g. 576587 -> "5765.87".
+     */
+    public static String format(long units) {
+        return BigDecimal.valueOf(units, SCALE).toPlainString();
+    }
+}
@@ -0,0 +1,485 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.collectors.SymbolTable;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+import edu.touro.las.mcon364.streams.kernels.Kernels;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Columnar, primitive-array store for customer orders.
+ *
+ * Instead of a List of records that point at other records, every attribute
+ * lives in its own parallel array. Line items are stored in order, so the
+ * items of order {@code o} occupy {@code [lineStart(o), lineEnd(o))}.
+ *
+ * Strings are dictionary-encoded: customers and categories are replaced by
+ * int codes (dictionaries are sorted, so code order is id order), products by
+ * their index in the catalog and statuses by their ordinal.
+ *
+ * Instances are immutable once built. Arrays are package-private so queries
+ * in this package can scan them directly without accessor overhead; as an
+ * {@link OrderSource}, the store runs block scans with vector kernels.
+ */
+public final class OrderColumns implements OrderSource {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final Kernels KERNELS = Kernels.best();
+
+    // Dictionaries
+    final OrderDictionary dictionary;
+    final int[] productCategory;        // product code -> category code
+    final int[] monthOfDay;             // (epochDay - minEpochDay) -> month slot
+    final long minEpochDay;
+
+    // Order columns (one entry per order)
+    final String[] orderIds;
+    final int[] orderCustomer;
+    final byte[] orderStatus;
+    final long[] orderEpochDay;
+    final int[] orderLineStart;         // length orderCount + 1
+
+    // Memoized per-order aggregates, computed once at construction
+    final long[] orderTotal;            // sum of line totals, Money units
+    final int[] orderQuantity;          // sum of line quantities
+    final int[] orderCategoryStart;     // length orderCount + 1, into the three below
+    final int[] subtotalCategory;       // one entry per distinct category of an order
+    final long[] subtotalRevenue;       // Money units
+    final int[] subtotalQuantity;
+
+    // Line item columns (one entry per line item)
+    final int[] lineOrder;
+    final int[] lineProduct;
+    final int[] lineQuantity;
+    final long[] linePrice;             // unit price in Money units (cents)
+    final int[] lineCustomer;
+    final int[] lineCategory;
+    final byte[] lineStatus;
+
+    /**
+     * Wraps already-encoded columns, which must be sized exactly. The derived
+     * line columns and the per-order aggregates are computed here, once, so
+     * queries read an order's total, quantity or category subtotals instead
+     * of re-summing its lines.
+     */
+    OrderColumns(OrderDictionary dictionary, String[] orderIds, int[] orderCustomer, byte[] orderStatus,
+                 long[] orderEpochDay, int[] orderLineStart, int[] lineProduct, int[] lineQuantity,
+                 long[] linePrice) {
+        this.dictionary = dictionary;
+        this.productCategory = dictionary.productCategory;
+        this.monthOfDay = dictionary.monthOfDay;
+        this.minEpochDay = dictionary.minEpochDay;
+        this.orderIds = orderIds;
+        this.orderCustomer = orderCustomer;
+        this.orderStatus = orderStatus;
+        this.orderEpochDay = orderEpochDay;
+        this.orderLineStart = orderLineStart;
+        this.lineProduct = lineProduct;
+        this.lineQuantity = lineQuantity;
+        this.linePrice = linePrice;
+
+        int lines = lineProduct.length;
+        lineOrder = new int[lines];
+        lineCustomer = new int[lines];
+        lineCategory = new int[lines];
+        lineStatus = new byte[lines];
+        int orders = orderIds.length;
+        orderTotal = new long[orders];
+        orderQuantity = new int[orders];
+        orderCategoryStart = new int[orders + 1];
+        int[] category = new int[lines];
+        long[] revenue = new long[lines];
+        int[] quantity = new int[lines];
+        int[] slotOfCategory = new int[dictionary.categoryCount()];
+        Arrays.fill(slotOfCategory, -1);
+        int subtotals = 0;
+        for (int o = 0; o < orders; o++) {
+            int first = subtotals;
+            long total = 0;
+            int units = 0;
+            for (int i = orderLineStart[o], end = orderLineStart[o + 1]; i < end; i++) {
+                int c = productCategory[lineProduct[i]];
+                long line = Money.times(linePrice[i], lineQuantity[i]);
+                lineOrder[i] = o;
+                lineCustomer[i] = orderCustomer[o];
+                lineCategory[i] = c;
+                lineStatus[i] = orderStatus[o];
+                total = Math.addExact(total, line);
+                units = Math.addExact(units, lineQuantity[i]);
+
+                int slot = slotOfCategory[c];
+                if (slot < 0) {
+                    slot = slotOfCategory[c] = subtotals++;
+                    category[slot] = c;
+                }
+                revenue[slot] = Math.addExact(revenue[slot], line);
+                quantity[slot] += lineQuantity[i];
+            }
+            for (int k = first; k < subtotals; k++) {
+                slotOfCategory[category[k]] = -1;
+            }
+            orderTotal[o] = total;
+            orderQuantity[o] = units;
+            orderCategoryStart[o + 1] = subtotals;
+        }
+        subtotalCategory = Arrays.copyOf(category, subtotals);
+        subtotalRevenue = Arrays.copyOf(revenue, subtotals);
+        subtotalQuantity = Arrays.copyOf(quantity, subtotals);
+    }
+
+    /**
+     * Builds a store from a product catalog and a collection of orders.
+     * Products referenced by orders but missing from the catalog are appended
+     * to the product dictionary.
+     */
+    public static OrderColumns of(List<Product> catalog, Collection<CustomerOrder> orders) {
+        Builder builder = builder(catalog);
+        orders.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Builds a store from a stream of orders, e.g. one read lazily with
+     * {@link OrderFiles}. A parallel stream produces (parses) orders on
+     * several threads; they are encoded one at a time, in encounter order.
+     */
+    public static OrderColumns of(List<Product> catalog, Stream<CustomerOrder> orders) {
+        Builder builder = builder(catalog);
+        orders.forEachOrdered(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder(List<Product> catalog) {
+        return new Builder(catalog);
+    }
+
+    // =========================================================================
+    // SIZES AND DICTIONARIES
+    // =========================================================================
+
+    @Override
+    public int orderCount() {
+        return orderIds.length;
+    }
+
+    @Override
+    public int lineCount() {
+        return lineOrder.length;
+    }
+
+    public int customerCount() {
+        return dictionary.customerCount();
+    }
+
+    public int categoryCount() {
+        return dictionary.categoryCount();
+    }
+
+    public int productCount() {
+        return dictionary.productCount();
+    }
+
+    public List<Product> products() {
+        return dictionary.products;
+    }
+
+    /**
+     * Number of calendar days spanned by the orders, first to last inclusive.
+     */
+    public int daySpan() {
+        return dictionary.daySpan();
+    }
+
+    /**
+     * Number of calendar months spanned by the orders, first to last inclusive.
+     */
+    public int monthSpan() {
+        return dictionary.monthSpan();
+    }
+
+    /**
+     * Month slot of an order: 0 for the month of the earliest order.
+     */
+    public int monthSlot(int order) {
+        return monthOfDay[(int) (orderEpochDay[order] - minEpochDay)];
+    }
+
+    public YearMonth month(int slot) {
+        return dictionary.month(slot);
+    }
+
+    /**
+     * Day slot of an order: 0 for the day of the earliest order.
+     */
+    public int daySlot(int order) {
+        return (int) (orderEpochDay[order] - minEpochDay);
+    }
+
+    public LocalDate day(int slot) {
+        return dictionary.day(slot);
+    }
+
+    public String customer(int code) {
+        return dictionary.customer(code);
+    }
+
+    public String category(int code) {
+        return dictionary.category(code);
+    }
+
+    public Product product(int code) {
+        return dictionary.product(code);
+    }
+
+    public static OrderStatus status(byte code) {
+        return STATUSES[code];
+    }
+
+    // =========================================================================
+    // PER-ORDER ACCESS
+    // =========================================================================
+
+    public int lineStart(int order) {
+        return orderLineStart[order];
+    }
+
+    public int lineEnd(int order) {
+        return orderLineStart[order + 1];
+    }
+
+    public boolean hasStatus(int order, OrderStatus status) {
+        return orderStatus[order] == status.ordinal();
+    }
+
+    /**
+     * Sum of quantity × price over the items of one order, exact, in
+     * {@link Money} units. Precomputed.
+     */
+    @Override
+    public long orderTotalCents(int order) {
+        return orderTotal[order];
+    }
+
+    /**
+     * Total quantity over the items of one order. Precomputed.
+     */
+    public int orderQuantity(int order) {
+        return orderQuantity[order];
+    }
+
+    /**
+     * Number of line items in one order.
+     */
+    public int itemCount(int order) {
+        return orderLineStart[order + 1] - orderLineStart[order];
+    }
+
+    @Override
+    public int customerCode(int order) {
+        return orderCustomer[order];
+    }
+
+    @Override
+    public byte statusCode(int order) {
+        return orderStatus[order];
+    }
+
+    @Override
+    public long epochDay(int order) {
+        return orderEpochDay[order];
+    }
+
+    @Override
+    public int productCode(int line) {
+        return lineProduct[line];
+    }
+
+    @Override
+    public int quantity(int line) {
+        return lineQuantity[line];
+    }
+
+    public long lineTotalCents(int line) {
+        return Money.times(linePrice[line], lineQuantity[line]);
+    }
+
+    public double orderTotal(int order) {
+        return Money.toDouble(orderTotalCents(order));
+    }
+
+    public double lineTotal(int line) {
+        return Money.toDouble(lineTotalCents(line));
+    }
+
+    public LocalDate orderDate(int order) {
+        return LocalDate.ofEpochDay(orderEpochDay[order]);
+    }
+
+    /**
+     * Materializes one order back into its record form.
+     */
+    @Override
+    public CustomerOrder order(int order) {
+        int start = orderLineStart[order];
+        int end = orderLineStart[order + 1];
+        OrderItem[] items = new OrderItem[end - start];
+        for (int i = start; i < end; i++) {
+            items[i - start] = new OrderItem(dictionary.product(lineProduct[i]), lineQuantity[i]);
+        }
+        return new CustomerOrder(orderIds[order], dictionary.customer(orderCustomer[order]),
+                List.of(items), orderDate(order), STATUSES[orderStatus[order]]);
+    }
+
+    // =========================================================================
+    // SCANS
+    // =========================================================================
+
+    @Override
+    public long countStatus(byte status, int from, int to) {
+        return KERNELS.count(orderStatus, status, from, to);
+    }
+
+    /**
+     * Scans the line range of the orders, with the status copied onto every
+     * line so the kernel needs no per-order lookup.
+     */
+    @Override
+    public long revenueCents(byte status, int from, int to) {
+        return KERNELS.sumProduct(linePrice, lineQuantity, lineStatus, status,
+                orderLineStart[from], orderLineStart[to]);
+    }
+
+    /**
+     * Reads the memoized order totals.
+     */
+    @Override
+    public LongSummaryStatistics orderTotals(byte status, int from, int to) {
+        return KERNELS.summary(orderTotal, orderStatus, status, from, to);
+    }
+
+    /**
+     * Runs reports in one pass, reading the memoized order totals and
+     * category subtotals instead of the lines where it can.
+     */
+    @Override
+    public ReportResults runReports(Set<Report> reports, ExecutionPolicy policy) {
+        return ReportAccumulator.run(this, reports, policy);
+    }
+
+    // =========================================================================
+    // BUILDER
+    // =========================================================================
+
+    private static int[] remap(int[] codes, int[] remap) {
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = remap[codes[i]];
+        }
+        return codes;
+    }
+
+    /**
+     * Incrementally encodes orders into growable column buffers. Dictionary
+     * codes are assigned on first sight and renumbered into sorted order by
+     * {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final SymbolTable<Product> products = new SymbolTable<>();
+        private int[] productCategory = new int[16];
+        private long[] productPrice = new long[16];
+        private final SymbolTable<String> customers = new SymbolTable<>();
+        private final SymbolTable<String> categories = new SymbolTable<>();
+
+        private int orderCount;
+        private String[] orderIds = new String[16];
+        private int[] orderCustomer = new int[16];
+        private byte[] orderStatus = new byte[16];
+        private long[] orderEpochDay = new long[16];
+        private int[] orderLineStart = new int[17];
+
+        private int lineCount;
+        private int[] lineProduct = new int[16];
+        private int[] lineQuantity = new int[16];
+        private long[] linePrice = new long[16];
+
+        private Builder(List<Product> catalog) {
+            catalog.forEach(this::productCode);
+        }
+
+        public Builder add(CustomerOrder order) {
+            if (orderCount == orderIds.length) {
+                int capacity = orderCount * 2;
+                orderIds = Arrays.copyOf(orderIds, capacity);
+                orderCustomer = Arrays.copyOf(orderCustomer, capacity);
+                orderStatus = Arrays.copyOf(orderStatus, capacity);
+                orderEpochDay = Arrays.copyOf(orderEpochDay, capacity);
+                orderLineStart = Arrays.copyOf(orderLineStart, capacity + 1);
+            }
+            int o = orderCount++;
+            orderIds[o] = order.id();
+            orderCustomer[o] = customers.intern(order.customerId());
+            orderStatus[o] = (byte) order.status().ordinal();
+            orderEpochDay[o] = order.orderDate().toEpochDay();
+
+            for (OrderItem item : order.items()) {
+                if (lineCount == lineProduct.length) {
+                    int capacity = lineCount * 2;
+                    lineProduct = Arrays.copyOf(lineProduct, capacity);
+                    lineQuantity = Arrays.copyOf(lineQuantity, capacity);
+                    linePrice = Arrays.copyOf(linePrice, capacity);
+                }
+                int i = lineCount++;
+                int product = productCode(item.product());
+                lineProduct[i] = product;
+                lineQuantity[i] = item.quantity();
+                linePrice[i] = productPrice[product];
+            }
+            orderLineStart[o + 1] = lineCount;
+            return this;
+        }
+
+        public OrderColumns build() {
+            int[] customerRemap = customers.sortedRemapping(Comparator.naturalOrder());
+            int[] categoryRemap = categories.sortedRemapping(Comparator.naturalOrder());
+            OrderDictionary dictionary = new OrderDictionary(products.symbols(),
+                    sortedSymbols(customers, customerRemap), sortedSymbols(categories, categoryRemap),
+                    remap(Arrays.copyOf(productCategory, products.size()), categoryRemap),
+                    Arrays.stream(orderEpochDay, 0, orderCount).min().orElse(0),
+                    Arrays.stream(orderEpochDay, 0, orderCount).max().orElse(-1));
+            return new OrderColumns(dictionary,
+                    Arrays.copyOf(orderIds, orderCount),
+                    remap(Arrays.copyOf(orderCustomer, orderCount), customerRemap),
+                    Arrays.copyOf(orderStatus, orderCount),
+                    Arrays.copyOf(orderEpochDay, orderCount),
+                    Arrays.copyOf(orderLineStart, orderCount + 1),
+                    Arrays.copyOf(lineProduct, lineCount),
+                    Arrays.copyOf(lineQuantity, lineCount),
+                    Arrays.copyOf(linePrice, lineCount));
+        }
+
+        private int productCode(Product product) {
+            int known = products.size();
+            int code = products.intern(product);
+            if (code == known) {
+                if (code == productPrice.length) {
+                    productPrice = Arrays.copyOf(productPrice, code * 2);
+                    productCategory = Arrays.copyOf(productCategory, code * 2);
+                }
+                productPrice[code] = product.priceCents();
+                productCategory[code] = categories.intern(product.category());
+            }
+            return code;
+        }
+
+        private static String[] sortedSymbols(SymbolTable<String> table, int[] remap) {
+            String[] sorted = new String[table.size()];
+            for (int c = 0; c < sorted.length; c++) {
+                sorted[remap[c]] = table.symbol(c);
+            }
+            return sorted;
+        }
+    }
+}
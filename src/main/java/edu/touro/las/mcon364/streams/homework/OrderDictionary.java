@@ -0,0 +1,83 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Dictionaries and calendar of an order store.
+ *
+ * Holds everything needed to size per-group tables and to decode int codes
+ * back into customers, categories, products, months and days, independently
+ * of where the order and line columns themselves live (on the heap in
+ * {@link OrderColumns}, in a mapped file in {@link OrderLog}).
+ */
+final class OrderDictionary {
+
+    final List<Product> products;       // product code -> Product
+    final String[] customers;           // customer code -> customerId
+    final String[] categories;          // category code -> category
+    final int[] productCategory;        // product code -> category code
+    final long minEpochDay;
+    final long maxEpochDay;
+    final YearMonth firstMonth;
+    final int[] monthOfDay;             // (epochDay - minEpochDay) -> month slot
+
+    OrderDictionary(List<Product> products, String[] customers, String[] categories, int[] productCategory,
+                    long minEpochDay, long maxEpochDay) {
+        this.products = List.copyOf(products);
+        this.customers = customers;
+        this.categories = categories;
+        this.productCategory = productCategory;
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+        firstMonth = YearMonth.from(LocalDate.ofEpochDay(minEpochDay));
+        monthOfDay = new int[daySpan()];
+        LocalDate first = LocalDate.ofEpochDay(minEpochDay);
+        for (int d = 0; d < monthOfDay.length; d++) {
+            monthOfDay[d] = (int) firstMonth.until(YearMonth.from(first.plusDays(d)), ChronoUnit.MONTHS);
+        }
+    }
+
+    int customerCount() {
+        return customers.length;
+    }
+
+    int categoryCount() {
+        return categories.length;
+    }
+
+    int productCount() {
+        return products.size();
+    }
+
+    int daySpan() {
+        return (int) (maxEpochDay - minEpochDay + 1);
+    }
+
+    int monthSpan() {
+        return monthOfDay.length == 0 ? 0 : monthOfDay[monthOfDay.length - 1] + 1;
+    }
+
+    YearMonth month(int slot) {
+        return firstMonth.plusMonths(slot);
+    }
+
+    LocalDate day(int slot) {
+        return LocalDate.ofEpochDay(minEpochDay + slot);
+    }
+
+    String customer(int code) {
+        return customers[code];
+    }
+
+    String category(int code) {
+        return categories[code];
+    }
+
+    Product product(int code) {
+        return products.get(code);
+    }
+}
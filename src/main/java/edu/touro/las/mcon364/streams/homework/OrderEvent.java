@@ -0,0 +1,19 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+/**
+ * A change to the order dataset, consumed by {@link IncrementalAnalytics}.
+ */
+public sealed interface OrderEvent {
+
+    /**
+     * A new order was placed.
+     */
+    record OrderAdded(CustomerOrder order) implements OrderEvent {}
+
+    /**
+     * An existing order moved to a new status, e.g. PENDING → SHIPPED.
+     */
+    record StatusChanged(String orderId, OrderStatus status) implements OrderEvent {}
+}
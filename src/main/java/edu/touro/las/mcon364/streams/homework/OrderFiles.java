@@ -0,0 +1,305 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Streaming readers for exported order files.
+ *
+ * Both formats hold one order per line, so a file can be cut at any line
+ * boundary. Each reader returns a lazy stream backed by a splittable
+ * {@link LineSpliterator}: nothing is parsed until the stream is consumed,
+ * the file is never loaded into a List, and a parallel stream parses
+ * different parts of the file on different cores.
+ *
+ * Products are referenced by id and resolved against the given catalog. The
+ * returned stream holds the file open; close it, e.g. with
+ * try-with-resources.
+ *
+ * Example:
+ * <pre>
+ *   try (Stream&lt;CustomerOrder&gt; orders = OrderFiles.csv(path, catalog)) {
+ *       StreamHomework hw = new StreamHomework(catalog, orders.parallel());
+ *   }
+ * </pre>
+ */
+public final class OrderFiles {
+
+    /**
+     * CSV column header. Items are {@code productId:quantity} pairs separated
+     * by {@code ;}, e.g. {@code O001,C001,2024-01-15,DELIVERED,P001:1;P003:2}.
+     * Fields must not contain commas. A header line is optional.
+     */
+    public static final String CSV_HEADER = "id,customerId,orderDate,status,items";
+
+    private OrderFiles() {
+    }
+
+    /**
+     * Reads orders from a CSV file with the {@link #CSV_HEADER} columns.
+     */
+    public static Stream<CustomerOrder> csv(Path path, List<Product> catalog) throws IOException {
+        Map<String, Product> products = byId(catalog);
+        return lines(path, line -> line.equals(CSV_HEADER) ? null : parseCsv(line, products));
+    }
+
+    /**
+     * Reads orders from newline-delimited JSON, one object per line:
+     * <pre>
+     *   {"id":"O001","customerId":"C001","orderDate":"2024-01-15","status":"DELIVERED",
+     *    "items":[{"productId":"P001","quantity":1}]}
+     * </pre>
+     */
+    public static Stream<CustomerOrder> ndjson(Path path, List<Product> catalog) throws IOException {
+        Map<String, Product> products = byId(catalog);
+        return lines(path, line -> parseJson(line, products));
+    }
+
+    /**
+     * Formats an order as one CSV line, the inverse of {@link #csv}.
+     */
+    public static String toCsv(CustomerOrder order) {
+        return String.join(",", order.id(), order.customerId(), order.orderDate().toString(),
+                order.status().name(), order.items().stream()
+                        .map(i -> i.product().id() + ":" + i.quantity())
+                        .collect(Collectors.joining(";")));
+    }
+
+    static <T> Stream<T> lines(Path path, Function<String, T> parser) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return StreamSupport.stream(new LineSpliterator<>(channel, 0, channel.size(), parser), false)
+                    .onClose(() -> {
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Map<String, Product> byId(List<Product> catalog) {
+        return catalog.stream().collect(Collectors.toMap(Product::id, p -> p, (a, b) -> a));
+    }
+
+    // =========================================================================
+    // CSV
+    // =========================================================================
+
+    static CustomerOrder parseCsv(String line, Map<String, Product> products) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 5) {
+            throw malformed(line, null);
+        }
+        try {
+            List<OrderItem> items = new ArrayList<>();
+            if (!fields[4].isBlank()) {
+                for (String item : fields[4].split(";")) {
+                    int colon = item.indexOf(':');
+                    items.add(new OrderItem(product(products, item.substring(0, colon).strip()),
+                            Integer.parseInt(item.substring(colon + 1).strip())));
+                }
+            }
+            return new CustomerOrder(fields[0].strip(), fields[1].strip(), List.copyOf(items),
+                    LocalDate.parse(fields[2].strip()), OrderStatus.valueOf(fields[3].strip()));
+        } catch (RuntimeException e) {
+            throw malformed(line, e);
+        }
+    }
+
+    // =========================================================================
+    // NDJSON
+    // =========================================================================
+
+    static CustomerOrder parseJson(String line, Map<String, Product> products) {
+        try {
+            Map<?, ?> order = (Map<?, ?>) new Json(line).document();
+            List<OrderItem> items = ((List<?>) order.get("items")).stream()
+                    .map(item -> (Map<?, ?>) item)
+                    .map(item -> new OrderItem(product(products, (String) item.get("productId")),
+                            ((Number) item.get("quantity")).intValue()))
+                    .toList();
+            return new CustomerOrder((String) order.get("id"), (String) order.get("customerId"), items,
+                    LocalDate.parse((String) order.get("orderDate")),
+                    OrderStatus.valueOf((String) order.get("status")));
+        } catch (RuntimeException e) {
+            throw malformed(line, e);
+        }
+    }
+
+    /**
+     * Minimal JSON reader: objects become maps, arrays lists, numbers
+     * doubles or longs.
+     */
+    private static final class Json {
+
+        private final String text;
+        private int at;
+
+        Json(String text) {
+            this.text = text;
+        }
+
+        Object document() {
+            Object value = value();
+            skipWhitespace();
+            if (at != text.length()) {
+                throw error("trailing characters");
+            }
+            return value;
+        }
+
+        private Object value() {
+            skipWhitespace();
+            if (at >= text.length()) {
+                throw error("unexpected end");
+            }
+            char c = text.charAt(at);
+            return switch (c) {
+                case '{' -> object();
+                case '[' -> array();
+                case '"' -> string();
+                case 't' -> literal("true", Boolean.TRUE);
+                case 'f' -> literal("false", Boolean.FALSE);
+                case 'n' -> literal("null", null);
+                default -> number();
+            };
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> object = new HashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek('}')) {
+                return object;
+            }
+            do {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                object.put(key, value());
+                skipWhitespace();
+            } while (peek(','));
+            expect('}');
+            return object;
+        }
+
+        private List<Object> array() {
+            List<Object> array = new ArrayList<>();
+            expect('[');
+            skipWhitespace();
+            if (peek(']')) {
+                return array;
+            }
+            do {
+                array.add(value());
+                skipWhitespace();
+            } while (peek(','));
+            expect(']');
+            return array;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder s = new StringBuilder();
+            while (true) {
+                if (at >= text.length()) {
+                    throw error("unterminated string");
+                }
+                char c = text.charAt(at++);
+                if (c == '"') {
+                    return s.toString();
+                }
+                if (c != '\\') {
+                    s.append(c);
+                    continue;
+                }
+                char e = text.charAt(at++);
+                switch (e) {
+                    case 'b' -> s.append('\b');
+                    case 'f' -> s.append('\f');
+                    case 'n' -> s.append('\n');
+                    case 'r' -> s.append('\r');
+                    case 't' -> s.append('\t');
+                    case 'u' -> {
+                        s.append((char) Integer.parseInt(text.substring(at, at + 4), 16));
+                        at += 4;
+                    }
+                    default -> s.append(e);
+                }
+            }
+        }
+
+        private Number number() {
+            int start = at;
+            while (at < text.length() && "+-0123456789.eE".indexOf(text.charAt(at)) >= 0) {
+                at++;
+            }
+            String number = text.substring(start, at);
+            if (number.isEmpty()) {
+                throw error("unexpected character");
+            }
+            return number.matches("-?\\d+") ? (Number) Long.parseLong(number) : (Number) Double.parseDouble(number);
+        }
+
+        private Object literal(String word, Object value) {
+            if (!text.startsWith(word, at)) {
+                throw error("unexpected character");
+            }
+            at += word.length();
+            return value;
+        }
+
+        private boolean peek(char c) {
+            if (at < text.length() && text.charAt(at) == c) {
+                at++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw error("expected '" + c + "'");
+            }
+        }
+
+        private void skipWhitespace() {
+            while (at < text.length() && Character.isWhitespace(text.charAt(at))) {
+                at++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at column " + (at + 1));
+        }
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private static Product product(Map<String, Product> products, String id) {
+        Product product = products.get(id);
+        if (product == null) {
+            throw new IllegalArgumentException("Unknown product: " + id);
+        }
+        return product;
+    }
+
+    private static IllegalArgumentException malformed(String line, RuntimeException cause) {
+        return new IllegalArgumentException("Malformed order line: " + line, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package edu.touro.las.mcon364.streams.homework;
+
+/**
+ * An {@link OrderSource} with its dictionary and the indexes queries build
+ * over it on first use.
+ *
+ * One instance is shared by every {@link StreamHomework} view of a store, so
+ * each index is built at most once. Indexes live on the heap even when the
+ * source is a mapped file; they hold a few ints per order, not its columns.
+ */
+final class OrderIndexes {
+
+    final OrderSource source;
+    final OrderDictionary dictionary;
+
+    private volatile DateIndex dateIndex;
+    private volatile ZoneMap orderZones;
+
+    OrderIndexes(OrderSource source, OrderDictionary dictionary) {
+        this.source = source;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Index of the orders by date, built on first use.
+     */
+    DateIndex dateIndex() {
+        DateIndex index = dateIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = dateIndex;
+                if (index == null) {
+                    dateIndex = index = new DateIndex(source, dictionary);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Status and date zone map over blocks of orders, built on first use.
+     */
+    ZoneMap orderZones() {
+        ZoneMap zones = orderZones;
+        if (zones == null) {
+            synchronized (this) {
+                zones = orderZones;
+                if (zones == null) {
+                    orderZones = zones = new ZoneMap(source);
+                }
+            }
+        }
+        return zones;
+    }
+}
@@ -0,0 +1,509 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Compact binary order file, read through memory-mapped buffers.
+ *
+ * The file holds the same encoding as {@link OrderColumns}: small dictionaries
+ * followed by one fixed-width little-endian column per attribute. Opening a
+ * log maps each column with {@link FileChannel#map} and parses only the
+ * dictionaries, so it costs milliseconds regardless of the file size, and the
+ * columns are paged in by the OS as they are read rather than copied onto the
+ * heap.
+ *
+ * Layout:
+ * <pre>
+ *   header       64 bytes, see {@link #write}
+ *   dictionaries products, customers, categories, product -> category code
+ *   columns      each starting on an 8-byte boundary:
+ *                linePrice long[lines] (Money units), orderEpochDay int[orders],
+ *                orderCustomer int[orders], orderLineStart int[orders + 1],
+ *                orderIdStart int[orders + 1], lineProduct int[lines],
+ *                lineQuantity int[lines], orderStatus byte[orders],
+ *                orderIds UTF-8 bytes
+ * </pre>
+ *
+ * Each column is mapped separately, so one column is limited to 2 GiB
+ * (about 268 million line items); the file as a whole may be far larger than
+ * the heap. As an {@link OrderSource}, a log serves the per-query API in
+ * place through {@code new StreamHomework(log)}: queries read the mapped
+ * columns, and only the indexes they build, a few ints per order, take heap.
+ * Order totals are not stored, so they are summed from the lines each time.
+ */
+public final class OrderLog implements OrderSource {
+
+    static final long MAGIC = 0x4F524445524C4F47L;      // "ORDERLOG"
+    static final int VERSION = 2;                       // 2: prices as long Money units
+    private static final int HEADER_BYTES = 64;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    final OrderDictionary dictionary;
+    private final int orderCount;
+    private final int lineCount;
+
+    final LongBuffer linePrice;
+    final IntBuffer orderEpochDay;
+    final IntBuffer orderCustomer;
+    final IntBuffer orderLineStart;
+    final IntBuffer orderIdStart;
+    final IntBuffer lineProduct;
+    final IntBuffer lineQuantity;
+    final ByteBuffer orderStatus;
+    final ByteBuffer orderIds;
+
+    private OrderLog(FileChannel channel, Path path) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Not an order log: " + path);
+        }
+        ByteBuffer header = map(channel, 0, HEADER_BYTES);
+        if (header.getLong(0) != MAGIC) {
+            throw new IOException("Not an order log: " + path);
+        }
+        if (header.getInt(8) != VERSION) {
+            throw new IOException("Unsupported order log version " + header.getInt(8) + ": " + path);
+        }
+        int products = header.getInt(12);
+        int customers = header.getInt(16);
+        int categories = header.getInt(20);
+        orderCount = header.getInt(24);
+        lineCount = header.getInt(28);
+        long orderIdBytes = header.getLong(48);
+        long columnsOffset = header.getLong(56);
+
+        ByteBuffer dictionaries = map(channel, HEADER_BYTES, columnsOffset - HEADER_BYTES);
+        List<Product> catalog = new ArrayList<>(products);
+        for (int p = 0; p < products; p++) {
+            catalog.add(new Product(getString(dictionaries), getString(dictionaries), getString(dictionaries),
+                    dictionaries.getDouble()));
+        }
+        String[] customerIds = new String[customers];
+        Arrays.setAll(customerIds, c -> getString(dictionaries));
+        String[] categoryNames = new String[categories];
+        Arrays.setAll(categoryNames, c -> getString(dictionaries));
+        int[] productCategory = new int[products];
+        Arrays.setAll(productCategory, p -> dictionaries.getInt());
+        dictionary = new OrderDictionary(catalog, customerIds, categoryNames, productCategory,
+                header.getLong(32), header.getLong(40));
+
+        long offset = columnsOffset;
+        linePrice = map(channel, offset, 8L * lineCount).asLongBuffer();
+        offset = align(offset + 8L * lineCount);
+        orderEpochDay = map(channel, offset, 4L * orderCount).asIntBuffer();
+        offset = align(offset + 4L * orderCount);
+        orderCustomer = map(channel, offset, 4L * orderCount).asIntBuffer();
+        offset = align(offset + 4L * orderCount);
+        orderLineStart = map(channel, offset, 4L * (orderCount + 1)).asIntBuffer();
+        offset = align(offset + 4L * (orderCount + 1));
+        orderIdStart = map(channel, offset, 4L * (orderCount + 1)).asIntBuffer();
+        offset = align(offset + 4L * (orderCount + 1));
+        lineProduct = map(channel, offset, 4L * lineCount).asIntBuffer();
+        offset = align(offset + 4L * lineCount);
+        lineQuantity = map(channel, offset, 4L * lineCount).asIntBuffer();
+        offset = align(offset + 4L * lineCount);
+        orderStatus = map(channel, offset, orderCount);
+        offset = align(offset + orderCount);
+        orderIds = map(channel, offset, orderIdBytes);
+    }
+
+    /**
+     * Maps an order log for reading. The mapping stays valid after this
+     * method returns; it is released when the log is garbage collected.
+     */
+    public static OrderLog open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new OrderLog(channel, path);
+        }
+    }
+
+    // =========================================================================
+    // QUERIES
+    // =========================================================================
+
+    @Override
+    public int orderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public int lineCount() {
+        return lineCount;
+    }
+
+    public List<Product> products() {
+        return dictionary.products;
+    }
+
+    /**
+     * Materializes one order into its record form, reading only that order's
+     * slice of each column.
+     */
+    @Override
+    public CustomerOrder order(int order) {
+        int start = orderLineStart.get(order);
+        int end = orderLineStart.get(order + 1);
+        OrderItem[] items = new OrderItem[end - start];
+        for (int i = start; i < end; i++) {
+            items[i - start] = new OrderItem(dictionary.product(lineProduct.get(i)), lineQuantity.get(i));
+        }
+        return new CustomerOrder(orderId(order), dictionary.customer(orderCustomer.get(order)),
+                List.of(items), LocalDate.ofEpochDay(orderEpochDay.get(order)), STATUSES[orderStatus.get(order)]);
+    }
+
+    /**
+     * Orders as a lazily materialized stream. The underlying range spliterator
+     * splits evenly, so the stream can be made parallel.
+     */
+    public Stream<CustomerOrder> orders() {
+        return IntStream.range(0, orderCount).mapToObj(this::order);
+    }
+
+    /**
+     * Runs reports in one pass directly over the mapped columns, without
+     * loading the orders onto the heap.
+     */
+    @Override
+    public ReportResults runReports(Set<Report> reports, ExecutionPolicy policy) {
+        return ReportAccumulator.run(this, reports, policy);
+    }
+
+    /**
+     * Copies the log into an on-heap store. Columns are read with bulk
+     * transfers rather than parsed.
+     *
+     * The copy needs heap for every column, with each order id as a String,
+     * and in return memoizes order totals and category subtotals and scans
+     * with vector kernels. A log larger than the heap is queried in place
+     * with {@code new StreamHomework(log)} instead.
+     *
+     * @throws OutOfMemoryError if the columns do not fit in the heap
+     */
+    public OrderColumns toColumns() {
+        String[] ids = new String[orderCount];
+        Arrays.setAll(ids, this::orderId);
+        int[] customers = new int[orderCount];
+        orderCustomer.get(0, customers);
+        byte[] statuses = new byte[orderCount];
+        orderStatus.get(0, statuses);
+        long[] epochDays = new long[orderCount];
+        Arrays.setAll(epochDays, orderEpochDay::get);
+        int[] lineStarts = new int[orderCount + 1];
+        orderLineStart.get(0, lineStarts);
+        int[] products = new int[lineCount];
+        lineProduct.get(0, products);
+        int[] quantities = new int[lineCount];
+        lineQuantity.get(0, quantities);
+        long[] prices = new long[lineCount];
+        linePrice.get(0, prices);
+        return new OrderColumns(dictionary, ids, customers, statuses, epochDays, lineStarts,
+                products, quantities, prices);
+    }
+
+    @Override
+    public int customerCode(int order) {
+        return orderCustomer.get(order);
+    }
+
+    @Override
+    public byte statusCode(int order) {
+        return orderStatus.get(order);
+    }
+
+    @Override
+    public long epochDay(int order) {
+        return orderEpochDay.get(order);
+    }
+
+    /**
+     * Sums the order's lines; unlike a heap store, a log keeps no totals.
+     */
+    @Override
+    public long orderTotalCents(int order) {
+        long total = 0;
+        for (int i = orderLineStart.get(order), end = orderLineStart.get(order + 1); i < end; i++) {
+            total = Math.addExact(total, Money.times(linePrice.get(i), lineQuantity.get(i)));
+        }
+        return total;
+    }
+
+    @Override
+    public int productCode(int line) {
+        return lineProduct.get(line);
+    }
+
+    @Override
+    public int quantity(int line) {
+        return lineQuantity.get(line);
+    }
+
+    @Override
+    public long countStatus(byte status, int from, int to) {
+        long count = 0;
+        for (int o = from; o < to; o++) {
+            if (orderStatus.get(o) == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long revenueCents(byte status, int from, int to) {
+        long sum = 0;
+        for (int o = from; o < to; o++) {
+            if (orderStatus.get(o) == status) {
+                sum = Math.addExact(sum, orderTotalCents(o));
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public LongSummaryStatistics orderTotals(byte status, int from, int to) {
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int o = from; o < to; o++) {
+            if (orderStatus.get(o) == status) {
+                long total = orderTotalCents(o);
+                count++;
+                sum = Math.addExact(sum, total);
+                min = Math.min(min, total);
+                max = Math.max(max, total);
+            }
+        }
+        return new LongSummaryStatistics(count, min, max, sum);
+    }
+
+    // =========================================================================
+    // COLUMNS
+    // =========================================================================
+
+    /** Unit prices in {@link Money} units; see also {@link #lineQuantities()}. */
+    public LongBuffer linePrices() {
+        return linePrice.asReadOnlyBuffer();
+    }
+
+    public IntBuffer lineQuantities() {
+        return lineQuantity.asReadOnlyBuffer();
+    }
+
+    /** Product code of each line item: an index into {@link #products()}. */
+    public IntBuffer lineProducts() {
+        return lineProduct.asReadOnlyBuffer();
+    }
+
+    /** Items of order {@code o} occupy {@code [get(o), get(o + 1))}. */
+    public IntBuffer orderLineStarts() {
+        return orderLineStart.asReadOnlyBuffer();
+    }
+
+    public IntBuffer orderEpochDays() {
+        return orderEpochDay.asReadOnlyBuffer();
+    }
+
+    /** Customer code of each order; codes follow sorted customer id order. */
+    public IntBuffer orderCustomers() {
+        return orderCustomer.asReadOnlyBuffer();
+    }
+
+    /** {@link OrderStatus} ordinal of each order. */
+    public ByteBuffer orderStatuses() {
+        return orderStatus.asReadOnlyBuffer();
+    }
+
+    int daySlot(int order) {
+        return (int) (orderEpochDay.get(order) - dictionary.minEpochDay);
+    }
+
+    private String orderId(int order) {
+        int start = orderIdStart.get(order);
+        byte[] bytes = new byte[orderIdStart.get(order + 1) - start];
+        orderIds.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // =========================================================================
+    // WRITING
+    // =========================================================================
+
+    /**
+     * Writes a store as an order log. The 64-byte header holds, in order: the
+     * magic number, the format version, the product, customer, category,
+     * order and line counts (ints), the first and last epoch day, the size of
+     * the order id column and the offset of the first column (longs).
+     */
+    public static void write(Path path, OrderColumns columns) throws IOException {
+        OrderDictionary d = columns.dictionary;
+        int orders = columns.orderCount();
+        int lines = columns.lineCount();
+        byte[][] ids = new byte[orders][];
+        long idBytes = 0;
+        for (int o = 0; o < orders; o++) {
+            ids[o] = columns.orderIds[o].getBytes(StandardCharsets.UTF_8);
+            idBytes += ids[o].length;
+        }
+        if (idBytes > Integer.MAX_VALUE) {
+            throw new IOException("Order ids too large for one column: " + idBytes + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Output out = new Output(channel, HEADER_BYTES)) {
+            for (Product p : d.products) {
+                out.putString(p.id()).putString(p.name()).putString(p.category()).putDouble(p.price());
+            }
+            Arrays.stream(d.customers).forEach(out::putString);
+            Arrays.stream(d.categories).forEach(out::putString);
+            Arrays.stream(d.productCategory).forEach(out::putInt);
+            long columnsOffset = out.align();
+
+            Arrays.stream(columns.linePrice).forEach(out::putLong);
+            out.align();
+            Arrays.stream(columns.orderEpochDay).forEach(day -> out.putInt(Math.toIntExact(day)));
+            out.align();
+            Arrays.stream(columns.orderCustomer).forEach(out::putInt);
+            out.align();
+            Arrays.stream(columns.orderLineStart).forEach(out::putInt);
+            out.align();
+            int idStart = 0;
+            out.putInt(0);
+            for (byte[] id : ids) {
+                out.putInt(idStart += id.length);
+            }
+            out.align();
+            Arrays.stream(columns.lineProduct).forEach(out::putInt);
+            out.align();
+            Arrays.stream(columns.lineQuantity).forEach(out::putInt);
+            out.align();
+            out.putBytes(columns.orderStatus);
+            out.align();
+            for (byte[] id : ids) {
+                out.putBytes(id);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putLong(MAGIC).putInt(VERSION)
+                    .putInt(d.productCount()).putInt(d.customerCount()).putInt(d.categoryCount())
+                    .putInt(orders).putInt(lines)
+                    .putLong(d.minEpochDay).putLong(d.maxEpochDay)
+                    .putLong(idBytes).putLong(columnsOffset)
+                    .flip();
+            channel.write(header, 0);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long bytes) throws IOException {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IOException("Column too large to map: " + bytes + " bytes");
+        }
+        if (offset + bytes > channel.size()) {
+            throw new IOException("Truncated order log");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Buffered little-endian writer that tracks its position in the file.
+     */
+    private static final class Output implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        Output(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        Output putInt(int value) {
+            ensure(Integer.BYTES).putInt(value);
+            return this;
+        }
+
+        Output putLong(long value) {
+            ensure(Long.BYTES).putLong(value);
+            return this;
+        }
+
+        Output putDouble(double value) {
+            ensure(Double.BYTES).putDouble(value);
+            return this;
+        }
+
+        Output putString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            return putInt(bytes.length).putBytes(bytes);
+        }
+
+        Output putBytes(byte[] bytes) {
+            for (int from = 0; from < bytes.length; ) {
+                int n = Math.min(bytes.length - from, ensure(1).remaining());
+                buffer.put(bytes, from, n);
+                from += n;
+            }
+            return this;
+        }
+
+        /** Pads to the next 8-byte boundary and returns the new file offset. */
+        long align() {
+            while ((offset() & 7) != 0) {
+                ensure(1).put((byte) 0);
+            }
+            return offset();
+        }
+
+        long offset() {
+            return position + buffer.position();
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
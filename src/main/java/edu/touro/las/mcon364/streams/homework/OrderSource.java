@@ -0,0 +1,52 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+
+/**
+ * Encoded order and line columns that {@link StreamHomework} queries read,
+ * wherever they live: on the heap in {@link OrderColumns} or in a mapped file
+ * in {@link OrderLog}.
+ *
+ * Row accessors return encoded values: codes index the store's
+ * {@link OrderDictionary}, prices and totals are {@link Money} units. The
+ * block scans take a range of orders, so each store runs them its own way;
+ * the heap one hands its arrays to vector kernels.
+ */
+interface OrderSource {
+
+    int orderCount();
+
+    int lineCount();
+
+    int customerCode(int order);
+
+    /** {@link OrderStatus} ordinal of an order. */
+    byte statusCode(int order);
+
+    long epochDay(int order);
+
+    /** Sum of quantity × price over the items of one order, exact. */
+    long orderTotalCents(int order);
+
+    /** Product code of a line item: an index into the catalog. */
+    int productCode(int line);
+
+    int quantity(int line);
+
+    CustomerOrder order(int order);
+
+    /** Number of orders in {@code [from, to)} with a status. */
+    long countStatus(byte status, int from, int to);
+
+    /** Sum of the line totals of the orders in {@code [from, to)} with a status, exact. */
+    long revenueCents(byte status, int from, int to);
+
+    /** Count, sum, min and max of the totals of the orders in {@code [from, to)} with a status. */
+    LongSummaryStatistics orderTotals(byte status, int from, int to);
+
+    /** Runs reports in one fused pass over every order. */
+    ReportResults runReports(Set<Report> reports, ExecutionPolicy policy);
+}
@@ -0,0 +1,214 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Cache of query results keyed by dataset, method name and arguments.
+ *
+ * Every entry is tagged with the versions current when its computation
+ * started; {@link #invalidate(Object)} bumps one dataset's version and
+ * {@link #invalidate()} every dataset's, so results computed before a data
+ * change are never served after it, even if their computation finishes
+ * afterwards. Entries also expire after a time-to-live and the least recently
+ * used entry is evicted beyond the size limit.
+ *
+ * Entries are keyed on a token per dataset, which refers to the dataset only
+ * weakly: a cache shared across datasets does not keep one alive, and the
+ * entries of a collected dataset are dropped on the next lookup. Expired
+ * entries are swept at most once per time-to-live, also on lookup.
+ *
+ * Collection results are wrapped read-only before they are stored (one
+ * level deep), so a cached result can be shared between callers and threads.
+ * Queries run outside the lock: two threads missing on the same key may both
+ * compute it. All methods are thread-safe.
+ */
+public final class QueryCache {
+
+    /**
+     * Counters since creation or the last {@link #resetStats()}.
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    /**
+     * Identity token of one dataset, cleared when the dataset is collected.
+     */
+    private static final class Dataset extends WeakReference<Object> {
+        long version;
+
+        Dataset(Object dataset, ReferenceQueue<Object> collected) {
+            super(dataset, collected);
+        }
+    }
+
+    private record Key(Dataset dataset, String method, List<?> arguments) {}
+
+    private record Entry(long version, long datasetVersion, long expiresAt, Object result) {}
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final WeakHashMap<Object, Dataset> datasets = new WeakHashMap<>();
+    private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+    private long version;
+    private long lastSweep;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public QueryCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param ticker nanosecond clock, replaceable in tests
+     */
+    QueryCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        if (maxSize <= 0 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Need maxSize > 0 and a positive ttl: " + maxSize + ", " + ttl);
+        }
+        this.maxSize = maxSize;
+        ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        lastSweep = ticker.getAsLong();
+    }
+
+    /**
+     * Returns the cached result of a query, computing and storing it on a
+     * miss. Results are shared only between lookups naming an equal dataset,
+     * typically the same store instance the query reads. Arguments may be
+     * null.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(Object dataset, String method, List<?> arguments, Supplier<R> query) {
+        Objects.requireNonNull(dataset, "dataset");
+        List<?> args = Collections.unmodifiableList(new ArrayList<>(arguments));
+        Key key;
+        long startVersion;
+        long startDatasetVersion;
+        synchronized (this) {
+            long now = ticker.getAsLong();
+            purge(now);
+            Dataset token = datasets.computeIfAbsent(dataset, d -> new Dataset(d, collected));
+            key = new Key(token, method, args);
+            startVersion = version;
+            startDatasetVersion = token.version;
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == version && entry.datasetVersion == token.version
+                    && now - entry.expiresAt < 0) {
+                hits++;
+                return (R) entry.result;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+        }
+        R result = readOnly(query.get());
+        synchronized (this) {
+            if (startVersion == version && startDatasetVersion == key.dataset().version) {
+                entries.put(key, new Entry(startVersion, startDatasetVersion, ticker.getAsLong() + ttlNanos, result));
+                while (entries.size() > maxSize) {
+                    Iterator<Key> eldest = entries.keySet().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return result;
+    }
+
+    public <R> R get(Object dataset, String method, Supplier<R> query) {
+        return get(dataset, method, List.of(), query);
+    }
+
+    /**
+     * Marks every cached result stale; call whenever the data changes.
+     */
+    public synchronized void invalidate() {
+        version++;
+        invalidations++;
+        entries.clear();
+    }
+
+    /**
+     * Marks the cached results of one dataset stale, leaving other datasets'
+     * entries in place; call whenever that dataset changes.
+     */
+    public synchronized void invalidate(Object dataset) {
+        invalidations++;
+        Dataset token = datasets.get(Objects.requireNonNull(dataset, "dataset"));
+        if (token != null) {
+            token.version++;
+            entries.keySet().removeIf(key -> key.dataset() == token);
+        }
+    }
+
+    /**
+     * Number of data changes seen so far.
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size());
+    }
+
+    public synchronized void resetStats() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        invalidations = 0;
+    }
+
+    /**
+     * Drops the entries of collected datasets, and every expired entry if a
+     * time-to-live has passed since the last sweep. Called under the lock.
+     */
+    private void purge(long now) {
+        Set<Dataset> gone = null;
+        for (Reference<?> ref; (ref = collected.poll()) != null; ) {
+            if (gone == null) {
+                gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            gone.add((Dataset) ref);
+        }
+        boolean sweep = now - lastSweep >= ttlNanos;
+        if (gone == null && !sweep) {
+            return;
+        }
+        Set<Dataset> dropped = gone;
+        int before = entries.size();
+        entries.entrySet().removeIf(e -> (dropped != null && dropped.contains(e.getKey().dataset()))
+                || (sweep && now - e.getValue().expiresAt >= 0));
+        evictions += before - entries.size();
+        if (sweep) {
+            lastSweep = now;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R readOnly(R result) {
+        return (R) switch (result) {
+            case SortedMap<?, ?> map -> Collections.unmodifiableSortedMap(map);
+            case Map<?, ?> map -> Collections.unmodifiableMap(map);
+            case List<?> list -> Collections.unmodifiableList(list);
+            case SortedSet<?> set -> Collections.unmodifiableSortedSet(set);
+            case Set<?> set -> Collections.unmodifiableSet(set);
+            case null, default -> result;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package edu.touro.las.mcon364.streams.homework;
+
+/**
+ * The aggregate reports that {@link StreamHomework#runReports} can compute in a
+ * single fused pass. Each constant corresponds to one StreamHomework query.
+ */
+public enum Report {
+    /** {@link StreamHomework#getTotalRevenue()} */
+    TOTAL_REVENUE,
+    /** {@link StreamHomework#getOrderCount(StreamHomework.OrderStatus)} for every status */
+    ORDER_COUNTS,
+    /** {@link StreamHomework#getUniqueProducts()} */
+    UNIQUE_PRODUCTS,
+    /** {@link StreamHomework#getAverageOrderValue()} */
+    AVERAGE_ORDER_VALUE,
+    /** {@link StreamHomework#getRevenueByCustomer()} and {@link StreamHomework#getTopCustomers(int)} */
+    REVENUE_BY_CUSTOMER,
+    /** {@link StreamHomework#getCustomerOrderCounts()} and {@link StreamHomework#getCustomersWithMultipleOrders()} */
+    CUSTOMER_ORDER_COUNTS,
+    /** {@link StreamHomework#getRevenueByCategory()} */
+    REVENUE_BY_CATEGORY,
+    /** {@link StreamHomework#getProductQuantitySold()} and the product rankings derived from it */
+    PRODUCT_QUANTITY_SOLD,
+    /** {@link StreamHomework#getCategorySummary()} */
+    CATEGORY_SUMMARY,
+    /** {@link StreamHomework#getMonthlyRevenue()} and {@link StreamHomework#getMonthlyGrowthRate()} */
+    MONTHLY_REVENUE,
+    /** {@link StreamHomework#getDailyOrderCounts()} */
+    DAILY_ORDER_COUNTS
+}
@@ -0,0 +1,190 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.util.*;
+
+/**
+ * Fused accumulator for a set of {@link Report}s.
+ *
+ * A single traversal visits every order once and, through the order's line
+ * range, every line item once; each visit feeds all requested reports at the
+ * same time. Only the tables of requested reports are allocated.
+ *
+ * Accumulators are mutable containers for
+ * {@code IntStream.collect(supplier, accumulator, combiner)}, so the same pass
+ * runs sequentially or, under a parallel {@link ExecutionPolicy}, split across
+ * cores and merged with {@link #merge}. They only depend on the store's
+ * {@link OrderDictionary}, so the pass can read its columns either from the
+ * heap ({@link OrderColumns}) or from a mapped file ({@link OrderLog}).
+ */
+final class ReportAccumulator {
+
+    private static final byte DELIVERED = (byte) OrderStatus.DELIVERED.ordinal();
+
+    /**
+     * Read-only state shared by every accumulator of one run.
+     */
+    static final class Plan {
+        final OrderDictionary dictionary;
+        final Set<Report> reports;
+
+        Plan(OrderDictionary dictionary, Set<Report> reports) {
+            this.dictionary = dictionary;
+            this.reports = reports.isEmpty() ? EnumSet.noneOf(Report.class) : EnumSet.copyOf(reports);
+        }
+
+        boolean wants(Report report) {
+            return reports.contains(report);
+        }
+
+        boolean wantsAny(Report... any) {
+            return Arrays.stream(any).anyMatch(reports::contains);
+        }
+    }
+
+    final Plan plan;
+    private final int[] productCategory;
+    private final int[] monthOfDay;
+    long deliveredRevenue;                  // Money units
+    long deliveredOrders;
+    final long[] statusCounts;
+    final GroupTotals customerRevenue;
+    final GroupTotals customerOrders;
+    final GroupTotals categoryRevenue;
+    final GroupTotals categoryQuantity;
+    final GroupTotals productQuantity;
+    final GroupTotals monthRevenue;
+    final GroupTotals dayCounts;
+
+    ReportAccumulator(Plan plan) {
+        OrderDictionary c = plan.dictionary;
+        this.plan = plan;
+        productCategory = c.productCategory;
+        monthOfDay = c.monthOfDay;
+        statusCounts = plan.wants(Report.ORDER_COUNTS) ? new long[OrderStatus.values().length] : null;
+        customerRevenue = plan.wants(Report.REVENUE_BY_CUSTOMER) ? new GroupTotals(c.customerCount()) : null;
+        customerOrders = plan.wants(Report.CUSTOMER_ORDER_COUNTS) ? new GroupTotals(c.customerCount()) : null;
+        boolean categories = plan.wantsAny(Report.REVENUE_BY_CATEGORY, Report.CATEGORY_SUMMARY);
+        categoryRevenue = categories ? new GroupTotals(c.categoryCount()) : null;
+        categoryQuantity = categories ? new GroupTotals(c.categoryCount()) : null;
+        productQuantity = plan.wantsAny(Report.PRODUCT_QUANTITY_SOLD, Report.UNIQUE_PRODUCTS)
+                ? new GroupTotals(c.productCount()) : null;
+        monthRevenue = plan.wants(Report.MONTHLY_REVENUE) ? new GroupTotals(c.monthSpan()) : null;
+        dayCounts = plan.wants(Report.DAILY_ORDER_COUNTS) ? new GroupTotals(c.daySpan()) : null;
+    }
+
+    /**
+     * Runs every requested report in one pass over the store.
+     */
+    static ReportResults run(OrderColumns columns, Set<Report> reports, ExecutionPolicy policy) {
+        Plan plan = new Plan(columns.dictionary, reports);
+        return new ReportResults(policy.overRange(columns.orderCount(), orders -> orders
+                .collect(() -> new ReportAccumulator(plan), (acc, o) -> acc.accept(columns, o),
+                        ReportAccumulator::merge)));
+    }
+
+    /**
+     * Runs every requested report in one pass over a mapped order log,
+     * reading the columns in place.
+     */
+    static ReportResults run(OrderLog log, Set<Report> reports, ExecutionPolicy policy) {
+        Plan plan = new Plan(log.dictionary, reports);
+        return new ReportResults(policy.overRange(log.orderCount(), orders -> orders
+                .collect(() -> new ReportAccumulator(plan), (acc, o) -> acc.accept(log, o),
+                        ReportAccumulator::merge)));
+    }
+
+    /**
+     * Heap stores carry memoized order totals and per-category subtotals, so
+     * only the product report has to visit individual lines.
+     */
+    void accept(OrderColumns c, int o) {
+        byte status = c.orderStatus[o];
+        if (productQuantity != null) {
+            for (int i = c.orderLineStart[o], end = c.orderLineStart[o + 1]; i < end; i++) {
+                productQuantity.add(c.lineProduct[i], c.lineQuantity[i]);
+            }
+        }
+        if (status == DELIVERED && categoryRevenue != null) {
+            for (int k = c.orderCategoryStart[o], end = c.orderCategoryStart[o + 1]; k < end; k++) {
+                categoryRevenue.add(c.subtotalCategory[k], c.subtotalRevenue[k]);
+                categoryQuantity.add(c.subtotalCategory[k], c.subtotalQuantity[k]);
+            }
+        }
+        order(status, c.orderCustomer[o], c.daySlot(o), c.orderTotal[o]);
+    }
+
+    void accept(OrderLog log, int o) {
+        byte status = log.orderStatus.get(o);
+        long total = 0;
+        for (int i = log.orderLineStart.get(o), end = log.orderLineStart.get(o + 1); i < end; i++) {
+            total = Math.addExact(total,
+                    line(status, log.lineProduct.get(i), log.lineQuantity.get(i), log.linePrice.get(i)));
+        }
+        order(status, log.orderCustomer.get(o), log.daySlot(o), total);
+    }
+
+    /**
+     * Feeds one line item and returns its total in Money units.
+     */
+    private long line(byte status, int product, int quantity, long price) {
+        long line = Money.times(price, quantity);
+        if (productQuantity != null) {
+            productQuantity.add(product, quantity);
+        }
+        if (status == DELIVERED && categoryRevenue != null) {
+            int category = productCategory[product];
+            categoryRevenue.add(category, line);
+            categoryQuantity.add(category, quantity);
+        }
+        return line;
+    }
+
+    /**
+     * Feeds one order once all of its lines have been seen.
+     */
+    private void order(byte status, int customer, int day, long total) {
+        if (statusCounts != null) {
+            statusCounts[status]++;
+        }
+        if (customerOrders != null) {
+            customerOrders.add(customer, 1);
+        }
+        if (dayCounts != null) {
+            dayCounts.add(day, 1);
+        }
+        if (status == DELIVERED) {
+            deliveredRevenue = Math.addExact(deliveredRevenue, total);
+            deliveredOrders++;
+            if (customerRevenue != null) {
+                customerRevenue.add(customer, total);
+            }
+            if (monthRevenue != null) {
+                monthRevenue.add(monthOfDay[day], total);
+            }
+        }
+    }
+
+    void merge(ReportAccumulator other) {
+        deliveredRevenue = Math.addExact(deliveredRevenue, other.deliveredRevenue);
+        deliveredOrders += other.deliveredOrders;
+        if (statusCounts != null) {
+            Arrays.setAll(statusCounts, s -> statusCounts[s] + other.statusCounts[s]);
+        }
+        merge(customerRevenue, other.customerRevenue);
+        merge(customerOrders, other.customerOrders);
+        merge(categoryRevenue, other.categoryRevenue);
+        merge(categoryQuantity, other.categoryQuantity);
+        merge(productQuantity, other.productQuantity);
+        merge(monthRevenue, other.monthRevenue);
+        merge(dayCounts, other.dayCounts);
+    }
+
+    private static void merge(GroupTotals into, GroupTotals from) {
+        if (into != null) {
+            into.merge(from);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Results of one fused {@link StreamHomework#runReports} pass.
+ *
+ * Each accessor returns the same value as the StreamHomework query of the
+ * same name. Asking for a report that was not requested throws
+ * {@link IllegalStateException}.
+ */
+public final class ReportResults {
+
+    private final ReportAccumulator acc;
+    private final OrderDictionary dictionary;
+
+    ReportResults(ReportAccumulator acc) {
+        this.acc = acc;
+        this.dictionary = acc.plan.dictionary;
+    }
+
+    public Set<Report> reports() {
+        return Collections.unmodifiableSet(acc.plan.reports);
+    }
+
+    private void require(Report report) {
+        if (!acc.plan.wants(report)) {
+            throw new IllegalStateException("Report not requested: " + report);
+        }
+    }
+
+    // =========================================================================
+    // PART 1: Basic Analytics
+    // =========================================================================
+
+    public double totalRevenue() {
+        require(Report.TOTAL_REVENUE);
+        return Money.toDouble(acc.deliveredRevenue);
+    }
+
+    public long orderCount(OrderStatus status) {
+        require(Report.ORDER_COUNTS);
+        return acc.statusCounts[status.ordinal()];
+    }
+
+    public Set<Product> uniqueProducts() {
+        require(Report.UNIQUE_PRODUCTS);
+        return acc.productQuantity.presentGroups()
+                .mapToObj(dictionary::product)
+                .collect(Collectors.toSet());
+    }
+
+    public double averageOrderValue() {
+        require(Report.AVERAGE_ORDER_VALUE);
+        return Money.average(acc.deliveredRevenue, acc.deliveredOrders);
+    }
+
+    // =========================================================================
+    // PART 2: Customer Analytics
+    // =========================================================================
+
+    public Map<String, Double> revenueByCustomer() {
+        require(Report.REVENUE_BY_CUSTOMER);
+        return acc.customerRevenue.moneyByKey(dictionary::customer);
+    }
+
+    public List<String> topCustomers(int n) {
+        require(Report.REVENUE_BY_CUSTOMER);
+        return Arrays.stream(acc.customerRevenue.topGroups(n))
+                .mapToObj(dictionary::customer)
+                .toList();
+    }
+
+    public Map<String, Long> customerOrderCounts() {
+        require(Report.CUSTOMER_ORDER_COUNTS);
+        return acc.customerOrders.countsByKey(dictionary::customer);
+    }
+
+    public List<String> customersWithMultipleOrders() {
+        require(Report.CUSTOMER_ORDER_COUNTS);
+        return StreamHomework.customersWithMultipleOrders(dictionary, acc.customerOrders);
+    }
+
+    // =========================================================================
+    // PART 3: Product Analytics
+    // =========================================================================
+
+    public Map<String, Double> revenueByCategory() {
+        require(Report.REVENUE_BY_CATEGORY);
+        return acc.categoryRevenue.moneyByKey(dictionary::category);
+    }
+
+    public List<Product> topSellingProducts(int n) {
+        require(Report.PRODUCT_QUANTITY_SOLD);
+        return Arrays.stream(acc.productQuantity.topGroups(n))
+                .mapToObj(dictionary::product)
+                .toList();
+    }
+
+    public Map<String, Integer> productQuantitySold() {
+        require(Report.PRODUCT_QUANTITY_SOLD);
+        return StreamHomework.quantitiesById(dictionary, acc.productQuantity);
+    }
+
+    public Map<String, CategorySummary> categorySummary() {
+        require(Report.CATEGORY_SUMMARY);
+        return StreamHomework.categorySummaries(dictionary, acc.categoryRevenue, acc.categoryQuantity);
+    }
+
+    public List<Product> neverOrderedProducts() {
+        require(Report.PRODUCT_QUANTITY_SOLD);
+        return IntStream.range(0, dictionary.productCount())
+                .filter(p -> !acc.productQuantity.present(p))
+                .mapToObj(dictionary::product)
+                .toList();
+    }
+
+    public Map<String, Product> mostPopularByCategory() {
+        require(Report.PRODUCT_QUANTITY_SOLD);
+        return StreamHomework.mostPopularByCategory(dictionary, acc.productQuantity);
+    }
+
+    // =========================================================================
+    // PART 4: Time-Based Analytics
+    // =========================================================================
+
+    public Map<YearMonth, Double> monthlyRevenue() {
+        require(Report.MONTHLY_REVENUE);
+        return acc.monthRevenue.moneyByKey(dictionary::month, new TreeMap<>());
+    }
+
+    public Map<YearMonth, Double> monthlyGrowthRate() {
+        return StreamHomework.growthRates(monthlyRevenue());
+    }
+
+    public Map<LocalDate, Long> dailyOrderCounts() {
+        require(Report.DAILY_ORDER_COUNTS);
+        return acc.dayCounts.countsByKey(dictionary::day, new TreeMap<>());
+    }
+}
@@ -0,0 +1,132 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.collectors.SpillingSum;
+import edu.touro.las.mcon364.streams.collectors.SpillingSum.Codec;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Customer, product and daily grouping queries over order streams with more
+ * groups than fit on the heap.
+ *
+ * {@link StreamHomework} answers these from arrays indexed by dictionary
+ * code, which needs every customer and product in memory. These versions
+ * read the orders once, e.g. straight from {@link OrderFiles}, and group them
+ * with a {@link SpillingSum} that writes sorted runs to the spill directory
+ * whenever more than {@code maxGroups} keys are held, then merges the runs.
+ *
+ * Each query comes in two forms: one returning the open sums, to be iterated
+ * in key order and closed, and one collecting them into a sorted map equal to
+ * the StreamHomework result.
+ *
+ * Example:
+ * <pre>
+ *   SpillingAnalytics analytics = new SpillingAnalytics(1_000_000, spillDir);
+ *   try (Stream&lt;CustomerOrder&gt; orders = OrderFiles.csv(path, catalog);
+ *        SpillingSum&lt;String&gt; spent = analytics.revenueCentsByCustomer(orders)) {
+ *       spent.forEach((customer, cents) -&gt; ...);
+ *   }
+ * </pre>
+ */
+public final class SpillingAnalytics {
+
+    private static final Codec<LocalDate> EPOCH_DAYS = new Codec<>() {
+        @Override
+        public void write(DataOutput out, LocalDate key) throws IOException {
+            out.writeLong(key.toEpochDay());
+        }
+
+        @Override
+        public LocalDate read(DataInput in) throws IOException {
+            return LocalDate.ofEpochDay(in.readLong());
+        }
+    };
+
+    private final int maxGroups;
+    private final Path directory;
+
+    /**
+     * @param maxGroups keys held in memory per container before spilling
+     * @param directory where run files are created; they are deleted when
+     *                  the returned sums are closed
+     */
+    public SpillingAnalytics(int maxGroups, Path directory) {
+        if (maxGroups < 1) {
+            throw new IllegalArgumentException("maxGroups must be positive: " + maxGroups);
+        }
+        this.maxGroups = maxGroups;
+        this.directory = Objects.requireNonNull(directory);
+    }
+
+    // =========================================================================
+    // OPEN SUMS
+    // =========================================================================
+
+    /**
+     * Revenue of DELIVERED orders per customer, in {@link Money} units.
+     */
+    public SpillingSum<String> revenueCentsByCustomer(Stream<CustomerOrder> orders) {
+        return orders.filter(o -> o.status() == OrderStatus.DELIVERED)
+                .collect(summing(Codec.utf8(), CustomerOrder::customerId, CustomerOrder::getTotalCents));
+    }
+
+    /**
+     * Quantity sold per product id, over orders of any status.
+     */
+    public SpillingSum<String> quantityByProduct(Stream<CustomerOrder> orders) {
+        return orders.flatMap(o -> o.items().stream())
+                .collect(summing(Codec.utf8(), i -> i.product().id(), OrderItem::quantity));
+    }
+
+    /**
+     * Number of orders of any status per order date.
+     */
+    public SpillingSum<LocalDate> ordersByDay(Stream<CustomerOrder> orders) {
+        return orders.collect(summing(EPOCH_DAYS, CustomerOrder::orderDate, o -> 1));
+    }
+
+    // =========================================================================
+    // MATERIALIZED RESULTS
+    // =========================================================================
+
+    /**
+     * Same result as {@link StreamHomework#getRevenueByCustomer()}, sorted
+     * by customer id.
+     */
+    public SortedMap<String, Double> getRevenueByCustomer(Stream<CustomerOrder> orders) {
+        try (SpillingSum<String> revenue = revenueCentsByCustomer(orders)) {
+            return revenue.toMap(Money::toDouble);
+        }
+    }
+
+    /**
+     * Same result as {@link StreamHomework#getProductQuantitySold()}, sorted
+     * by product id.
+     */
+    public SortedMap<String, Integer> getProductQuantitySold(Stream<CustomerOrder> orders) {
+        try (SpillingSum<String> quantities = quantityByProduct(orders)) {
+            return quantities.toMap(Math::toIntExact);
+        }
+    }
+
+    /**
+     * Same result as {@link StreamHomework#getDailyOrderCounts()}.
+     */
+    public SortedMap<LocalDate, Long> getDailyOrderCounts(Stream<CustomerOrder> orders) {
+        try (SpillingSum<LocalDate> counts = ordersByDay(orders)) {
+            return counts.toMap(Long::valueOf);
+        }
+    }
+
+    private <T, K extends Comparable<? super K>> Collector<T, SpillingSum<K>, SpillingSum<K>> summing(
+            Codec<K> codec, Function<? super T, ? extends K> key, ToLongFunction<? super T> value) {
+        return SpillingSum.summing(() -> new SpillingSum<>(Comparator.naturalOrder(), codec, maxGroups, directory),
+                key, value);
+    }
+}
@@ -1,7 +1,13 @@
 package edu.touro.las.mcon364.streams.homework;
 
+import edu.touro.las.mcon364.streams.collectors.*;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+
 import java.time.*;
 import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
 
 /**
  * Homework: E-Commerce Order Analytics
@@ -9,7 +15,9 @@ import java.util.*;
  * Time: ~2 hours
  * 
  * Build an analytics module for an e-commerce platform using Java Streams.
- * Complete all methods marked with TODO.
+ * Orders are read from an {@link OrderSource}, a columnar
+ * {@link OrderColumns} store on the heap or a mapped {@link OrderLog}, and
+ * every query streams over its encoded columns rather than over records.
  * 
  * See HOMEWORK_README.md for detailed instructions.
  */
@@ -22,14 +30,25 @@ public class StreamHomework {
     /**
      * Represents a product in the catalog.
      */
-    public record Product(String id, String name, String category, double price) {}
+    public record Product(String id, String name, String category, double price) {
+        /**
+         * The price as exact {@link Money} units (cents).
+         */
+        public long priceCents() {
+            return Money.of(price);
+        }
+    }
     
     /**
      * Represents a line item in an order.
      */
     public record OrderItem(Product product, int quantity) {
+        public long getLineTotalCents() {
+            return Money.times(product.priceCents(), quantity);
+        }
+        
         public double getLineTotal() {
-            return product.price() * quantity;
+            return Money.toDouble(getLineTotalCents());
         }
     }
     
@@ -43,10 +62,14 @@ public class StreamHomework {
             LocalDate orderDate,
             OrderStatus status
     ) {
-        public double getTotal() {
+        public long getTotalCents() {
             return items.stream()
-                    .mapToDouble(OrderItem::getLineTotal)
-                    .sum();
+                    .mapToLong(OrderItem::getLineTotalCents)
+                    .reduce(0L, Math::addExact);
+        }
+        
+        public double getTotal() {
+            return Money.toDouble(getTotalCents());
         }
     }
     
@@ -67,14 +90,118 @@ public class StreamHomework {
     // =========================================================================
     
     private final List<Product> products;
-    private final List<CustomerOrder> customerOrders;
+    private final OrderSource source;
+    private final OrderIndexes indexes;
+    private final ExecutionPolicy policy;
+    private final QueryCache cache;
+    private final QueryMetrics metrics;
     
     /**
      * Constructor initializes sample data for testing.
      */
     public StreamHomework() {
+        this(sampleProducts());
+    }
+    
+    private StreamHomework(List<Product> products) {
+        this(products, sampleOrders(products));
+    }
+    
+    /**
+     * Creates an analytics module over the given catalog and orders.
+     * 
+     * The orders are encoded into an {@link OrderColumns} store; the records
+     * themselves are not retained.
+     */
+    public StreamHomework(List<Product> products, Collection<CustomerOrder> customerOrders) {
+        this(List.copyOf(products), OrderColumns.of(products, customerOrders));
+    }
+    
+    /**
+     * Creates an analytics module over a stream of orders, consumed once,
+     * e.g. one read from a file with {@link OrderFiles}.
+     */
+    public StreamHomework(List<Product> products, Stream<CustomerOrder> customerOrders) {
+        this(List.copyOf(products), OrderColumns.of(products, customerOrders));
+    }
+    
+    /**
+     * Creates an analytics module over an already-encoded store, e.g. one
+     * loaded with {@code OrderLog.open(path).toColumns()}.
+     */
+    public StreamHomework(OrderColumns columns) {
+        this(columns.products(), columns);
+    }
+    
+    /**
+     * Creates an analytics module that queries a mapped order log in place,
+     * so the log may be larger than the heap. Indexes the queries build,
+     * such as the date index, are kept on the heap.
+     */
+    public StreamHomework(OrderLog log) {
+        this(log.products(), new OrderIndexes(log, log.dictionary), ExecutionPolicy.sequential(), null, null);
+    }
+    
+    private StreamHomework(List<Product> products, OrderColumns columns) {
+        this(products, new OrderIndexes(columns, columns.dictionary), ExecutionPolicy.sequential(), null, null);
+    }
+    
+    private StreamHomework(List<Product> products, OrderIndexes indexes, ExecutionPolicy policy,
+                           QueryCache cache, QueryMetrics metrics) {
+        this.products = products;
+        this.source = indexes.source;
+        this.indexes = indexes;
+        this.policy = policy;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Returns a view of the same data whose queries run under the given
+     * policy, e.g. in parallel on a dedicated ForkJoinPool.
+     */
+    public StreamHomework withExecutionPolicy(ExecutionPolicy policy) {
+        return new StreamHomework(products, indexes, policy, cache, metrics);
+    }
+    
+    /**
+     * Returns a view of the same data whose queries throw
+     * {@link java.util.concurrent.CancellationException} once the check
+     * returns true, keeping the current execution policy otherwise.
+     */
+    public StreamHomework withCancellation(BooleanSupplier cancelled) {
+        return new StreamHomework(products, indexes, policy.withCancellation(cancelled), cache, metrics);
+    }
+    
+    /**
+     * Returns a view of the same data whose customer and product queries
+     * (Parts 2 and 3) are answered from the given cache. The store is
+     * immutable, so cached results stay valid until the cache itself is
+     * invalidated or they expire; they are read-only.
+     */
+    public StreamHomework withQueryCache(QueryCache cache) {
+        return new StreamHomework(products, indexes, policy, Objects.requireNonNull(cache), metrics);
+    }
+    
+    /**
+     * Returns a view of the same data that records latency, rows scanned,
+     * rows emitted and allocation of every public query into the given
+     * metrics, and emits a Flight Recorder event per call.
+     */
+    public StreamHomework withMetrics(QueryMetrics metrics) {
+        return new StreamHomework(products, indexes, policy, cache, Objects.requireNonNull(metrics));
+    }
+    
+    /**
+     * The columns backing every query.
+     */
+    OrderSource source() {
+        return source;
+    }
+    
+    private static List<Product> sampleProducts() {
         // Create products
-        products = List.of(
+        return List.of(
             new Product("P001", "Laptop", "Electronics", 999.99),
             new Product("P002", "Smartphone", "Electronics", 699.99),
             new Product("P003", "Headphones", "Electronics", 149.99),
@@ -86,9 +213,11 @@ public class StreamHomework {
             new Product("P009", "Tablet", "Electronics", 449.99),
             new Product("P010", "Jacket", "Clothing", 119.99)
         );
-        
+    }
+    
+    private static List<CustomerOrder> sampleOrders(List<Product> products) {
         // Create orders
-        customerOrders = new ArrayList<>();
+        List<CustomerOrder> customerOrders = new ArrayList<>();
         
         // Customer C001 orders
         customerOrders.add(new CustomerOrder("O001", "C001",
@@ -165,6 +294,8 @@ public class StreamHomework {
                 new OrderItem(products.get(9), 1)   // Jacket
             ),
             LocalDate.of(2024, 3, 20), OrderStatus.SHIPPED));
+        
+        return customerOrders;
     }
     
     // =========================================================================
@@ -179,19 +310,40 @@ public class StreamHomework {
      * Expected: ~5765.87
      */
     public double getTotalRevenue() {
-        // TODO: Implement using streams
-        // Hint: Filter by DELIVERED status, then sum order totals
-        return 0.0;
+        return measured("getTotalRevenue", () -> Money.toDouble(getTotalRevenueCents()));
+    }
+    
+    /**
+     * Task 1.1, exact: total revenue from DELIVERED orders in {@link Money}
+     * units (cents). Blocks of orders without a delivered one are skipped.
+     */
+    public long getTotalRevenueCents() {
+        return measured("getTotalRevenueCents", () -> {
+            ZoneMap zones = indexes.orderZones();
+            return policy.overBlocks(source.orderCount(), b -> zones.mayHave(b, DELIVERED),
+                    (b, from, to) -> source.revenueCents(DELIVERED, from, to),
+                    Math::addExact);
+        });
     }
     
     /**
      * Task 1.2: Count orders by status.
      * 
      * Example: getOrderCount(DELIVERED) -> 5
+     * 
+     * Blocks without the status are skipped, and blocks holding nothing else
+     * are counted without reading their rows.
      */
     public long getOrderCount(OrderStatus status) {
-        // TODO: Implement using streams
-        return 0;
+        return measured("getOrderCount", () -> {
+            byte code = (byte) status.ordinal();
+            ZoneMap zones = indexes.orderZones();
+            return policy.overBlocks(source.orderCount(), b -> zones.mayHave(b, code),
+                    (b, from, to) -> to > from && zones.allHave(b, code)
+                            ? to - from
+                            : source.countStatus(code, from, to),
+                    Long::sum);
+        });
     }
     
     /**
@@ -200,9 +352,9 @@ public class StreamHomework {
      * Returns a Set of all products that appear in any order.
      */
     public Set<Product> getUniqueProducts() {
-        // TODO: Implement using streams
-        // Hint: Use flatMap to get all OrderItems, then map to Product
-        return null;
+        return measured("getUniqueProducts", () -> orderedProductCodes().stream()
+                .mapToObj(indexes.dictionary::product)
+                .collect(Collectors.toSet()));
     }
     
     /**
@@ -211,9 +363,18 @@ public class StreamHomework {
      * Expected: ~1153.17
      */
     public double getAverageOrderValue() {
-        // TODO: Implement using streams
-        // Hint: Filter delivered orders, map to total, get average
-        return 0.0;
+        return measured("getAverageOrderValue", () -> {
+            LongSummaryStatistics delivered = deliveredOrderTotals();
+            return Money.average(delivered.getSum(), delivered.getCount());
+        });
+    }
+    
+    /**
+     * Task 1.4, extended: count, sum, min and max of DELIVERED order totals
+     * in {@link Money} units (cents). The sum is exact.
+     */
+    public LongSummaryStatistics getOrderValueStatisticsCents() {
+        return measured("getOrderValueStatisticsCents", this::deliveredOrderTotals);
     }
     
     // =========================================================================
@@ -228,22 +389,23 @@ public class StreamHomework {
      * Expected includes: {C001=1509.93, C002=899.97, ...}
      */
     public Map<String, Double> getRevenueByCustomer() {
-        // TODO: Implement using streams
-        // Hint: Filter delivered, group by customerId, sum totals
-        return null;
+        return cached("getRevenueByCustomer", List.of(),
+                () -> revenueByCustomerCode().moneyByKey(indexes.dictionary::customer));
     }
     
     /**
      * Task 2.2: Get top N customers by total spending (DELIVERED orders).
      * 
-     * Returns: List of customer IDs sorted by spending (highest first)
+     * Returns: List of customer IDs sorted by spending (highest first);
+     * equal spending is ordered by customer ID
      * 
      * Example: getTopCustomers(3) -> [C004, C001, C006] (or similar based on data)
      */
     public List<String> getTopCustomers(int n) {
-        // TODO: Implement using streams
-        // Hint: Use getRevenueByCustomer(), sort by value descending, limit
-        return null;
+        return cached("getTopCustomers", List.of(n),
+                () -> Arrays.stream(revenueByCustomerCode().topGroups(n))
+                        .mapToObj(indexes.dictionary::customer)
+                        .toList());
     }
     
     /**
@@ -252,9 +414,8 @@ public class StreamHomework {
      * Returns: Map of customerId → number of orders placed
      */
     public Map<String, Long> getCustomerOrderCounts() {
-        // TODO: Implement using streams
-        // Hint: Group by customerId, count
-        return null;
+        return cached("getCustomerOrderCounts", List.of(),
+                () -> orderCountsByCustomerCode().countsByKey(indexes.dictionary::customer));
     }
     
     /**
@@ -263,9 +424,8 @@ public class StreamHomework {
      * Expected: [C001, C002, C003, C006]
      */
     public List<String> getCustomersWithMultipleOrders() {
-        // TODO: Implement using streams
-        // Hint: Use getCustomerOrderCounts(), filter count > 1
-        return null;
+        return cached("getCustomersWithMultipleOrders", List.of(),
+                () -> customersWithMultipleOrders(indexes.dictionary, orderCountsByCustomerCode()));
     }
     
     // =========================================================================
@@ -280,20 +440,21 @@ public class StreamHomework {
      * Expected includes: {Electronics=4599.91, Clothing=209.95, ...}
      */
     public Map<String, Double> getRevenueByCategory() {
-        // TODO: Implement using streams
-        // Hint: Filter delivered, flatMap to items, group by category
-        return null;
+        return cached("getRevenueByCategory", List.of(),
+                () -> source.runReports(EnumSet.of(Report.REVENUE_BY_CATEGORY), policy).revenueByCategory());
     }
     
     /**
      * Task 3.2: Get top N selling products by quantity (all orders, any status).
      * 
-     * Returns: List of Product objects sorted by total quantity sold
+     * Returns: List of Product objects sorted by total quantity sold;
+     * equal quantities keep catalog order
      */
     public List<Product> getTopSellingProducts(int n) {
-        // TODO: Implement using streams
-        // Hint: flatMap to items, group by product, sum quantities, sort
-        return null;
+        return cached("getTopSellingProducts", List.of(n),
+                () -> Arrays.stream(quantityByProductCode().topGroups(n))
+                        .mapToObj(indexes.dictionary::product)
+                        .toList());
     }
     
     /**
@@ -302,9 +463,8 @@ public class StreamHomework {
      * Returns: Map of productId → total quantity sold
      */
     public Map<String, Integer> getProductQuantitySold() {
-        // TODO: Implement using streams
-        // Hint: flatMap, group by product id, sum quantity
-        return null;
+        return cached("getProductQuantitySold", List.of(),
+                () -> quantitiesById(indexes.dictionary, quantityByProductCode()));
     }
     
     /**
@@ -313,10 +473,8 @@ public class StreamHomework {
      * Returns: Map of category → CategorySummary(totalRevenue, totalQuantity)
      */
     public Map<String, CategorySummary> getCategorySummary() {
-        // TODO: Implement using streams
-        // Hint: This is more complex - consider using Collectors.teeing() 
-        // or computing in multiple steps
-        return null;
+        return cached("getCategorySummary", List.of(),
+                () -> source.runReports(EnumSet.of(Report.CATEGORY_SUMMARY), policy).categorySummary());
     }
     
     // =========================================================================
@@ -329,9 +487,16 @@ public class StreamHomework {
      * Returns: Map of YearMonth → List of Orders
      */
     public Map<YearMonth, List<CustomerOrder>> getOrdersByMonth() {
-        // TODO: Implement using streams
-        // Hint: Use YearMonth.from(order.orderDate()) as classifier
-        return null;
+        return measured("getOrdersByMonth", () -> {
+            DateIndex index = indexes.dateIndex();
+            return IntStream.range(0, index.months())
+                    .filter(index::hasOrdersInMonth)
+                    .boxed()
+                    .collect(Collectors.toMap(indexes.dictionary::month,
+                            m -> materialize(index.ordersInMonth(m).toArray()),
+                            (a, b) -> a,
+                            TreeMap::new));
+        });
     }
     
     /**
@@ -340,9 +505,14 @@ public class StreamHomework {
      * Returns: Map of YearMonth → total revenue for that month
      */
     public Map<YearMonth, Double> getMonthlyRevenue() {
-        // TODO: Implement using streams
-        // Hint: Filter delivered, group by month, sum totals
-        return null;
+        return measured("getMonthlyRevenue", () -> {
+            DateIndex index = indexes.dateIndex();
+            return IntStream.range(0, index.months())
+                    .filter(index::hasDeliveredInMonth)
+                    .boxed()
+                    .collect(Collectors.toMap(indexes.dictionary::month, m -> Money.toDouble(index.monthRevenue(m)),
+                            (a, b) -> a, TreeMap::new));
+        });
     }
     
     /**
@@ -351,9 +521,8 @@ public class StreamHomework {
      * Returns: List of orders where start <= orderDate <= end
      */
     public List<CustomerOrder> getOrdersInDateRange(LocalDate start, LocalDate end) {
-        // TODO: Implement using streams
-        // Hint: Filter using !isBefore(start) && !isAfter(end)
-        return null;
+        return measured("getOrdersInDateRange",
+                () -> materialize(indexes.dateIndex().ordersBetween(start.toEpochDay(), end.toEpochDay())));
     }
     
     /**
@@ -362,9 +531,64 @@ public class StreamHomework {
      * Returns: Map of LocalDate → number of orders on that date
      */
     public Map<LocalDate, Long> getDailyOrderCounts() {
-        // TODO: Implement using streams
-        // Hint: Group by orderDate, count
-        return null;
+        return measured("getDailyOrderCounts", () -> {
+            DateIndex index = indexes.dateIndex();
+            return IntStream.range(0, index.days())
+                    .filter(d -> index.orderCountOnDay(d) > 0)
+                    .boxed()
+                    .collect(Collectors.toMap(indexes.dictionary::day, d -> (long) index.orderCountOnDay(d),
+                            (a, b) -> a, TreeMap::new));
+        });
+    }
+    
+    /**
+     * Revenue from DELIVERED orders placed within a date range (inclusive).
+     * Answered from the date index's prefix sums in constant time.
+     */
+    public double getRevenueInDateRange(LocalDate start, LocalDate end) {
+        return measured("getRevenueInDateRange", () -> Money.toDouble(
+                indexes.dateIndex().deliveredRevenueBetween(start.toEpochDay(), end.toEpochDay())));
+    }
+    
+    /**
+     * Number of orders of any status placed within a date range (inclusive),
+     * in constant time.
+     */
+    public long getOrderCountInDateRange(LocalDate start, LocalDate end) {
+        return measured("getOrderCountInDateRange",
+                () -> indexes.dateIndex().orderCountBetween(start.toEpochDay(), end.toEpochDay()));
+    }
+    
+    /**
+     * Number of orders with a status placed within a date range (inclusive).
+     * 
+     * Scans blocks of orders without building the date index: blocks whose
+     * days miss the range or that lack the status are skipped, and blocks
+     * entirely inside the range with only that status are counted whole.
+     */
+    public long getOrderCountInDateRange(LocalDate start, LocalDate end, OrderStatus status) {
+        return measured("getOrderCountInDateRangeByStatus", () -> {
+            byte code = (byte) status.ordinal();
+            long fromDay = start.toEpochDay();
+            long toDay = end.toEpochDay();
+            ZoneMap zones = indexes.orderZones();
+            return policy.overBlocks(source.orderCount(),
+                    b -> zones.mayHave(b, code) && zones.mayOverlap(b, fromDay, toDay),
+                    (b, from, to) -> {
+                        if (to > from && zones.allHave(b, code) && zones.within(b, fromDay, toDay)) {
+                            return (long) (to - from);
+                        }
+                        long count = 0;
+                        for (int o = from; o < to; o++) {
+                            long day = source.epochDay(o);
+                            if (source.statusCode(o) == code && day >= fromDay && day <= toDay) {
+                                count++;
+                            }
+                        }
+                        return count;
+                    },
+                    Long::sum);
+        });
     }
     
     // =========================================================================
@@ -375,16 +599,22 @@ public class StreamHomework {
      * Bonus 1: Find products that have never been ordered.
      */
     public List<Product> getNeverOrderedProducts() {
-        // TODO: Implement if time permits
-        return null;
+        return measured("getNeverOrderedProducts", () -> {
+            BitSet ordered = orderedProductCodes();
+            return IntStream.range(0, indexes.dictionary.productCount())
+                    .filter(p -> !ordered.get(p))
+                    .mapToObj(indexes.dictionary::product)
+                    .toList();
+        });
     }
     
     /**
      * Bonus 2: Get the most popular product in each category (by quantity).
+     * Ties go to the product listed first in the catalog.
      */
     public Map<String, Product> getMostPopularByCategory() {
-        // TODO: Implement if time permits
-        return null;
+        return measured("getMostPopularByCategory",
+                () -> mostPopularByCategory(indexes.dictionary, quantityByProductCode()));
     }
     
     /**
@@ -394,8 +624,197 @@ public class StreamHomework {
      * First month should have growth rate of 0.0
      */
     public Map<YearMonth, Double> getMonthlyGrowthRate() {
-        // TODO: Implement if time permits
-        return null;
+        return measured("getMonthlyGrowthRate", () -> growthRates(getMonthlyRevenue()));
+    }
+    
+    // =========================================================================
+    // APPROXIMATE ANALYTICS
+    // =========================================================================
+    
+    /**
+     * Approximate twin of getUniqueProducts().size(): a HyperLogLog estimate
+     * over the ordered product codes, in fixed memory (about 0.8% error).
+     */
+    public long getApproxUniqueProductCount() {
+        return measured("getApproxUniqueProductCount", () -> overLines(lines -> HyperLogLog.distinct(
+                lines.map(source::productCode), HyperLogLog.DEFAULT_PRECISION)));
+    }
+    
+    /**
+     * Approximate twin of getCustomerOrderCounts().size(): estimated number
+     * of distinct customers, in fixed memory.
+     */
+    public long getApproxCustomerCount() {
+        return measured("getApproxCustomerCount", () -> overOrders(orders -> HyperLogLog.distinct(
+                orders.map(source::customerCode), HyperLogLog.DEFAULT_PRECISION)));
+    }
+    
+    /**
+     * Estimated number of distinct customers who ordered within a date range
+     * (inclusive). The range is sliced from the date index.
+     */
+    public long getApproxCustomerCount(LocalDate start, LocalDate end) {
+        return measured("getApproxCustomerCountInDateRange", () -> {
+            int[] orders = indexes.dateIndex().ordersBetween(start.toEpochDay(), end.toEpochDay());
+            return policy.overRange(orders.length, range -> HyperLogLog.distinct(
+                    range.map(i -> source.customerCode(orders[i])), HyperLogLog.DEFAULT_PRECISION));
+        });
+    }
+    
+    /**
+     * Sketch of DELIVERED order values, companion to getAverageOrderValue():
+     * medians and percentiles in O(k) memory instead of sorting every total.
+     * 
+     * Example: getOrderValueSketch().quantile(0.5) is the approximate median
+     */
+    public KllSketch getOrderValueSketch() {
+        return measured("getOrderValueSketch", () -> overOrders(orders -> orders
+                .filter(o -> source.statusCode(o) == DELIVERED)
+                .collect(KllSketch::new,
+                        (sketch, o) -> sketch.add(Money.toDouble(source.orderTotalCents(o))),
+                        KllSketch::merge)));
+    }
+    
+    /**
+     * Approximate order value at quantile q in [0, 1] over DELIVERED orders.
+     * NaN when nothing has been delivered.
+     */
+    public double getApproxOrderValueQuantile(double q) {
+        return measured("getApproxOrderValueQuantile", () -> getOrderValueSketch().quantile(q));
+    }
+    
+    // =========================================================================
+    // BATCH REPORTS
+    // =========================================================================
+    
+    /**
+     * Computes several reports together in one fused pass over the orders,
+     * instead of one pass per query. Runs under this facade's execution policy.
+     * 
+     * Example: runReports(EnumSet.allOf(Report.class)).topCustomers(3)
+     */
+    public ReportResults runReports(Set<Report> reports) {
+        return measured("runReports", () -> source.runReports(reports, policy));
+    }
+    
+    // =========================================================================
+    // COLUMN HELPERS
+    // =========================================================================
+    
+    private static final byte DELIVERED = (byte) OrderStatus.DELIVERED.ordinal();
+    
+    /**
+     * Answers a query from the cache when one is attached, keyed by this
+     * store, the method name and its arguments. Measured either way.
+     */
+    private <R> R cached(String method, List<?> arguments, Supplier<R> query) {
+        return measured(method, cache == null ? query : () -> cache.get(source, method, arguments, query));
+    }
+    
+    /**
+     * Runs a public query, recording it under its method name when metrics
+     * are attached.
+     */
+    private <R> R measured(String method, Supplier<R> query) {
+        return metrics == null ? query.get() : metrics.measure(method, query);
+    }
+    
+    private <R> R overOrders(Function<IntStream, R> query) {
+        return policy.overRange(source.orderCount(), query);
+    }
+    
+    private <R> R overLines(Function<IntStream, R> query) {
+        return policy.overRange(source.lineCount(), query);
+    }
+    
+    /**
+     * Materializes the given orders, in the given order, under the policy.
+     */
+    private List<CustomerOrder> materialize(int[] orders) {
+        return policy.overRange(orders.length, positions -> positions
+                .mapToObj(k -> source.order(orders[k]))
+                .collect(Collectors.toList()));
+    }
+    
+    private LongSummaryStatistics deliveredOrderTotals() {
+        ZoneMap zones = indexes.orderZones();
+        return policy.overBlocks(source.orderCount(), b -> zones.mayHave(b, DELIVERED),
+                (b, from, to) -> source.orderTotals(DELIVERED, from, to),
+                (a, b) -> new LongSummaryStatistics(a.getCount() + b.getCount(), Math.min(a.getMin(), b.getMin()),
+                        Math.max(a.getMax(), b.getMax()), Math.addExact(a.getSum(), b.getSum())));
+    }
+    
+    private GroupTotals revenueByCustomerCode() {
+        return overOrders(orders -> orders
+                .filter(o -> source.statusCode(o) == DELIVERED)
+                .collect(() -> new GroupTotals(indexes.dictionary.customerCount()),
+                        (acc, o) -> acc.add(source.customerCode(o), source.orderTotalCents(o)),
+                        GroupTotals::merge));
+    }
+    
+    private GroupTotals orderCountsByCustomerCode() {
+        return overOrders(orders -> orders
+                .collect(() -> new GroupTotals(indexes.dictionary.customerCount()),
+                        (acc, o) -> acc.add(source.customerCode(o), 1),
+                        GroupTotals::merge));
+    }
+    
+    private GroupTotals quantityByProductCode() {
+        return overLines(lines -> lines
+                .collect(() -> new GroupTotals(indexes.dictionary.productCount()),
+                        (acc, i) -> acc.add(source.productCode(i), source.quantity(i)),
+                        GroupTotals::merge));
+    }
+    
+    static Map<String, CategorySummary> categorySummaries(OrderDictionary dictionary, GroupTotals revenue,
+                                                          GroupTotals quantity) {
+        return revenue.presentGroups()
+                .boxed()
+                .collect(Collectors.toMap(dictionary::category,
+                        c -> new CategorySummary(Money.toDouble(revenue.sum(c)), Math.toIntExact(quantity.sum(c)))));
+    }
+    
+    static Map<String, Integer> quantitiesById(OrderDictionary dictionary, GroupTotals quantities) {
+        ObjectLongMap<String> sums = quantities.longSumsByKey(p -> dictionary.product(p).id());
+        // Check every total now rather than each time the view is read
+        sums.forEach((id, quantity) -> Math.toIntExact(quantity));
+        return sums.asMap(Math::toIntExact);
+    }
+    
+    static List<String> customersWithMultipleOrders(OrderDictionary dictionary, GroupTotals orderCounts) {
+        return orderCounts.presentGroups()
+                .filter(c -> orderCounts.count(c) > 1)
+                .mapToObj(dictionary::customer)
+                .toList();
+    }
+    
+    static Map<String, Product> mostPopularByCategory(OrderDictionary dictionary, GroupTotals quantities) {
+        return quantities.presentGroups()
+                .boxed()
+                .collect(Collectors.groupingBy(p -> dictionary.product(p).category(),
+                        Collectors.collectingAndThen(
+                                TopK.collector(1, Integer::intValue, quantities::sum),
+                                top -> dictionary.product(top[0]))));
+    }
+    
+    static Map<YearMonth, Double> growthRates(Map<YearMonth, Double> monthlyRevenue) {
+        List<Map.Entry<YearMonth, Double>> months = List.copyOf(monthlyRevenue.entrySet());
+        return IntStream.range(0, months.size())
+                .boxed()
+                .collect(Collectors.toMap(i -> months.get(i).getKey(),
+                        i -> i == 0 ? 0.0 : growthRate(months.get(i - 1).getValue(), months.get(i).getValue()),
+                        (a, b) -> a,
+                        TreeMap::new));
+    }
+    
+    private static double growthRate(double previous, double current) {
+        return previous == 0.0 ? 0.0 : (current - previous) / previous;
+    }
+    
+    private BitSet orderedProductCodes() {
+        return overLines(lines -> lines
+                .map(source::productCode)
+                .collect(BitSet::new, BitSet::set, BitSet::or));
     }
     
     // =========================================================================
@@ -0,0 +1,196 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the fused reports of many tenants, one StreamHomework per tenant, on
+ * virtual threads.
+ *
+ * Every tenant gets its own virtual thread, but at most
+ * {@code maxConcurrency} of them compute at once; the rest wait for a permit,
+ * which costs no platform thread. A tenant's deadline starts when it gets a
+ * permit. Queries poll the deadline and the batch's cancellation flag through
+ * the tenant's execution policy, so an overrunning tenant stops and frees its
+ * permit instead of holding it until it finishes.
+ *
+ * Each batch reports per-tenant outcome and timing plus the tail latencies
+ * of the whole batch.
+ *
+ * Example:
+ *   new TenantReportScheduler(64, Duration.ofSeconds(30))
+ *       .run(tenants, EnumSet.allOf(Report.class)).p99()
+ */
+public final class TenantReportScheduler {
+
+    public enum Outcome { COMPLETED, TIMED_OUT, CANCELLED, FAILED }
+
+    /**
+     * One tenant's run. {@code results} is null unless the run completed and
+     * {@code failure} is set only for FAILED runs.
+     *
+     * @param queued  time spent waiting for a permit
+     * @param elapsed time spent computing; zero for a run cancelled before it
+     *                started
+     */
+    public record TenantRun(String tenant, Outcome outcome, ReportResults results, Duration queued,
+                            Duration elapsed, Throwable failure) {
+
+        /**
+         * Whether the run got a permit and computed, whatever its outcome.
+         */
+        public boolean started() {
+            return outcome != Outcome.CANCELLED || !elapsed.isZero();
+        }
+    }
+
+    /**
+     * Outcome of a batch, with nearest-rank percentiles of the computing
+     * times of the tenants that started; runs cancelled while waiting for a
+     * permit are left out, so they do not pull the tails down.
+     */
+    public record BatchSummary(List<TenantRun> runs, Duration wallTime, Duration p50, Duration p95,
+                               Duration p99, Duration max) {
+
+        public long count(Outcome outcome) {
+            return runs.stream().filter(r -> r.outcome() == outcome).count();
+        }
+    }
+
+    /**
+     * A batch in flight.
+     */
+    public static final class Batch {
+
+        private final List<Future<TenantRun>> runs = new ArrayList<>();
+        private final ExecutorService executor;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean cancelled;
+
+        private Batch(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Stops the batch: tenants still waiting are not started and running
+         * ones stop at their next cancellation check.
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Waits for every tenant to finish, time out or be cancelled.
+         */
+        public BatchSummary await() throws InterruptedException {
+            List<TenantRun> finished = new ArrayList<>(runs.size());
+            try {
+                for (Future<TenantRun> run : runs) {
+                    finished.add(run.get());
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tenant task failed outside its report run", e.getCause());
+            } finally {
+                executor.shutdown();
+            }
+            Duration wallTime = Duration.ofNanos(System.nanoTime() - startNanos);
+            long[] elapsed = finished.stream()
+                    .filter(TenantRun::started)
+                    .mapToLong(r -> r.elapsed().toNanos())
+                    .sorted()
+                    .toArray();
+            return new BatchSummary(List.copyOf(finished), wallTime, percentile(elapsed, 0.50),
+                    percentile(elapsed, 0.95), percentile(elapsed, 0.99), percentile(elapsed, 1.0));
+        }
+    }
+
+    private final int maxConcurrency;
+    private final Duration tenantDeadline;
+
+    /**
+     * @param maxConcurrency how many tenants may compute at the same time
+     * @param tenantDeadline time a tenant may compute before it is stopped
+     */
+    public TenantReportScheduler(int maxConcurrency, Duration tenantDeadline) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be > 0: " + maxConcurrency);
+        }
+        if (tenantDeadline.isNegative() || tenantDeadline.isZero()) {
+            throw new IllegalArgumentException("tenantDeadline must be positive: " + tenantDeadline);
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.tenantDeadline = tenantDeadline;
+    }
+
+    /**
+     * Runs the reports of every tenant and waits for the batch.
+     */
+    public BatchSummary run(Map<String, StreamHomework> tenants, Set<Report> reports) throws InterruptedException {
+        return submit(tenants, reports).await();
+    }
+
+    /**
+     * Starts the reports of every tenant and returns immediately; tenants are
+     * started in the map's iteration order.
+     */
+    public Batch submit(Map<String, StreamHomework> tenants, Set<Report> reports) {
+        Set<Report> requested = Set.copyOf(reports);
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        Batch batch = new Batch(Executors.newVirtualThreadPerTaskExecutor());
+        tenants.forEach((tenant, hw) -> {
+            long submitted = System.nanoTime();
+            batch.runs.add(batch.executor.submit(() -> runTenant(batch, permits, tenant, hw, requested, submitted)));
+        });
+        return batch;
+    }
+
+    private TenantRun runTenant(Batch batch, Semaphore permits, String tenant, StreamHomework hw,
+                                Set<Report> reports, long submitted) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TenantRun(tenant, Outcome.CANCELLED, null, since(submitted), Duration.ZERO, null);
+        }
+        long started = System.nanoTime();
+        Duration queued = Duration.ofNanos(started - submitted);
+        try {
+            if (batch.cancelled) {
+                return new TenantRun(tenant, Outcome.CANCELLED, null, queued, Duration.ZERO, null);
+            }
+            long deadline = started + tenantDeadline.toNanos();
+            BooleanSupplier expired = () -> System.nanoTime() - deadline > 0;
+            try {
+                ReportResults results = hw.withCancellation(() -> batch.cancelled || expired.getAsBoolean())
+                        .runReports(reports);
+                return new TenantRun(tenant, Outcome.COMPLETED, results, queued, since(started), null);
+            } catch (CancellationException e) {
+                // Thrown by the policy's cancellation check: the batch, the deadline or the tenant's own check
+                Outcome outcome = !batch.cancelled && expired.getAsBoolean() ? Outcome.TIMED_OUT : Outcome.CANCELLED;
+                return new TenantRun(tenant, outcome, null, queued, since(started), null);
+            } catch (RuntimeException e) {
+                return new TenantRun(tenant, Outcome.FAILED, null, queued, since(started), e);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static Duration since(long nanos) {
+        return Duration.ofNanos(System.nanoTime() - nanos);
+    }
+
+    private static Duration percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Duration.ZERO;
+        }
+        int rank = (int) Math.ceil(p * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(0, rank - 1)]);
+    }
+}
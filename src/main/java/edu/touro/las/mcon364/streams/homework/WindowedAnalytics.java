@@ -0,0 +1,303 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.collectors.ObjectLongMap;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.*;
+
+/**
+ * Tumbling and sliding window analytics over an unbounded feed of orders.
+ *
+ * Windows are measured in whole days, weeks (starting Monday) or months of
+ * the order date; orders carry no time of day, so there are no hourly
+ * windows. A window of {@code size} units starts every {@code slide} units;
+ * tumbling windows have size == slide. Orders are summed into panes of
+ * gcd(size, slide) units and a window's result merges its panes, so each
+ * order is added once however many windows overlap it.
+ *
+ * The watermark trails the latest order date by the allowed lateness. A
+ * window is emitted to the sink as soon as its end passes the watermark, and
+ * panes are evicted once every window containing them has been emitted, so
+ * memory is bounded by the window size plus the lateness. Orders that arrive
+ * after all their windows have been emitted are dropped and counted by
+ * {@link #lateOrders()}. {@link #flush()} emits whatever is still open at the
+ * end of a bounded feed. Windows without orders are not emitted.
+ *
+ * A bounded stream run through {@link #windows} holds every window open
+ * until the end, as if the lateness were unbounded, so it accepts orders in
+ * any date order and drops none.
+ *
+ * Not thread-safe: feed it from one consumer thread.
+ */
+public class WindowedAnalytics implements Consumer<CustomerOrder> {
+
+    /**
+     * Shape of the windows: their length and spacing in a calendar unit.
+     */
+    public record Spec(ChronoUnit unit, int size, int slide, int lateness) {
+        public Spec {
+            if (unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS && unit != ChronoUnit.MONTHS) {
+                throw new IllegalArgumentException("Windows are measured in DAYS, WEEKS or MONTHS: " + unit);
+            }
+            if (size <= 0 || slide <= 0 || slide > size || lateness < 0) {
+                throw new IllegalArgumentException("Need 0 < slide <= size and lateness >= 0: size=" + size
+                        + ", slide=" + slide + ", lateness=" + lateness);
+            }
+        }
+
+        public static Spec tumbling(ChronoUnit unit, int size) {
+            return new Spec(unit, size, size, 0);
+        }
+
+        public static Spec sliding(ChronoUnit unit, int size, int slide) {
+            return new Spec(unit, size, slide, 0);
+        }
+
+        /**
+         * The same windows, accepting orders up to the given number of units
+         * older than the latest one seen.
+         */
+        public Spec withLateness(int units) {
+            return new Spec(unit, size, slide, units);
+        }
+    }
+
+    /**
+     * Aggregates of one window: orders dated in [start, end).
+     */
+    public record Window(LocalDate start, LocalDate end, double revenue, Map<OrderStatus, Long> orderCounts,
+                         List<Product> topProducts) {
+
+        public long orderCount() {
+            return orderCounts.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long orderCount(OrderStatus status) {
+            return orderCounts.getOrDefault(status, 0L);
+        }
+    }
+
+    /**
+     * Sums of the orders in one pane.
+     */
+    private static final class Pane {
+        long revenue;                               // Money units, DELIVERED only
+        final long[] statusCounts = new long[OrderStatus.values().length];
+        final ObjectLongMap<Product> quantities = new ObjectLongMap<>();
+
+        void add(CustomerOrder order) {
+            statusCounts[order.status().ordinal()]++;
+            if (order.status() == OrderStatus.DELIVERED) {
+                revenue = Math.addExact(revenue, order.getTotalCents());
+            }
+            for (OrderItem item : order.items()) {
+                quantities.addTo(item.product(), item.quantity());
+            }
+        }
+    }
+
+    private static final Comparator<Map.Entry<Product, Long>> RANKING =
+            Map.Entry.<Product, Long>comparingByValue().reversed()
+                    .thenComparing(e -> e.getKey().id());
+
+    private static final LocalDate WEEK_ORIGIN = LocalDate.of(1969, 12, 29);
+
+    private final Spec spec;
+    private final int topN;
+    private final Consumer<Window> sink;
+    private final int paneUnits;
+
+    private final NavigableMap<Long, Pane> panes = new TreeMap<>();
+    private long nextWindow = Long.MIN_VALUE;
+    private long watermark = Long.MIN_VALUE;        // units; windows ending at or before it are closed
+    private long lateOrders;
+
+    /**
+     * @param topN number of best-selling products (by quantity) in each window
+     * @param sink receives each window as it closes, in start order
+     */
+    public WindowedAnalytics(Spec spec, int topN, Consumer<Window> sink) {
+        if (topN < 0) {
+            throw new IllegalArgumentException("topN must be >= 0: " + topN);
+        }
+        this.spec = spec;
+        this.topN = topN;
+        this.sink = sink;
+        paneUnits = gcd(spec.size(), spec.slide());
+    }
+
+    /**
+     * Runs a bounded stream of orders, in any date order, through the windows
+     * and returns every window, in start order. The spec's lateness is
+     * ignored: nothing is emitted before the stream ends, so no order is late.
+     */
+    public static List<Window> windows(Stream<CustomerOrder> orders, Spec spec, int topN) {
+        List<Window> windows = new ArrayList<>();
+        WindowedAnalytics analytics = new WindowedAnalytics(spec, topN, windows::add);
+        orders.forEachOrdered(analytics::add);
+        analytics.flush();
+        return windows;
+    }
+
+    // =========================================================================
+    // FEED
+    // =========================================================================
+
+    /**
+     * Adds one order and emits every window the advanced watermark closes.
+     */
+    @Override
+    public void accept(CustomerOrder order) {
+        if (!add(order)) {
+            return;
+        }
+        long mark = unitOf(order.orderDate()) - spec.lateness();
+        if (mark > watermark) {
+            watermark = mark;
+            emitThrough(watermark);
+        }
+    }
+
+    /**
+     * Adds one order to its pane without advancing the watermark; false if
+     * it was dropped as late.
+     */
+    private boolean add(CustomerOrder order) {
+        long pane = Math.floorDiv(unitOf(order.orderDate()), paneUnits);
+        if (lastWindow(pane) < nextWindow) {
+            lateOrders++;
+            return false;
+        }
+        panes.computeIfAbsent(pane, p -> new Pane()).add(order);
+        return true;
+    }
+
+    /**
+     * Emits every window that still holds orders, as at the end of the feed.
+     */
+    public void flush() {
+        emitThrough(Long.MAX_VALUE);
+    }
+
+    /**
+     * Orders dropped because all of their windows had already been emitted.
+     */
+    public long lateOrders() {
+        return lateOrders;
+    }
+
+    /**
+     * Number of panes currently held; bounded by the spec, not the feed.
+     */
+    public int openPanes() {
+        return panes.size();
+    }
+
+    private void emitThrough(long limit) {
+        while (!panes.isEmpty()) {
+            long firstOpen = Math.floorDiv(limit - spec.size(), spec.slide()) + 1;
+            nextWindow = Math.max(nextWindow, Math.min(firstWindow(panes.firstKey()), firstOpen));
+            long start = nextWindow * spec.slide();
+            long end = start + spec.size();
+            if (end > limit) {
+                return;
+            }
+            sink.accept(window(start, end));
+            nextWindow++;
+            while (!panes.isEmpty() && lastWindow(panes.firstKey()) < nextWindow) {
+                panes.pollFirstEntry();
+            }
+        }
+    }
+
+    private Window window(long start, long end) {
+        long revenue = 0;
+        long[] statusCounts = new long[OrderStatus.values().length];
+        ObjectLongMap<Product> quantities = new ObjectLongMap<>();
+        for (Pane pane : panes.subMap(start / paneUnits, end / paneUnits).values()) {
+            revenue = Math.addExact(revenue, pane.revenue);
+            for (int s = 0; s < statusCounts.length; s++) {
+                statusCounts[s] += pane.statusCounts[s];
+            }
+            quantities.addAll(pane.quantities);
+        }
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            if (statusCounts[status.ordinal()] > 0) {
+                counts.put(status, statusCounts[status.ordinal()]);
+            }
+        }
+        List<Product> top = quantities.asMap().entrySet().stream()
+                .sorted(RANKING)
+                .limit(topN)
+                .map(Map.Entry::getKey)
+                .toList();
+        return new Window(dateOf(start), dateOf(end), Money.toDouble(revenue), counts, top);
+    }
+
+    // =========================================================================
+    // UNITS
+    // =========================================================================
+
+    /**
+     * First window containing a pane: the window starting at or before the
+     * pane whose end reaches past it.
+     */
+    private long firstWindow(long pane) {
+        return Math.floorDiv((pane + 1) * paneUnits - spec.size() + spec.slide() - 1, spec.slide());
+    }
+
+    /**
+     * Last window containing a pane: the last one starting at or before it.
+     */
+    private long lastWindow(long pane) {
+        return Math.floorDiv(pane * paneUnits, spec.slide());
+    }
+
+    private long unitOf(LocalDate date) {
+        long unit = spec.unit().between(origin(), date);
+        // between() truncates toward zero; dates before the epoch round down
+        return dateOf(unit).isAfter(date) ? unit - 1 : unit;
+    }
+
+    private LocalDate dateOf(long unit) {
+        return origin().plus(unit, spec.unit());
+    }
+
+    /**
+     * Windows are aligned to 1970-01-01, or to the Monday before it for weeks.
+     */
+    private LocalDate origin() {
+        return spec.unit() == ChronoUnit.WEEKS ? WEEK_ORIGIN : LocalDate.EPOCH;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    // =========================================================================
+    // BATCH SPECIAL CASES
+    // =========================================================================
+
+    /**
+     * StreamHomework.getDailyOrderCounts() as one-day tumbling windows.
+     */
+    public static Map<LocalDate, Long> dailyOrderCounts(Stream<CustomerOrder> orders) {
+        return windows(orders, Spec.tumbling(ChronoUnit.DAYS, 1), 0).stream()
+                .collect(Collectors.toMap(Window::start, Window::orderCount, (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * StreamHomework.getMonthlyRevenue() as one-month tumbling windows.
+     */
+    public static Map<YearMonth, Double> monthlyRevenue(Stream<CustomerOrder> orders) {
+        return windows(orders, Spec.tumbling(ChronoUnit.MONTHS, 1), 0).stream()
+                .filter(w -> w.orderCount(OrderStatus.DELIVERED) > 0)
+                .collect(Collectors.toMap(w -> YearMonth.from(w.start()), Window::revenue,
+                        (a, b) -> a, TreeMap::new));
+    }
+}
@@ -0,0 +1,80 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+
+/**
+ * Zone map over the blocks of orders that {@link ExecutionPolicy#overBlocks}
+ * hands to kernels, {@value ExecutionPolicy#BLOCK_SIZE} orders each; the
+ * block number they pass along indexes it.
+ *
+ * For every block it keeps the set of status codes present, as a bit mask
+ * (four statuses fit in a byte), and the smallest and largest epoch day. A
+ * status or date filter first asks the map whether a block can match at
+ * all, skipping it unread when it cannot, and whether every row of it
+ * matches, answering from the block size alone. Orders are usually loaded
+ * roughly in date order, so date filters prune most blocks.
+ *
+ * Built once, in O(orders), and immutable afterwards.
+ */
+final class ZoneMap {
+
+    private final byte[] statuses;      // bit s set if status code s occurs in the block
+    private final long[] minDay;
+    private final long[] maxDay;
+
+    ZoneMap(OrderSource orders) {
+        int rows = orders.orderCount();
+        int blocks = ExecutionPolicy.blockCount(rows);
+        statuses = new byte[blocks];
+        minDay = new long[blocks];
+        maxDay = new long[blocks];
+        for (int b = 0; b < blocks; b++) {
+            int from = b * ExecutionPolicy.BLOCK_SIZE;
+            int to = Math.min(rows, from + ExecutionPolicy.BLOCK_SIZE);
+            int mask = 0;
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                long day = orders.epochDay(i);
+                mask |= 1 << orders.statusCode(i);
+                min = Math.min(min, day);
+                max = Math.max(max, day);
+            }
+            statuses[b] = (byte) mask;
+            minDay[b] = min;
+            maxDay[b] = max;
+        }
+    }
+
+    int blocks() {
+        return statuses.length;
+    }
+
+    /**
+     * Whether some row of the block may have the status.
+     */
+    boolean mayHave(int block, byte status) {
+        return (statuses[block] & 1 << status) != 0;
+    }
+
+    /**
+     * Whether every row of the block has the status.
+     */
+    boolean allHave(int block, byte status) {
+        return statuses[block] == 1 << status;
+    }
+
+    /**
+     * Whether some row of the block may fall between two days (inclusive).
+     */
+    boolean mayOverlap(int block, long fromDay, long toDay) {
+        return minDay[block] <= toDay && maxDay[block] >= fromDay;
+    }
+
+    /**
+     * Whether every row of the block falls between two days (inclusive).
+     */
+    boolean within(int block, long fromDay, long toDay) {
+        return minDay[block] >= fromDay && maxDay[block] <= toDay;
+    }
+}
@@ -0,0 +1,94 @@
+package edu.touro.las.mcon364.streams.kernels;
+
+import java.util.*;
+
+/**
+ * Array kernels for the inner loops of columnar queries.
+ *
+ * Every kernel reads a half-open row range {@code [from, to)} of primitive
+ * columns, so a query can hand it one block at a time, e.g. through
+ * {@code ExecutionPolicy.overBlocks}. Rows can be filtered by a byte code
+ * column, such as an order status ordinal.
+ *
+ * Two implementations give identical results:
+ * - {@link #scalar()}: plain loops
+ * - {@link #vector()}: SIMD loops on the incubating Vector API, available
+ *   only when the JVM runs with {@code --add-modules jdk.incubator.vector}
+ *
+ * Sums are exact: both throw {@link ArithmeticException} where the scalar
+ * loop, adding in row order with {@link Math#addExact}, would overflow. The
+ * vector kernels add with wraparound, so they first bound the inputs of the
+ * range and hand any range whose sum could overflow to the scalar kernels.
+ *
+ * Implementations are stateless and thread-safe.
+ */
+public interface Kernels {
+
+    /**
+     * System property that forces {@link #best()} to the scalar kernels
+     * when set to {@code scalar}.
+     */
+    String PROPERTY = "streams.kernels";
+
+    static Kernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if the Vector API module is not
+     *                                       in the boot layer
+     */
+    static Kernels vector() {
+        if (!vectorAvailable()) {
+            throw new UnsupportedOperationException("Run with --add-modules jdk.incubator.vector");
+        }
+        return VectorKernels.INSTANCE;
+    }
+
+    static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * The vector kernels when available and not disabled with
+     * {@code -Dstreams.kernels=scalar}, else the scalar ones.
+     */
+    static Kernels best() {
+        return vectorAvailable() && !"scalar".equals(System.getProperty(PROPERTY)) ? vector() : scalar();
+    }
+
+    /**
+     * Sum of {@code prices[i] × quantities[i]}.
+     */
+    long sumProduct(long[] prices, int[] quantities, int from, int to);
+
+    /**
+     * Sum of {@code prices[i] × quantities[i]} over rows whose code equals
+     * {@code code}.
+     */
+    long sumProduct(long[] prices, int[] quantities, byte[] codes, byte code, int from, int to);
+
+    /**
+     * Sum of the values of rows whose code equals {@code code}.
+     */
+    long sum(long[] values, byte[] codes, byte code, int from, int to);
+
+    /**
+     * Number of rows whose code equals {@code code}.
+     */
+    long count(byte[] codes, byte code, int from, int to);
+
+    /**
+     * Count, exact sum, min and max of the values of rows whose code equals
+     * {@code code}.
+     */
+    LongSummaryStatistics summary(long[] values, byte[] codes, byte code, int from, int to);
+
+    /**
+     * Adds each value to {@code sums[groups[i]]}. Groups must be
+     * non-decreasing over the range, i.e. rows come in runs of one group, as
+     * day slots do within a month. If a sum overflows, the contents of
+     * {@code sums} are unspecified.
+     */
+    void runSums(int[] groups, long[] values, int from, int to, long[] sums);
+}
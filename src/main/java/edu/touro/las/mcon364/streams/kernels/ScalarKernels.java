@@ -0,0 +1,87 @@
+package edu.touro.las.mcon364.streams.kernels;
+
+import java.util.*;
+
+/**
+ * Reference kernels: one row at a time, in row order, overflow-checked.
+ */
+final class ScalarKernels implements Kernels {
+
+    static final ScalarKernels INSTANCE = new ScalarKernels();
+
+    private ScalarKernels() {
+    }
+
+    @Override
+    public long sumProduct(long[] prices, int[] quantities, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(prices.length, quantities.length));
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            sum = Math.addExact(sum, Math.multiplyExact(prices[i], quantities[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public long sumProduct(long[] prices, int[] quantities, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(Math.min(prices.length, quantities.length), codes.length));
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            if (codes[i] == code) {
+                sum = Math.addExact(sum, Math.multiplyExact(prices[i], quantities[i]));
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long sum(long[] values, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(values.length, codes.length));
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            if (codes[i] == code) {
+                sum = Math.addExact(sum, values[i]);
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long count(byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, codes.length);
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            if (codes[i] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public LongSummaryStatistics summary(long[] values, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(values.length, codes.length));
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            if (codes[i] == code) {
+                long value = values[i];
+                count++;
+                sum = Math.addExact(sum, value);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        return new LongSummaryStatistics(count, min, max, sum);
+    }
+
+    @Override
+    public void runSums(int[] groups, long[] values, int from, int to, long[] sums) {
+        Objects.checkFromToIndex(from, to, Math.min(groups.length, values.length));
+        for (int i = from; i < to; i++) {
+            sums[groups[i]] = Math.addExact(sums[groups[i]], values[i]);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package edu.touro.las.mcon364.streams.kernels;
+
+import jdk.incubator.vector.*;
+
+import java.util.*;
+
+/**
+ * SIMD kernels on the Vector API.
+ *
+ * Each step of the masked loops covers {@value #STEP} rows: one 256-bit
+ * vector of int quantities and one 64-bit vector of byte codes, widened part
+ * by part to the long vectors of the preferred shape (2, 4 or 8 lanes).
+ * Matching rows are selected with lane masks rather than branches.
+ *
+ * Alongside its sums each kernel tracks the smallest and largest input of
+ * the range. The wrapped vector sum is returned only when
+ * {@code rows × max|input|} fits in a long, in which case no partial sum in
+ * any order can overflow; otherwise the scalar kernel recomputes the range.
+ */
+final class VectorKernels implements Kernels {
+
+    static final VectorKernels INSTANCE = new VectorKernels();
+
+    private static final int STEP = 8;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED.length() <= STEP
+            ? LongVector.SPECIES_PREFERRED
+            : LongVector.SPECIES_512;
+    private static final int LANES = LONGS.length();
+    private static final int PARTS = STEP / LANES;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_256;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_64;
+    private static final VectorSpecies<Byte> CODES = ByteVector.SPECIES_PREFERRED;
+    private static final Kernels SCALAR = ScalarKernels.INSTANCE;
+
+    private VectorKernels() {
+    }
+
+    @Override
+    public long sumProduct(long[] prices, int[] quantities, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(prices.length, quantities.length));
+        LongVector sum = LongVector.zero(LONGS);
+        LongVector lo = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector hi = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        IntVector qLo = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector qHi = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        int i = from;
+        for (int last = to - STEP; i <= last; i += STEP) {
+            IntVector q = IntVector.fromArray(INTS, quantities, i);
+            qLo = qLo.min(q);
+            qHi = qHi.max(q);
+            for (int p = 0; p < PARTS; p++) {
+                LongVector price = LongVector.fromArray(LONGS, prices, i + p * LANES);
+                lo = lo.min(price);
+                hi = hi.max(price);
+                sum = sum.add(price.mul(widen(q, p)));
+            }
+        }
+        long total = sum.reduceLanes(VectorOperators.ADD);
+        long min = lo.reduceLanes(VectorOperators.MIN);
+        long max = hi.reduceLanes(VectorOperators.MAX);
+        long qMin = qLo.reduceLanes(VectorOperators.MIN);
+        long qMax = qHi.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            total += prices[i] * quantities[i];
+            min = Math.min(min, prices[i]);
+            max = Math.max(max, prices[i]);
+            qMin = Math.min(qMin, quantities[i]);
+            qMax = Math.max(qMax, quantities[i]);
+        }
+        return fits(min, max, Math.max(Math.abs(qMin), Math.abs(qMax)), to - from)
+                ? total
+                : SCALAR.sumProduct(prices, quantities, from, to);
+    }
+
+    @Override
+    public long sumProduct(long[] prices, int[] quantities, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(Math.min(prices.length, quantities.length), codes.length));
+        LongVector sum = LongVector.zero(LONGS);
+        LongVector lo = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector hi = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        IntVector qLo = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector qHi = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        int i = from;
+        for (int last = to - STEP; i <= last; i += STEP) {
+            IntVector q = IntVector.fromArray(INTS, quantities, i);
+            ByteVector c = ByteVector.fromArray(BYTES, codes, i);
+            qLo = qLo.min(q);
+            qHi = qHi.max(q);
+            for (int p = 0; p < PARTS; p++) {
+                LongVector price = LongVector.fromArray(LONGS, prices, i + p * LANES);
+                lo = lo.min(price);
+                hi = hi.max(price);
+                sum = sum.add(price.mul(widen(q, p)), widen(c, p).eq(code));
+            }
+        }
+        long total = sum.reduceLanes(VectorOperators.ADD);
+        long min = lo.reduceLanes(VectorOperators.MIN);
+        long max = hi.reduceLanes(VectorOperators.MAX);
+        long qMin = qLo.reduceLanes(VectorOperators.MIN);
+        long qMax = qHi.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            if (codes[i] == code) {
+                total += prices[i] * quantities[i];
+            }
+            min = Math.min(min, prices[i]);
+            max = Math.max(max, prices[i]);
+            qMin = Math.min(qMin, quantities[i]);
+            qMax = Math.max(qMax, quantities[i]);
+        }
+        return fits(min, max, Math.max(Math.abs(qMin), Math.abs(qMax)), to - from)
+                ? total
+                : SCALAR.sumProduct(prices, quantities, codes, code, from, to);
+    }
+
+    @Override
+    public long sum(long[] values, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(values.length, codes.length));
+        LongVector sum = LongVector.zero(LONGS);
+        LongVector lo = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector hi = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = from;
+        for (int last = to - STEP; i <= last; i += STEP) {
+            ByteVector c = ByteVector.fromArray(BYTES, codes, i);
+            for (int p = 0; p < PARTS; p++) {
+                LongVector value = LongVector.fromArray(LONGS, values, i + p * LANES);
+                lo = lo.min(value);
+                hi = hi.max(value);
+                sum = sum.add(value, widen(c, p).eq(code));
+            }
+        }
+        long total = sum.reduceLanes(VectorOperators.ADD);
+        long min = lo.reduceLanes(VectorOperators.MIN);
+        long max = hi.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            if (codes[i] == code) {
+                total += values[i];
+            }
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        return fits(min, max, 1, to - from) ? total : SCALAR.sum(values, codes, code, from, to);
+    }
+
+    @Override
+    public long count(byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, codes.length);
+        long count = 0;
+        int i = from;
+        for (int last = to - CODES.length(); i <= last; i += CODES.length()) {
+            count += ByteVector.fromArray(CODES, codes, i).eq(code).trueCount();
+        }
+        for (; i < to; i++) {
+            if (codes[i] == code) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public LongSummaryStatistics summary(long[] values, byte[] codes, byte code, int from, int to) {
+        Objects.checkFromToIndex(from, to, Math.min(values.length, codes.length));
+        LongVector sum = LongVector.zero(LONGS);
+        LongVector lo = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector hi = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        LongVector matchedLo = lo;
+        LongVector matchedHi = hi;
+        long count = 0;
+        int i = from;
+        for (int last = to - STEP; i <= last; i += STEP) {
+            ByteVector c = ByteVector.fromArray(BYTES, codes, i);
+            for (int p = 0; p < PARTS; p++) {
+                LongVector value = LongVector.fromArray(LONGS, values, i + p * LANES);
+                VectorMask<Long> matched = widen(c, p).eq(code);
+                count += matched.trueCount();
+                sum = sum.add(value, matched);
+                matchedLo = matchedLo.lanewise(VectorOperators.MIN, value, matched);
+                matchedHi = matchedHi.lanewise(VectorOperators.MAX, value, matched);
+                lo = lo.min(value);
+                hi = hi.max(value);
+            }
+        }
+        long total = sum.reduceLanes(VectorOperators.ADD);
+        long min = lo.reduceLanes(VectorOperators.MIN);
+        long max = hi.reduceLanes(VectorOperators.MAX);
+        long matchedMin = matchedLo.reduceLanes(VectorOperators.MIN);
+        long matchedMax = matchedHi.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            long value = values[i];
+            if (codes[i] == code) {
+                count++;
+                total += value;
+                matchedMin = Math.min(matchedMin, value);
+                matchedMax = Math.max(matchedMax, value);
+            }
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        return fits(min, max, 1, to - from)
+                ? new LongSummaryStatistics(count, matchedMin, matchedMax, total)
+                : SCALAR.summary(values, codes, code, from, to);
+    }
+
+    /**
+     * Rows of one group arrive in runs, so a vector whose first and last
+     * lanes share a group lies entirely in that group and is added to the
+     * running vector of the current run; only vectors straddling a group
+     * boundary are split into lanes. Requires non-negative values, so the
+     * running sums only grow and overflow exactly where the scalar kernel's
+     * would.
+     */
+    @Override
+    public void runSums(int[] groups, long[] values, int from, int to, long[] sums) {
+        Objects.checkFromToIndex(from, to, Math.min(groups.length, values.length));
+        LongVector lo = LongVector.broadcast(LONGS, Long.MAX_VALUE);
+        LongVector hi = LongVector.broadcast(LONGS, Long.MIN_VALUE);
+        int i = from;
+        for (int last = to - LANES; i <= last; i += LANES) {
+            LongVector value = LongVector.fromArray(LONGS, values, i);
+            lo = lo.min(value);
+            hi = hi.max(value);
+        }
+        long min = lo.reduceLanes(VectorOperators.MIN);
+        long max = hi.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        if (min < 0 || !fits(min, max, 1, to - from)) {
+            SCALAR.runSums(groups, values, from, to, sums);
+            return;
+        }
+
+        int group = -1;
+        LongVector run = LongVector.zero(LONGS);
+        i = from;
+        for (int last = to - LANES; i <= last; i += LANES) {
+            LongVector value = LongVector.fromArray(LONGS, values, i);
+            int first = groups[i];
+            if (first == groups[i + LANES - 1]) {
+                if (first == group) {
+                    run = run.add(value);
+                } else {
+                    flush(group, run, sums);
+                    group = first;
+                    run = value;
+                }
+            } else {
+                for (int j = i; j < i + LANES; j++) {
+                    sums[groups[j]] = Math.addExact(sums[groups[j]], values[j]);
+                }
+            }
+        }
+        flush(group, run, sums);
+        for (; i < to; i++) {
+            sums[groups[i]] = Math.addExact(sums[groups[i]], values[i]);
+        }
+    }
+
+    private static void flush(int group, LongVector run, long[] sums) {
+        if (group >= 0) {
+            sums[group] = Math.addExact(sums[group], run.reduceLanes(VectorOperators.ADD));
+        }
+    }
+
+    private static LongVector widen(IntVector quantities, int part) {
+        return (LongVector) quantities.convertShape(VectorOperators.I2L, LONGS, part);
+    }
+
+    private static LongVector widen(ByteVector codes, int part) {
+        return (LongVector) codes.convertShape(VectorOperators.B2L, LONGS, part);
+    }
+
+    /**
+     * Whether {@code rows × max(|min|, |max|) × factor} fits in a long, so
+     * that no sum of the range can overflow. False for an empty range.
+     */
+    private static boolean fits(long min, long max, long factor, long rows) {
+        try {
+            long bound = Math.max(Math.absExact(min), Math.absExact(max));
+            Math.multiplyExact(Math.multiplyExact(bound, factor), rows);
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram.
+ *
+ * Values below 64 get a bucket each; above that every power-of-two range is
+ * split into 64 equal buckets, so any recorded value is reported within
+ * 1/64 (1.6%) of its true value. Values up to 2^44 ns (about 4.9 hours) are
+ * distinguished; larger ones land in the last bucket. Recording is a few
+ * lock-free atomic increments, safe from any number of threads; a snapshot
+ * taken while threads record may miss their in-flight values but is
+ * otherwise consistent. Its mean comes from a count and sum read together
+ * before the buckets, kept within the snapshot's min and max.
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Summary of the recorded values, all in the recorded unit (normally
+     * nanoseconds).
+     */
+    public record Snapshot(long count, long min, long max, double mean, long p50, long p90, long p99, long p999) {}
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 44;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records one value; negative values count as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(bucket(v));
+        // Sum before total: a reader of total, then sum, sees every counted value's sum
+        sum.addAndGet(v);
+        total.incrementAndGet();
+        min.accumulateAndGet(v, Math::min);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Smallest value v such that at least the given fraction of recorded
+     * values are <= v, to within the bucket resolution; 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("percentile must be in [0, 100]: " + percentile);
+        }
+        long[] snapshot = copyCounts();
+        return valueAt(snapshot, countOf(snapshot), percentile);
+    }
+
+    public Snapshot snapshot() {
+        long summed = total.get();
+        long valueSum = sum.get();
+        long[] snapshot = copyCounts();
+        long recorded = countOf(snapshot);
+        if (recorded == 0) {
+            return new Snapshot(0, 0, 0, 0.0, 0, 0, 0, 0);
+        }
+        long lowest = min.get();
+        long highest = max.get();
+        // Nothing summed yet (first records or a reset in flight): estimate from the buckets
+        double mean = summed > 0 ? (double) valueSum / summed : bucketMean(snapshot, recorded);
+        if (lowest <= highest) {
+            mean = Math.max(lowest, Math.min(highest, mean));
+        }
+        return new Snapshot(recorded, lowest, highest, mean,
+                clamp(valueAt(snapshot, recorded, 50), lowest, highest),
+                clamp(valueAt(snapshot, recorded, 90), lowest, highest),
+                clamp(valueAt(snapshot, recorded, 99), lowest, highest),
+                clamp(valueAt(snapshot, recorded, 99.9), lowest, highest));
+    }
+
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts.set(b, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    private long[] copyCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int b = 0; b < BUCKETS; b++) {
+            snapshot[b] = counts.get(b);
+        }
+        return snapshot;
+    }
+
+    private static long countOf(long[] snapshot) {
+        long recorded = 0;
+        for (long count : snapshot) {
+            recorded += count;
+        }
+        return recorded;
+    }
+
+    private static double bucketMean(long[] snapshot, long recorded) {
+        double weighted = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            weighted += (double) snapshot[b] * highestValue(b);
+        }
+        return weighted / recorded;
+    }
+
+    private static long valueAt(long[] snapshot, long recorded, double percentile) {
+        if (recorded == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += snapshot[b];
+            if (seen >= target) {
+                return highestValue(b);
+            }
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    private static long clamp(long value, long lowest, long highest) {
+        return Math.max(lowest, Math.min(highest, value));
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Largest value that maps to a bucket.
+     */
+    static long highestValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
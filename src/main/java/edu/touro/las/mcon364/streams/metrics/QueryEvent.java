@@ -0,0 +1,41 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event for one query call, committed by
+ * {@link QueryMetrics#measure}. Its duration is the query's latency.
+ *
+ * Enable with e.g.
+ * {@code java -XX:StartFlightRecording:filename=queries.jfr ...} and inspect
+ * with {@code jfr print --events edu.touro.las.mcon364.streams.Query queries.jfr}.
+ */
+@Name("edu.touro.las.mcon364.streams.Query")
+@Label("Stream Query")
+@Category("Streams")
+@Description("One analytics query call")
+@StackTrace(false)
+final class QueryEvent extends Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Rows Scanned")
+    long rowsScanned;
+
+    @Label("Rows Emitted")
+    long rowsEmitted;
+
+    @Label("Blocks Scanned")
+    long blocksScanned;
+
+    @Label("Blocks Skipped")
+    long blocksSkipped;
+
+    @Label("Allocated Bytes")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,181 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Supplier;
+
+/**
+ * In-process metrics for analytics queries.
+ *
+ * {@link #measure} wraps one query call and records, under the query's name:
+ * - latency, in a lock-free {@link LatencyHistogram} (nanoseconds)
+ * - rows scanned: the sizes of the inputs the query streamed through an
+ *   ExecutionPolicy, reported by {@link #scanned(long)}
+ * - blocks scanned and skipped: how many row blocks a block-wise query
+ *   visited and how many it pruned, by zone map or early termination,
+ *   reported by {@link #blocks(long, long)}
+ * - rows emitted: the size of the returned collection or map, else 1
+ * - bytes allocated by the calling thread (worker threads of parallel
+ *   queries are not included; 0 where the JVM cannot measure it, e.g. on
+ *   virtual threads)
+ * and commits a {@link QueryEvent} to Flight Recorder when recording is on.
+ *
+ * Queries that call other measured queries are recorded under both names;
+ * the inner query's rows and blocks also count toward the outer one.
+ * {@link #snapshot()} exposes everything without an external metrics
+ * service. Safe to share between threads.
+ */
+public final class QueryMetrics {
+
+    /**
+     * Totals for one query name.
+     */
+    public record QueryStats(String query, long calls, long failures, long rowsScanned, long rowsEmitted,
+                             long blocksScanned, long blocksSkipped, long allocatedBytes,
+                             LatencyHistogram.Snapshot latency) {}
+
+    private static final class Recorder {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final LongAdder rowsScanned = new LongAdder();
+        final LongAdder rowsEmitted = new LongAdder();
+        final LongAdder blocksScanned = new LongAdder();
+        final LongAdder blocksSkipped = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+    }
+
+    /**
+     * The measured call in progress on a thread.
+     */
+    private static final class Span {
+        final Span parent;
+        long rowsScanned;
+        long blocksScanned;
+        long blocksSkipped;
+
+        Span(Span parent) {
+            this.parent = parent;
+        }
+    }
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                    && bean.isThreadAllocatedMemorySupported() ? bean : null;
+
+    private final ConcurrentMap<String, Recorder> recorders = new ConcurrentHashMap<>();
+
+    /**
+     * Reports that the current query streamed over {@code rows} input rows.
+     * Called by ExecutionPolicy; a no-op outside a measured call.
+     */
+    public static void scanned(long rows) {
+        Span span = CURRENT.get();
+        if (span != null) {
+            span.rowsScanned += rows;
+        }
+    }
+
+    /**
+     * Reports that the current query visited {@code scanned} row blocks and
+     * skipped {@code skipped} others. Called by ExecutionPolicy; a no-op
+     * outside a measured call.
+     */
+    public static void blocks(long scanned, long skipped) {
+        Span span = CURRENT.get();
+        if (span != null) {
+            span.blocksScanned += scanned;
+            span.blocksSkipped += skipped;
+        }
+    }
+
+    /**
+     * Runs one query call and records its metrics under the given name.
+     */
+    public <R> R measure(String query, Supplier<R> call) {
+        Recorder recorder = recorders.computeIfAbsent(query, q -> new Recorder());
+        Span parent = CURRENT.get();
+        Span span = new Span(parent);
+        CURRENT.set(span);
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        boolean failed = true;
+        R result = null;
+        try {
+            result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long allocated = Math.max(0, allocatedBytes() - allocatedBefore);
+            CURRENT.set(parent);
+            if (parent != null) {
+                parent.rowsScanned += span.rowsScanned;
+                parent.blocksScanned += span.blocksScanned;
+                parent.blocksSkipped += span.blocksSkipped;
+            }
+            long emitted = failed ? 0 : rowsIn(result);
+            recorder.latency.record(elapsed);
+            recorder.rowsScanned.add(span.rowsScanned);
+            recorder.rowsEmitted.add(emitted);
+            recorder.blocksScanned.add(span.blocksScanned);
+            recorder.blocksSkipped.add(span.blocksSkipped);
+            recorder.allocatedBytes.add(allocated);
+            if (failed) {
+                recorder.failures.increment();
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.query = query;
+                event.rowsScanned = span.rowsScanned;
+                event.rowsEmitted = emitted;
+                event.blocksScanned = span.blocksScanned;
+                event.blocksSkipped = span.blocksSkipped;
+                event.allocatedBytes = allocated;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Current totals of every query measured so far, by name.
+     */
+    public SortedMap<String, QueryStats> snapshot() {
+        SortedMap<String, QueryStats> snapshot = new TreeMap<>();
+        recorders.forEach((query, recorder) -> snapshot.put(query, stats(query, recorder)));
+        return Collections.unmodifiableSortedMap(snapshot);
+    }
+
+    public Optional<QueryStats> stats(String query) {
+        return Optional.ofNullable(recorders.get(query)).map(recorder -> stats(query, recorder));
+    }
+
+    public void reset() {
+        recorders.clear();
+    }
+
+    private static QueryStats stats(String query, Recorder recorder) {
+        LatencyHistogram.Snapshot latency = recorder.latency.snapshot();
+        return new QueryStats(query, latency.count(), recorder.failures.sum(), recorder.rowsScanned.sum(),
+                recorder.rowsEmitted.sum(), recorder.blocksScanned.sum(), recorder.blocksSkipped.sum(),
+                recorder.allocatedBytes.sum(), latency);
+    }
+
+    private static long rowsIn(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            default -> 1;
+        };
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : Math.max(0, THREADS.getCurrentThreadAllocatedBytes());
+    }
+}
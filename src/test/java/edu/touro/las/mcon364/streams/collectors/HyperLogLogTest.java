@@ -0,0 +1,81 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for HyperLogLog.
+ *
+ * Run with: mvn test -Dtest=HyperLogLogTest
+ */
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Small cardinalities are nearly exact")
+    void testSmall() {
+        assertEquals(0, new HyperLogLog().estimate());
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 10; i++) {
+            sketch.offer("C" + i);
+            sketch.offer("C" + i);
+        }
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    @DisplayName("Large cardinalities stay within a few standard errors")
+    void testLarge() {
+        for (int precision : new int[] {10, 14}) {
+            HyperLogLog sketch = new HyperLogLog(precision);
+            int distinct = 500_000;
+            for (int i = 0; i < distinct; i++) {
+                sketch.offer(i);
+            }
+            double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+            assertTrue(error < 4 * sketch.standardError(), "error " + error + " at precision " + precision);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel collection matches a sequential sketch exactly")
+    void testMerge() {
+        Random random = new Random(3);
+        List<String> ids = random.ints(200_000, 0, 50_000).mapToObj(i -> "id" + i).toList();
+        long sequential = ids.stream().collect(HyperLogLog.distinct(12, id -> id));
+        assertEquals(sequential, (long) ids.parallelStream().collect(HyperLogLog.distinct(12, id -> id)));
+        HyperLogLog left = new HyperLogLog(12);
+        HyperLogLog right = new HyperLogLog(12);
+        ids.subList(0, 1000).forEach(left::offer);
+        ids.subList(1000, ids.size()).forEach(right::offer);
+        assertEquals(sequential, left.merge(right).estimate());
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    @DisplayName("Strings are hashed over 64 bits, so equal String.hashCode values still count")
+    void testStringHashCollisions() {
+        // 2^12 strings of "Aa"/"BB" blocks, all with the same String.hashCode()
+        List<String> colliding = IntStream.range(0, 1 << 12)
+                .mapToObj(bits -> IntStream.range(0, 12)
+                        .mapToObj(i -> (bits >> i & 1) == 0 ? "Aa" : "BB")
+                        .collect(Collectors.joining()))
+                .toList();
+        assertEquals(1, colliding.stream().map(String::hashCode).distinct().count());
+        HyperLogLog sketch = new HyperLogLog();
+        colliding.forEach(sketch::offer);
+        assertEquals(colliding.size(), sketch.estimate(), colliding.size() * 3 * sketch.standardError());
+        assertEquals(HyperLogLog.hash("P001"), HyperLogLog.hash(new StringBuilder("P001")));
+    }
+
+    @Test
+    @DisplayName("An error bound picks a large enough precision")
+    void testWithError() {
+        assertEquals(14, HyperLogLog.withError(0.01).precision());
+        assertTrue(HyperLogLog.withError(0.01).standardError() <= 0.01);
+        assertEquals(HyperLogLog.MIN_PRECISION, HyperLogLog.withError(0.9).precision());
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    }
+}
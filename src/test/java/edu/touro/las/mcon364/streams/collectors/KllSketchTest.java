@@ -0,0 +1,71 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for KllSketch.
+ *
+ * Run with: mvn test -Dtest=KllSketchTest
+ */
+class KllSketchTest {
+
+    private static void assertRankError(double[] sorted, KllSketch sketch) {
+        for (double q = 0.05; q < 1; q += 0.05) {
+            double value = sketch.quantile(q);
+            int rank = Arrays.binarySearch(sorted, value);
+            double actual = (double) rank / sorted.length;
+            assertEquals(q, actual, 2 * sketch.rankError(), "quantile " + q);
+        }
+    }
+
+    @Test
+    @DisplayName("Short streams are kept exactly")
+    void testExact() {
+        KllSketch sketch = new KllSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        IntStream.rangeClosed(1, 99).forEach(sketch::add);
+        assertEquals(50.0, sketch.quantile(0.5));
+        assertEquals(1.0, sketch.quantile(0));
+        assertEquals(99.0, sketch.quantile(1));
+        assertEquals(99, sketch.retained());
+    }
+
+    @Test
+    @DisplayName("Quantiles of a long stream stay within the rank error in bounded memory")
+    void testAccuracy() {
+        Random random = new Random(4);
+        double[] values = random.doubles(1_000_000).map(x -> Math.round(x * 1e9) / 100.0).distinct().toArray();
+        KllSketch sketch = KllSketch.of(Arrays.stream(values), KllSketch.DEFAULT_K);
+        Arrays.sort(values);
+        assertEquals(values.length, sketch.count());
+        assertEquals(values[0], sketch.min());
+        assertEquals(values[values.length - 1], sketch.max());
+        assertTrue(sketch.retained() < 4 * sketch.k(), "retained " + sketch.retained());
+        assertRankError(values, sketch);
+        assertEquals(0.5, sketch.rank(sketch.quantile(0.5)), 2 * sketch.rankError());
+    }
+
+    @Test
+    @DisplayName("Parallel collection merges into an equally accurate sketch")
+    void testMerge() {
+        double[] values = new Random(5).doubles(500_000).distinct().toArray();
+        KllSketch sketch = Arrays.stream(values).boxed().parallel().collect(KllSketch.of(100, Double::doubleValue));
+        Arrays.sort(values);
+        assertEquals(values.length, sketch.count());
+        assertRankError(values, sketch);
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(100).merge(new KllSketch(200)));
+    }
+
+    @Test
+    @DisplayName("An error bound picks a large enough k")
+    void testWithError() {
+        KllSketch sketch = KllSketch.withError(0.01);
+        assertTrue(sketch.rankError() <= 0.01);
+        assertTrue(KllSketch.withError(0.02).k() < sketch.k());
+        assertThrows(IllegalArgumentException.class, () -> new KllSketch(2));
+    }
+}
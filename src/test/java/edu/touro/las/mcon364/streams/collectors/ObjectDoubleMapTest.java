@@ -0,0 +1,60 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for ObjectDoubleMap.
+ *
+ * Run with: mvn test -Dtest=ObjectDoubleMapTest
+ */
+class ObjectDoubleMapTest {
+
+    @Test
+    @DisplayName("Sums match groupingBy, in insertion order, through growth")
+    void testSumming() {
+        Random random = new Random(1);
+        List<Integer> keys = random.ints(100_000, 0, 5_000).boxed().toList();
+        Map<String, Double> expected = keys.stream()
+                .collect(Collectors.groupingBy(k -> "K" + k, LinkedHashMap::new, Collectors.summingDouble(k -> k / 2.0)));
+        ObjectDoubleMap<String> actual = keys.stream()
+                .collect(ObjectDoubleMap.summing(k -> "K" + k, k -> k / 2.0));
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual.asMap());
+        assertEquals(List.copyOf(expected.keySet()), List.copyOf(actual.asMap().keySet()));
+    }
+
+    @Test
+    @DisplayName("Parallel collection gives the same sums")
+    void testParallel() {
+        Map<Integer, Double> sequential = IntStream.range(0, 200_000).boxed()
+                .collect(ObjectDoubleMap.summing(i -> i % 1000, i -> 1.0)).asMap();
+        Map<Integer, Double> parallel = IntStream.range(0, 200_000).boxed().parallel()
+                .collect(ObjectDoubleMap.summing(i -> i % 1000, i -> 1.0)).asMap();
+        assertEquals(sequential, parallel);
+        assertEquals(200.0, parallel.get(7));
+    }
+
+    @Test
+    @DisplayName("Point operations and the read-only view")
+    void testOperations() {
+        ObjectDoubleMap<String> map = new ObjectDoubleMap<>(1);
+        map.put("a", 1.5);
+        assertEquals(4.0, map.addTo("a", 2.5));
+        assertEquals(-1.0, map.addTo("b", -1.0));
+        map.put("a", 0.0);
+        assertTrue(map.containsKey("a"));
+        assertFalse(map.containsKey("c"));
+        assertEquals(9.0, map.getOrDefault("c", 9.0));
+
+        Map<String, Double> view = map.asMap();
+        assertEquals(Map.of("a", 0.0, "b", -1.0), view);
+        assertNull(view.get("c"));
+        assertNull(view.get(null));
+        assertThrows(UnsupportedOperationException.class, () -> view.put("c", 1.0));
+        assertThrows(NullPointerException.class, () -> map.addTo(null, 1.0));
+    }
+}
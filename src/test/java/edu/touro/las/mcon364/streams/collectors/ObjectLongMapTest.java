@@ -0,0 +1,39 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.*;
+
+/**
+ * Unit tests for ObjectLongMap.
+ *
+ * Run with: mvn test -Dtest=ObjectLongMapTest
+ */
+class ObjectLongMapTest {
+
+    @Test
+    @DisplayName("Counts match groupingBy, sequentially and in parallel")
+    void testCounting() {
+        Random random = new Random(2);
+        List<String> words = random.ints(100_000, 0, 3_000).mapToObj(i -> "w" + i).toList();
+        Map<String, Long> expected = words.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        assertEquals(expected, words.stream().collect(ObjectLongMap.summing(w -> w, w -> 1L)).asMap());
+        assertEquals(expected, words.parallelStream().collect(ObjectLongMap.summing(w -> w, w -> 1L)).asMap());
+    }
+
+    @Test
+    @DisplayName("Views can convert values, e.g. to Integer")
+    void testIntView() {
+        ObjectLongMap<String> map = new ObjectLongMap<>();
+        map.addTo("x", 3);
+        map.addTo("y", 4);
+        map.addTo("x", 5);
+        assertEquals(8L, map.getOrDefault("x", 0));
+        assertEquals(Map.of("x", 8, "y", 4), map.asMap(v -> (int) v));
+        assertEquals("{x=8, y=4}", map.toString());
+    }
+}
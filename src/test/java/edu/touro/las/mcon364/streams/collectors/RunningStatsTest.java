@@ -0,0 +1,98 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for RunningStats.
+ *
+ * Run with: mvn test -Dtest=RunningStatsTest
+ */
+class RunningStatsTest {
+
+    private static double exactVariance(long[] values) {
+        BigInteger n = BigInteger.valueOf(values.length);
+        BigInteger sum = BigInteger.ZERO;
+        BigInteger squares = BigInteger.ZERO;
+        for (long value : values) {
+            BigInteger x = BigInteger.valueOf(value);
+            sum = sum.add(x);
+            squares = squares.add(x.multiply(x));
+        }
+        BigDecimal spread = new BigDecimal(n.multiply(squares).subtract(sum.multiply(sum)));
+        return spread.divide(new BigDecimal(n.multiply(n)), MathContext.DECIMAL128).doubleValue();
+    }
+
+    @Test
+    @DisplayName("Variance of values far from zero matches exact arithmetic")
+    void testAccuracy() {
+        long[] values = new Random(1).longs(1_000_000, 0, 100).map(x -> 1_000_000_000L + x).toArray();
+        RunningStats stats = RunningStats.of(Arrays.stream(values).asDoubleStream());
+        double exact = exactVariance(values);
+        assertEquals(values.length, stats.getCount());
+        assertEquals(exact, stats.getVariance(), exact * 1e-9);
+        assertEquals(1_000_000_000 + Arrays.stream(values).map(x -> x - 1_000_000_000).average().orElseThrow(),
+                stats.getMean(), 1e-3);
+        assertEquals(1_000_000_000, stats.getMin());
+        assertEquals(1_000_000_099, stats.getMax());
+
+        double mean = Arrays.stream(values).asDoubleStream().sum() / values.length;
+        double naive = Arrays.stream(values).asDoubleStream().map(x -> x * x).sum() / values.length - mean * mean;
+        assertTrue(Math.abs(naive - exact) > Math.abs(stats.getVariance() - exact),
+                "Welford should beat the textbook formula: naive " + naive + ", exact " + exact);
+    }
+
+    @Test
+    @DisplayName("Parallel collection agrees with sequential")
+    void testParallel() {
+        double[] values = new Random(2).doubles(500_000, -1e6, 1e6).toArray();
+        RunningStats sequential = RunningStats.of(Arrays.stream(values));
+        RunningStats parallel = RunningStats.of(Arrays.stream(values).parallel());
+        assertEquals(sequential.getCount(), parallel.getCount());
+        assertEquals(sequential.getMean(), parallel.getMean(), 1e-6);
+        assertEquals(sequential.getVariance(), parallel.getVariance(), sequential.getVariance() * 1e-12);
+        assertEquals(sequential.getMin(), parallel.getMin());
+        assertEquals(sequential.getMax(), parallel.getMax());
+    }
+
+    @Test
+    @DisplayName("Per-key stats match the stats of each group")
+    void testByKey() {
+        int[] values = new Random(3).ints(100_000, 0, 101).toArray();
+        Map<Integer, RunningStats> byKey = IntStream.of(values).boxed().parallel()
+                .collect(RunningStats.byKey(v -> v % 7, v -> v));
+        assertEquals(7, byKey.size());
+        byKey.forEach((key, stats) -> {
+            RunningStats group = RunningStats.of(IntStream.of(values).filter(v -> v % 7 == key));
+            assertEquals(group.getCount(), stats.getCount());
+            assertEquals(group.getMean(), stats.getMean(), 1e-9);
+            assertEquals(group.getStandardDeviation(), stats.getStandardDeviation(), 1e-9);
+        });
+    }
+
+    @Test
+    @DisplayName("Empty stats, restoring and merging")
+    void testEmptyAndRestore() {
+        RunningStats empty = new RunningStats();
+        assertEquals(0, empty.getCount());
+        assertEquals(0.0, empty.getVariance());
+        assertEquals(0.0, empty.getSampleVariance());
+        assertEquals(Double.POSITIVE_INFINITY, empty.getMin());
+
+        RunningStats stats = RunningStats.of(IntStream.of(2, 4, 4, 4, 5, 5, 7, 9));
+        assertEquals(5.0, stats.getMean());
+        assertEquals(2.0, stats.getStandardDeviation());
+        assertEquals(32.0 / 7, stats.getSampleVariance(), 1e-12);
+
+        RunningStats copy = RunningStats.of(stats.getCount(), stats.getMean(), stats.getM2(), stats.getMin(),
+                stats.getMax());
+        assertEquals(stats.toString(), copy.combine(new RunningStats()).toString());
+        assertEquals(stats.toString(), new RunningStats().combine(copy).toString());
+        assertThrows(IllegalArgumentException.class, () -> RunningStats.of(2, 1, -1, 0, 2));
+        assertThrows(IllegalArgumentException.class, () -> RunningStats.of(2, 1, 1, 3, 2));
+    }
+}
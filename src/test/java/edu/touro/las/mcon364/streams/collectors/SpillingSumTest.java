@@ -0,0 +1,112 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.collectors.SpillingSum.Codec;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for SpillingSum.
+ *
+ * Run with: mvn test -Dtest=SpillingSumTest
+ */
+class SpillingSumTest {
+
+    @TempDir
+    Path dir;
+
+    private SpillingSum<String> newSum(int maxGroups) {
+        return new SpillingSum<>(Comparator.naturalOrder(), Codec.utf8(), maxGroups, dir);
+    }
+
+    private static TreeMap<String, Long> expected(List<String> keys) {
+        return keys.stream().collect(Collectors.groupingBy(k -> k, TreeMap::new, Collectors.summingLong(String::length)));
+    }
+
+    private static List<String> randomKeys(int count, int distinct, long seed) {
+        Random random = new Random(seed);
+        return IntStream.range(0, count).mapToObj(i -> "K" + random.nextInt(distinct)).toList();
+    }
+
+    private long runFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Sums stay in memory within the budget")
+    void testInMemory() throws IOException {
+        List<String> keys = randomKeys(5000, 100, 1);
+        try (SpillingSum<String> sum = newSum(100)) {
+            keys.forEach(k -> sum.add(k, k.length()));
+            assertEquals(0, sum.runCount());
+            assertEquals(expected(keys), sum.toMap(Long::valueOf));
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    @DisplayName("Spilled runs merge into the same sums, in key order")
+    void testSpilled() throws IOException {
+        List<String> keys = randomKeys(50_000, 5000, 2);
+        try (SpillingSum<String> sum = newSum(300)) {
+            keys.forEach(k -> sum.add(k, k.length()));
+            assertTrue(sum.runCount() > 1);
+            TreeMap<String, Long> expected = expected(keys);
+            assertEquals(List.copyOf(expected.entrySet()), toList(sum.iterator()));
+            // A second pass reads the same runs again
+            assertEquals(expected, sum.toMap(Long::valueOf));
+            assertTrue(runFiles() > 0);
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    @DisplayName("More runs than the fan-in are merged in several passes")
+    void testMultiPassMerge() throws IOException {
+        List<String> keys = randomKeys(20_000, 2000, 3);
+        try (SpillingSum<String> sum = newSum(10)) {
+            keys.forEach(k -> sum.add(k, k.length()));
+            assertTrue(sum.runCount() > SpillingSum.MAX_FAN_IN);
+            assertEquals(expected(keys), sum.toMap(Long::valueOf));
+            assertTrue(sum.runCount() <= SpillingSum.MAX_FAN_IN);
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    @DisplayName("A parallel collect combines tables and runs of every worker")
+    void testParallelCollect() throws IOException {
+        List<String> keys = randomKeys(100_000, 3000, 4);
+        try (SpillingSum<String> sum = keys.parallelStream()
+                .collect(SpillingSum.summing(() -> newSum(200), k -> k, String::length))) {
+            assertEquals(expected(keys), sum.toMap(Long::valueOf));
+        }
+        assertEquals(0, runFiles());
+    }
+
+    @Test
+    @DisplayName("Closing releases an unfinished iterator and deletes the runs")
+    void testCloseWhileIterating() throws IOException {
+        SpillingSum<String> sum = newSum(5);
+        randomKeys(1000, 100, 5).forEach(k -> sum.add(k, 1));
+        Iterator<Map.Entry<String, Long>> entries = sum.iterator();
+        assertEquals("K0", entries.next().getKey());
+        sum.close();
+        assertEquals(0, runFiles());
+        assertThrows(IllegalArgumentException.class, () -> newSum(0));
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,46 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+/**
+ * Unit tests for SymbolTable.
+ *
+ * Run with: mvn test -Dtest=SymbolTableTest
+ */
+class SymbolTableTest {
+
+    @Test
+    @DisplayName("Symbols get dense codes in first-seen order and decode to the first instance")
+    void testIntern() {
+        SymbolTable<String> table = new SymbolTable<>(2);
+        String first = new String("C002");
+        assertEquals(0, table.intern(first));
+        assertEquals(1, table.intern("C001"));
+        assertEquals(0, table.intern(new String("C002")));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 2, table.intern("X" + i));
+        }
+        assertSame(first, table.symbol(0));
+        assertEquals(1002, table.size());
+        assertEquals(1, table.code("C001"));
+        assertEquals(-1, table.code("missing"));
+        assertEquals(List.of("C002", "C001", "X0"), table.symbols().subList(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.symbol(1002));
+        assertThrows(NullPointerException.class, () -> table.intern(null));
+    }
+
+    @Test
+    @DisplayName("A sorted remapping renumbers codes in symbol order")
+    void testSortedRemapping() {
+        SymbolTable<String> table = new SymbolTable<>();
+        List.of("pear", "apple", "fig").forEach(table::intern);
+        assertArrayEquals(new int[] {2, 0, 1}, table.sortedRemapping(Comparator.naturalOrder()));
+        assertArrayEquals(new int[] {0, 1, 2}, table.sortedRemapping(Comparator.comparing(table::code)));
+        // Ties keep code order
+        assertArrayEquals(new int[] {1, 2, 0}, table.sortedRemapping(Comparator.comparing((String s) -> s.length() > 3)));
+        assertArrayEquals(new int[] {0, 1, 2}, table.sortedRemapping((a, b) -> 0));
+    }
+}
@@ -0,0 +1,59 @@
+package edu.touro.las.mcon364.streams.collectors;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for TopK.
+ *
+ * Run with: mvn test -Dtest=TopKTest
+ */
+class TopKTest {
+
+    private static int[] fullSort(double[] scores, int k) {
+        return IntStream.range(0, scores.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed().thenComparingInt(i -> i))
+                .limit(k)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Test
+    @DisplayName("Matches a full sort, including ties")
+    void testMatchesFullSort() {
+        Random random = new Random(1);
+        double[] scores = random.ints(10_000, 0, 500).asDoubleStream().toArray();
+        for (int k : new int[]{0, 1, 10, 100, 20_000}) {
+            assertArrayEquals(fullSort(scores, k), TopK.select(IntStream.range(0, scores.length), k, i -> scores[i]),
+                    "k = " + k);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel selection is identical to sequential")
+    void testParallel() {
+        Random random = new Random(2);
+        double[] scores = random.ints(200_000, 0, 1000).asDoubleStream().toArray();
+        assertArrayEquals(TopK.select(IntStream.range(0, scores.length), 25, i -> scores[i]),
+                TopK.select(IntStream.range(0, scores.length).parallel(), 25, i -> scores[i]));
+    }
+
+    @Test
+    @DisplayName("Collector ranks objects by score then id")
+    void testCollector() {
+        record Item(int id, double score) {}
+        int[] top = Stream.of(new Item(4, 2.0), new Item(1, 5.0), new Item(3, 5.0), new Item(2, 1.0))
+                .collect(TopK.collector(3, Item::id, Item::score));
+        assertArrayEquals(new int[]{1, 3, 4}, top);
+    }
+
+    @Test
+    @DisplayName("Negative k is rejected")
+    void testNegativeK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK(-1));
+    }
+}
@@ -0,0 +1,198 @@
+package edu.touro.las.mcon364.streams.execution;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+import edu.touro.las.mcon364.streams.homework.Report;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+import edu.touro.las.mcon364.streams.homework.TestOrders;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics.QueryStats;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.*;
+
+/**
+ * Unit tests for ExecutionPolicy and the parallel execution of the
+ * StreamHomework and StreamExercise queries.
+ *
+ * Run with: mvn test -Dtest=ExecutionPolicyTest
+ */
+class ExecutionPolicyTest {
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Parallel queries run on the supplied pool, not the common pool")
+    void testRunsOnSuppliedPool() {
+        ExecutionPolicy policy = ExecutionPolicy.parallel(pool);
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        long sum = policy.overRange(100_000, s -> s
+                .mapToLong(i -> {
+                    pools.add(ForkJoinTask.getPool());
+                    return i;
+                })
+                .sum());
+        assertEquals(100_000L * 99_999 / 2, sum);
+        assertEquals(Set.of(pool), pools);
+    }
+
+    @Test
+    @DisplayName("Adaptive policy switches to parallel at the threshold")
+    void testAdaptiveThreshold() {
+        ExecutionPolicy policy = ExecutionPolicy.adaptive(pool, 1000);
+        assertFalse(policy.isParallel(999));
+        assertTrue(policy.isParallel(1000));
+        assertFalse(policy.overRange(10, IntStream::isParallel));
+        assertTrue(policy.overRange(1000, IntStream::isParallel));
+        assertFalse(ExecutionPolicy.sequential().isParallel(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionPolicy.adaptive(pool, -1));
+    }
+
+    @Test
+    @DisplayName("StreamHomework queries give identical results in parallel")
+    void testHomeworkParity() {
+        StreamHomework sequential = TestOrders.random(11, 30, 20_000, 365)
+                .categories(5)
+                .customers(500)
+                .from(LocalDate.of(2023, 6, 1))
+                .build()
+                .homework();
+        StreamHomework parallel = sequential.withExecutionPolicy(ExecutionPolicy.parallel(pool));
+
+        assertEquals(sequential.getTotalRevenue(), parallel.getTotalRevenue(), 1e-6);
+        assertEquals(sequential.getOrderCount(OrderStatus.SHIPPED), parallel.getOrderCount(OrderStatus.SHIPPED));
+        assertEquals(sequential.getUniqueProducts(), parallel.getUniqueProducts());
+        assertEquals(sequential.getAverageOrderValue(), parallel.getAverageOrderValue(), 1e-6);
+        assertEquals(sequential.getOrderValueStatisticsCents().toString(),
+                parallel.getOrderValueStatisticsCents().toString());
+        assertEquals(sequential.getCustomerOrderCounts(), parallel.getCustomerOrderCounts());
+        assertEquals(sequential.getCustomersWithMultipleOrders(), parallel.getCustomersWithMultipleOrders());
+        assertEquals(sequential.getTopSellingProducts(5), parallel.getTopSellingProducts(5));
+        assertEquals(sequential.getProductQuantitySold(), parallel.getProductQuantitySold());
+        assertEquals(sequential.getOrdersByMonth(), parallel.getOrdersByMonth());
+        assertEquals(List.copyOf(sequential.getMonthlyRevenue().keySet()),
+                List.copyOf(parallel.getMonthlyRevenue().keySet()));
+        LocalDate start = LocalDate.of(2023, 9, 1);
+        LocalDate end = LocalDate.of(2023, 12, 31);
+        assertEquals(sequential.getOrdersInDateRange(start, end), parallel.getOrdersInDateRange(start, end));
+        assertEquals(List.copyOf(sequential.getDailyOrderCounts().entrySet()),
+                List.copyOf(parallel.getDailyOrderCounts().entrySet()));
+        assertEquals(sequential.getMostPopularByCategory(), parallel.getMostPopularByCategory());
+        sequential.getRevenueByCustomer().forEach((customer, revenue) ->
+                assertEquals(revenue, parallel.getRevenueByCustomer().get(customer), 1e-6));
+        assertEquals(sequential.runReports(EnumSet.allOf(Report.class)).dailyOrderCounts(),
+                parallel.runReports(EnumSet.allOf(Report.class)).dailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("StreamExercise queries give identical results in parallel")
+    void testExerciseParity() {
+        StreamExercise sequential = new StreamExercise();
+        StreamExercise parallel = sequential.withExecutionPolicy(ExecutionPolicy.parallel(pool));
+
+        assertEquals(sequential.getAllStudentNames(), parallel.getAllStudentNames());
+        assertEquals(sequential.countStudents(), parallel.countStudents());
+        assertEquals(sequential.getAllGradesFlattened(), parallel.getAllGradesFlattened());
+        assertEquals(sequential.findHighestGrade(), parallel.findHighestGrade());
+        assertEquals(sequential.findLowestGrade(), parallel.findLowestGrade());
+        assertEquals(sequential.getTotalGradeCount(), parallel.getTotalGradeCount());
+        assertEquals(sequential.getPassingStudents(80), parallel.getPassingStudents(80));
+        assertEquals(sequential.getFailingStudents(70), parallel.getFailingStudents(70));
+        assertEquals(sequential.groupByPerformance(), parallel.groupByPerformance());
+        assertEquals(List.copyOf(sequential.getStudentAverages().entrySet()),
+                List.copyOf(parallel.getStudentAverages().entrySet()));
+        assertEquals(sequential.findTopPerformer(), parallel.findTopPerformer());
+        assertEquals(sequential.getStudentsWithPerfectScore(), parallel.getStudentsWithPerfectScore());
+        assertEquals(sequential.findMostConsistentStudent(), parallel.findMostConsistentStudent());
+        assertEquals(sequential.hasFailingStudent(70), parallel.hasFailingStudent(70));
+    }
+
+    @Test
+    @DisplayName("A cancellation check stops sequential and parallel queries")
+    void testCancellation() {
+        for (ExecutionPolicy base : List.of(ExecutionPolicy.sequential(), ExecutionPolicy.parallel(pool))) {
+            ExecutionPolicy never = base.withCancellation(() -> false);
+            long count = never.overRange(1_000_000, s -> s.filter(i -> i >= 0).count());
+            assertEquals(1_000_000L, count);
+            assertEquals(base.isParallel(10), never.isParallel(10));
+
+            AtomicInteger seen = new AtomicInteger();
+            ExecutionPolicy cancelled = base.withCancellation(() -> seen.get() > 10_000);
+            assertThrows(CancellationException.class, () -> cancelled.overRange(1_000_000, s -> s
+                    .peek(i -> seen.incrementAndGet())
+                    .filter(i -> i >= 0)
+                    .count()));
+            assertTrue(seen.get() < 1_000_000);
+        }
+    }
+
+    @Test
+    @DisplayName("Block kernels cover the range in order, sequentially, in parallel and cancelled")
+    void testOverBlocks() {
+        int size = 10 * ExecutionPolicy.BLOCK_SIZE + 17;
+        for (ExecutionPolicy policy : List.of(ExecutionPolicy.sequential(), ExecutionPolicy.parallel(pool))) {
+            List<Integer> bounds = policy.overBlocks(size, (from, to) -> List.of(from, to), (a, b) -> {
+                assertEquals(a.get(a.size() - 1), b.get(0));
+                return List.of(a.get(0), b.get(1));
+            });
+            assertEquals(List.of(0, size), bounds);
+            assertEquals(List.of(0, 0), policy.overBlocks(0, (from, to) -> List.of(from, to), (a, b) -> a));
+
+            AtomicInteger blocks = new AtomicInteger();
+            ExecutionPolicy cancelled = policy.withCancellation(() -> blocks.get() >= 3);
+            assertThrows(CancellationException.class, () -> cancelled.overBlocks(size, (from, to) -> {
+                blocks.incrementAndGet();
+                return to - from;
+            }, Integer::sum));
+            assertTrue(blocks.get() < 11);
+        }
+    }
+
+    @Test
+    @DisplayName("Pruned blocks are skipped, counted, and stop at the first match")
+    void testZoneMapPruning() {
+        int size = 10 * ExecutionPolicy.BLOCK_SIZE + 17;
+        for (ExecutionPolicy policy : List.of(ExecutionPolicy.sequential(), ExecutionPolicy.parallel(pool))) {
+            QueryMetrics metrics = new QueryMetrics();
+            int rows = metrics.measure("even", () -> policy.overBlocks(size, b -> b % 2 == 0,
+                    (b, from, to) -> {
+                        assertEquals(0, b % 2);
+                        assertEquals(b * ExecutionPolicy.BLOCK_SIZE, from);
+                        return to - from;
+                    }, Integer::sum));
+            assertEquals(5 * ExecutionPolicy.BLOCK_SIZE + 17, rows);
+            QueryStats even = metrics.stats("even").orElseThrow();
+            assertEquals(6, even.blocksScanned());
+            assertEquals(5, even.blocksSkipped());
+            assertEquals(rows, even.rowsScanned());
+            assertEquals(0, policy.overBlocks(size, b -> false, (b, from, to) -> to - from, Integer::sum));
+
+            assertTrue(metrics.measure("any", () -> policy.anyBlock(size, b -> b >= 4, (b, from, to) -> b >= 4)));
+            QueryStats any = metrics.stats("any").orElseThrow();
+            assertTrue(any.blocksScanned() >= 1);
+            assertEquals(11, any.blocksScanned() + any.blocksSkipped());
+            assertFalse(policy.anyBlock(size, b -> true, (b, from, to) -> false));
+            assertFalse(policy.anyBlock(0, b -> true, (b, from, to) -> true));
+        }
+        QueryMetrics metrics = new QueryMetrics();
+        metrics.measure("first", () -> ExecutionPolicy.sequential().anyBlock(size, b -> true, (b, from, to) -> true));
+        assertEquals(1, metrics.stats("first").orElseThrow().blocksScanned());
+        assertEquals(10, metrics.stats("first").orElseThrow().blocksSkipped());
+    }
+}
@@ -0,0 +1,187 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for ConcurrentGradebook and StreamExercise queries over its
+ * snapshots.
+ *
+ * Run with: mvn test -Dtest=ConcurrentGradebookTest
+ */
+class ConcurrentGradebookTest {
+
+    private static final int WRITERS = 8;
+    private static final int STUDENTS_PER_WRITER = 50;
+    private static final int GRADES_PER_STUDENT = 400;
+
+    private static List<List<Integer>> allGrades(GradebookStore store) {
+        return IntStream.range(0, store.studentCount()).mapToObj(store::grades).toList();
+    }
+
+    @Test
+    @DisplayName("A loaded gradebook snapshots to the same store as the map")
+    void testLoad() {
+        Map<String, List<Integer>> gradebook = new LinkedHashMap<>();
+        gradebook.put("Alice", List.of(95, 87, 92));
+        gradebook.put("Nobody", List.of());
+        gradebook.put("Wide", List.of(-1000, 30_000));
+        GradebookStore expected = GradebookStore.of(gradebook);
+        GradebookStore snapshot = ConcurrentGradebook.of(gradebook).snapshot();
+
+        assertEquals(expected.studentCount(), snapshot.studentCount());
+        for (int s = 0; s < expected.studentCount(); s++) {
+            assertEquals(expected.student(s), snapshot.student(s));
+        }
+        assertEquals(allGrades(expected), allGrades(snapshot));
+        assertEquals(expected.sortedGrades(), snapshot.sortedGrades());
+        assertEquals(0, new ConcurrentGradebook().snapshot().studentCount());
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentGradebook().record("X", 40_000));
+    }
+
+    @Test
+    @DisplayName("Snapshots are cached until something new is recorded")
+    void testSnapshotCache() {
+        ConcurrentGradebook book = ConcurrentGradebook.of(Map.of("Alice", List.of(90)));
+        GradebookStore first = book.snapshot();
+        assertSame(first, book.snapshot());
+        book.record("Alice", 80);
+        GradebookStore second = book.snapshot();
+        assertNotSame(first, second);
+        assertEquals(List.of(90), first.grades(0));
+        assertEquals(List.of(90, 80), second.grades(0));
+    }
+
+    private static void assertSameStore(GradebookStore expected, GradebookStore actual) {
+        assertEquals(expected.studentCount(), actual.studentCount());
+        for (int s = 0; s < expected.studentCount(); s++) {
+            assertEquals(expected.student(s), actual.student(s));
+            assertEquals(s, actual.indexOf(expected.student(s)));
+            assertEquals(expected.grades(s), actual.grades(s));
+            assertEquals(expected.sum(s), actual.sum(s));
+            assertEquals(expected.variance(s), actual.variance(s));
+            assertEquals(expected.min(s), actual.min(s));
+            assertEquals(expected.max(s), actual.max(s));
+            assertEquals(expected.hasPerfectScore(s), actual.hasPerfectScore(s));
+        }
+        for (int b = 0; b < ExecutionPolicy.blockCount(expected.studentCount()); b++) {
+            assertEquals(expected.blockMax(b), actual.blockMax(b));
+            assertEquals(expected.blockMinAverage(b), actual.blockMinAverage(b));
+            assertEquals(expected.blockMaxAverage(b), actual.blockMaxAverage(b));
+        }
+        assertEquals(expected.gradeCount(), actual.gradeCount());
+        assertEquals(expected.totalSum(), actual.totalSum());
+        assertEquals(expected.sortedGrades(), actual.sortedGrades());
+    }
+
+    @Test
+    @DisplayName("Snapshots built on earlier ones equal a store packed from scratch, and leave those intact")
+    void testIncrementalSnapshots() {
+        Random random = new Random(24);
+        ConcurrentGradebook book = new ConcurrentGradebook();
+        Map<String, List<Integer>> expected = new LinkedHashMap<>();
+        List<GradebookStore> snapshots = new ArrayList<>();
+        List<GradebookStore> scratches = new ArrayList<>();
+        for (int round = 0; round < 6; round++) {
+            // Spans several log chunks and student pages, adds students, and widens grades past a byte in round 4
+            int students = round == 5 ? 100 : 2000 + 3000 * round;
+            for (int i = 0; i < 50_000; i++) {
+                String name = "S" + random.nextInt(students);
+                int grade = round == 4 && i == 7 ? 30_000 : random.nextInt(101);
+                book.record(name, grade);
+                expected.computeIfAbsent(name, n -> new ArrayList<>()).add(grade);
+            }
+            if (round == 2) {
+                continue;
+            }
+            snapshots.add(book.snapshot());
+            scratches.add(GradebookStore.of(expected));
+            assertSameStore(scratches.get(scratches.size() - 1), snapshots.get(snapshots.size() - 1));
+            assertEquals(new StreamExercise(expected).calculateClassAverage(),
+                    new StreamExercise(book).calculateClassAverage(), 1e-9);
+        }
+        assertTrue(snapshots.get(snapshots.size() - 1).studentCount() > 2 * ExecutionPolicy.BLOCK_SIZE);
+        for (int k = 0; k < snapshots.size(); k++) {
+            assertSameStore(scratches.get(k), snapshots.get(k));
+        }
+        assertEquals(-1, snapshots.get(0).indexOf("S" + (2000 + 3000 * 4 - 1)));
+    }
+
+    @Test
+    @DisplayName("Concurrent writers never expose a torn snapshot and lose no grades")
+    void testConcurrentWriters() throws Exception {
+        ConcurrentGradebook book = new ConcurrentGradebook();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(pool.submit(() -> {
+                for (int i = 0; i < GRADES_PER_STUDENT; i++) {
+                    for (int k = 0; k < STUDENTS_PER_WRITER; k++) {
+                        book.record("W" + writer + "-S" + k, i % 101);
+                        book.record("Shared", 100);
+                    }
+                }
+            }));
+        }
+
+        long lastCount = 0;
+        int snapshots = 0;
+        boolean done = false;
+        while (!done) {
+            done = writers.stream().allMatch(Future::isDone);
+            GradebookStore snapshot = book.snapshot();
+            for (int s = 0; s < snapshot.studentCount(); s++) {
+                List<Integer> grades = snapshot.grades(s);
+                if (!snapshot.student(s).equals("Shared")) {
+                    // One writer per student: its grades are a prefix of what it recorded
+                    for (int i = 0; i < grades.size(); i++) {
+                        assertEquals(i % 101, grades.get(i), snapshot.student(s));
+                    }
+                }
+            }
+            assertTrue(snapshot.gradeCount() >= lastCount);
+            lastCount = snapshot.gradeCount();
+            snapshots++;
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        pool.shutdown();
+        assertTrue(snapshots > 0);
+
+        GradebookStore last = book.snapshot();
+        int recorded = WRITERS * STUDENTS_PER_WRITER * GRADES_PER_STUDENT;
+        assertEquals(WRITERS * STUDENTS_PER_WRITER + 1, last.studentCount());
+        assertEquals(2L * recorded, last.gradeCount());
+        assertEquals(2L * recorded, book.liveGradeCount());
+        assertEquals(recorded, last.count(last.indexOf("Shared")));
+        for (int s = 0; s < last.studentCount(); s++) {
+            assertEquals(last.average(s), book.liveAverage(last.student(s)).orElseThrow(), 1e-9);
+        }
+        assertTrue(book.liveAverage("Unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("StreamExercise queries read the latest snapshot")
+    void testExerciseOverSnapshots() {
+        ConcurrentGradebook book = ConcurrentGradebook.of(Map.of("Alice", List.of(70, 80)));
+        StreamExercise exercise = new StreamExercise(book);
+        assertEquals(75.0, exercise.calculateClassAverage());
+        assertEquals("Alice", exercise.findTopPerformer());
+        assertEquals(Map.of("C", List.of("Alice")), exercise.groupByPerformance());
+
+        book.record("Bob", 95);
+        book.record("Alice", 100);
+        assertEquals(86.25, exercise.calculateClassAverage());
+        assertEquals("Bob", exercise.findTopPerformer());
+        assertEquals(Map.of("A", List.of("Bob"), "B", List.of("Alice")), exercise.groupByPerformance());
+        assertEquals(List.of("Alice", "Bob"), exercise.getAllStudentNames());
+        assertEquals(List.of(70, 80, 100), exercise.getStudentGrades("Alice"));
+    }
+}
@@ -0,0 +1,226 @@
+package edu.touro.las.mcon364.streams.exercises;
+
+import edu.touro.las.mcon364.streams.collectors.RunningStats;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics.QueryStats;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for GradebookStore and the StreamExercise queries over it,
+ * compared against plain stream pipelines over the source map.
+ *
+ * Run with: mvn test -Dtest=GradebookStoreTest
+ */
+class GradebookStoreTest {
+
+    private static Map<String, List<Integer>> randomGradebook(int students, int minGrade, int maxGrade, long seed) {
+        Random random = new Random(seed);
+        Map<String, List<Integer>> gradebook = new LinkedHashMap<>();
+        for (int s = 0; s < students; s++) {
+            gradebook.put("S" + random.nextInt(1_000_000) + "-" + s, random.ints(random.nextInt(12), minGrade, maxGrade + 1)
+                    .boxed()
+                    .toList());
+        }
+        return gradebook;
+    }
+
+    private static double naiveDeviation(List<Integer> grades) {
+        double mean = grades.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+        return Math.sqrt(grades.stream().mapToDouble(g -> (g - mean) * (g - mean)).average().orElse(0.0));
+    }
+
+    @Test
+    @DisplayName("Per-student statistics match the source grades")
+    void testStatistics() {
+        Map<String, List<Integer>> gradebook = randomGradebook(2000, 0, 100, 21);
+        GradebookStore store = GradebookStore.of(gradebook);
+        assertEquals(gradebook.size(), store.studentCount());
+        int s = 0;
+        for (Map.Entry<String, List<Integer>> entry : gradebook.entrySet()) {
+            List<Integer> grades = entry.getValue();
+            IntSummaryStatistics stats = grades.stream().mapToInt(Integer::intValue).summaryStatistics();
+            assertEquals(entry.getKey(), store.student(s));
+            assertEquals(s, store.indexOf(entry.getKey()));
+            assertEquals(grades, store.grades(s));
+            assertEquals(stats.getSum(), store.sum(s));
+            assertEquals(stats.getAverage(), store.average(s));
+            assertEquals(naiveDeviation(grades), store.standardDeviation(s), 1e-9);
+            assertEquals(grades.contains(100), store.hasPerfectScore(s));
+            if (!grades.isEmpty()) {
+                assertEquals(stats.getMin(), store.min(s));
+                assertEquals(stats.getMax(), store.max(s));
+            }
+            s++;
+        }
+        List<Integer> all = gradebook.values().stream().flatMap(List::stream).sorted().toList();
+        assertEquals(all, store.sortedGrades());
+        assertEquals(all.size(), store.gradeCount());
+        assertEquals(all.get(0), store.lowest().orElseThrow());
+        assertEquals(all.get(all.size() - 1), store.highest().orElseThrow());
+        assertEquals(-1, store.indexOf("Unknown"));
+    }
+
+    @Test
+    @DisplayName("Grades outside a byte use the short arena; outside a short are rejected")
+    void testArenaWidth() {
+        Map<String, List<Integer>> wide = randomGradebook(300, -1000, 1000, 22);
+        GradebookStore store = GradebookStore.of(wide);
+        assertEquals(wide.values().stream().flatMap(List::stream).sorted().toList(), store.sortedGrades());
+        assertEquals(List.copyOf(wide.values()), IntStream.range(0, store.studentCount())
+                .mapToObj(store::grades)
+                .toList());
+        assertThrows(IllegalArgumentException.class, () -> GradebookStore.of(Map.of("X", List.of(1, 40_000))));
+
+        GradebookStore empty = GradebookStore.of(Map.of("Nobody", List.of()));
+        assertTrue(empty.highest().isEmpty());
+        assertEquals(List.of(), empty.sortedGrades());
+        assertEquals(0.0, empty.average(0));
+        assertEquals(0.0, empty.variance(0));
+    }
+
+    @Test
+    @DisplayName("StreamExercise over a packed gradebook matches plain map pipelines")
+    void testExerciseQueries() {
+        Map<String, List<Integer>> gradebook = randomGradebook(3000, 0, 100, 23);
+        StreamExercise exercise = new StreamExercise(gradebook);
+        Map<String, Double> averages = gradebook.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        e -> e.getValue().stream().mapToInt(Integer::intValue).average().orElse(0.0)));
+
+        assertEquals(gradebook.keySet().stream().sorted().toList(), exercise.getAllStudentNames());
+        assertEquals(gradebook.values().stream().flatMap(List::stream).sorted().toList(),
+                exercise.getAllGradesFlattened());
+        assertEquals(gradebook.values().stream().mapToInt(List::size).sum(), exercise.getTotalGradeCount());
+        assertEquals(gradebook.values().stream().flatMap(List::stream).mapToInt(Integer::intValue).average()
+                .orElse(0.0), exercise.calculateClassAverage());
+        assertEquals(averages, exercise.getStudentAverages());
+        assertEquals(gradebook.keySet().stream().filter(name -> averages.get(name) >= 75).toList(),
+                exercise.getPassingStudents(75));
+        assertEquals(gradebook.entrySet().stream().filter(e -> e.getValue().contains(100)).map(Map.Entry::getKey)
+                .toList(), exercise.getStudentsWithPerfectScore());
+        String consistent = exercise.findMostConsistentStudent();
+        assertEquals(gradebook.values().stream().mapToDouble(GradebookStoreTest::naiveDeviation).min().orElseThrow(),
+                naiveDeviation(gradebook.get(consistent)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Welford statistics match exact arithmetic on a large gradebook")
+    void testStatisticsAccuracy() {
+        Map<String, List<Integer>> gradebook = randomGradebook(20_000, 0, 100, 24);
+        StreamExercise exercise = new StreamExercise(gradebook);
+        Map<String, RunningStats> statistics = exercise.getStudentStatistics();
+        assertEquals(List.copyOf(gradebook.keySet()), List.copyOf(statistics.keySet()));
+        gradebook.forEach((name, grades) -> {
+            RunningStats stats = statistics.get(name);
+            assertEquals(grades.size(), stats.getCount());
+            assertEquals(exactDeviation(grades), stats.getStandardDeviation(), 1e-12, name);
+            assertEquals(exercise.calculateAverage(name), stats.getMean(), 1e-12, name);
+        });
+
+        List<Integer> all = gradebook.values().stream().flatMap(List::stream).toList();
+        RunningStats sequential = exercise.getClassStatistics();
+        RunningStats parallel = exercise.withExecutionPolicy(ExecutionPolicy.parallel(ForkJoinPool.commonPool()))
+                .getClassStatistics();
+        for (RunningStats stats : List.of(sequential, parallel)) {
+            assertEquals(all.size(), stats.getCount());
+            assertEquals(exercise.calculateClassAverage(), stats.getMean(), 1e-9);
+            assertEquals(exactDeviation(all), stats.getStandardDeviation(), 1e-9);
+            assertEquals(exercise.findLowestGrade(), stats.getMin());
+            assertEquals(exercise.findHighestGrade(), stats.getMax());
+        }
+    }
+
+    @Test
+    @DisplayName("Threshold, letter and histogram queries match plain scans of the averages")
+    void testAverageIndex() {
+        for (Map<String, List<Integer>> gradebook : List.of(randomGradebook(5000, 0, 100, 25),
+                randomGradebook(2000, -500, 500, 26), Map.<String, List<Integer>>of())) {
+            StreamExercise exercise = new StreamExercise(gradebook);
+            Map<String, Double> averages = new LinkedHashMap<>();
+            gradebook.forEach((name, grades) -> averages.put(name,
+                    grades.stream().mapToInt(Integer::intValue).average().orElse(0.0)));
+
+            List<Double> thresholds = new ArrayList<>(averages.values());
+            thresholds.addAll(List.of(-1e9, -0.5, 0.0, 59.999, 60.0, 80.0, 100.0, 100.5, 1e9,
+                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NaN));
+            for (double threshold : thresholds) {
+                List<String> passing = averages.keySet().stream()
+                        .filter(name -> averages.get(name) >= threshold)
+                        .toList();
+                assertEquals(passing, exercise.getPassingStudents(threshold), "threshold " + threshold);
+                assertEquals(passing.size(), exercise.countPassingStudents(threshold), "threshold " + threshold);
+                assertEquals(averages.keySet().stream().filter(name -> averages.get(name) < threshold).toList(),
+                        exercise.getFailingStudents(threshold), "threshold " + threshold);
+            }
+
+            Map<String, List<String>> letters = averages.keySet().stream()
+                    .collect(Collectors.groupingBy(name -> AverageIndex.letter(averages.get(name)), TreeMap::new,
+                            Collectors.toList()));
+            assertEquals(letters, exercise.groupByPerformance());
+
+            for (int width : new int[]{1, 7, 10}) {
+                Map<Integer, Integer> histogram = averages.values().stream()
+                        .collect(Collectors.groupingBy(a -> Math.floorDiv((int) Math.floor(a), width) * width,
+                                TreeMap::new, Collectors.summingInt(a -> 1)));
+                assertEquals(histogram, exercise.getAverageHistogram(width), "width " + width);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new StreamExercise().getAverageHistogram(0));
+    }
+
+    @Test
+    @DisplayName("Perfect-score and failing checks skip blocks of students their zone map rules out")
+    void testZoneMaps() {
+        int block = ExecutionPolicy.BLOCK_SIZE;
+        Map<String, List<Integer>> gradebook = randomGradebook(10 * block, 70, 99, 27);
+        gradebook.replaceAll((name, grades) -> grades.isEmpty() ? List.of(85) : grades);
+        List<String> names = List.copyOf(gradebook.keySet());
+        // Perfect scores in blocks 3 and 7 only; one failing student in block 8
+        gradebook.put(names.get(3 * block + 5), List.of(100, 90));
+        gradebook.put(names.get(7 * block + 1), List.of(80, 100));
+        gradebook.put(names.get(8 * block + 9), List.of(10, 20));
+        QueryMetrics metrics = new QueryMetrics();
+        StreamExercise exercise = new StreamExercise(gradebook).withMetrics(metrics);
+
+        assertEquals(List.of(names.get(3 * block + 5), names.get(7 * block + 1)),
+                exercise.getStudentsWithPerfectScore());
+        QueryStats perfect = metrics.stats("getStudentsWithPerfectScore").orElseThrow();
+        assertEquals(2, perfect.blocksScanned());
+        assertEquals(8, perfect.blocksSkipped());
+        assertEquals(2L * block, perfect.rowsScanned());
+
+        assertTrue(exercise.hasFailingStudent(50));
+        assertFalse(exercise.hasFailingStudent(5));
+        QueryStats failing = metrics.stats("hasFailingStudent").orElseThrow();
+        assertEquals(1, failing.blocksScanned());
+        assertEquals(19, failing.blocksSkipped());
+        assertEquals(gradebook.values().stream().anyMatch(g -> g.stream().mapToInt(i -> i).average().orElse(0) < 75),
+                exercise.hasFailingStudent(75));
+
+        // Every block's highest average is below 100: the first block answers unread
+        QueryMetrics whole = new QueryMetrics();
+        assertTrue(exercise.withMetrics(whole).hasFailingStudent(100));
+        assertEquals(1, whole.stats("hasFailingStudent").orElseThrow().blocksScanned());
+        assertEquals(9, whole.stats("hasFailingStudent").orElseThrow().blocksSkipped());
+
+        StreamExercise empty = new StreamExercise(Map.of());
+        assertEquals(List.of(), empty.getStudentsWithPerfectScore());
+        assertFalse(empty.hasFailingStudent(100));
+    }
+
+    private static double exactDeviation(List<Integer> grades) {
+        if (grades.isEmpty()) {
+            return 0.0;
+        }
+        long n = grades.size();
+        long sum = grades.stream().mapToLong(Integer::longValue).sum();
+        long squares = grades.stream().mapToLong(g -> (long) g * g).sum();
+        return Math.sqrt((n * squares - sum * sum) / ((double) n * n));
+    }
+}
@@ -0,0 +1,93 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Unit tests for GroupTotals, across its sparse and dense forms.
+ *
+ * Run with: mvn test -Dtest=GroupTotalsTest
+ */
+class GroupTotalsTest {
+
+    private static void assertTotals(Map<Integer, long[]> expected, GroupTotals totals) {
+        assertEquals(expected.keySet().stream().sorted().toList(), totals.presentGroups().boxed().toList());
+        for (int g = 0; g < totals.size(); g++) {
+            long[] sumAndCount = expected.getOrDefault(g, new long[2]);
+            assertEquals(sumAndCount[0], totals.sum(g), "sum of " + g);
+            assertEquals(sumAndCount[1], totals.count(g), "count of " + g);
+        }
+    }
+
+    @Test
+    @DisplayName("Merges of sparse and dense accumulators match a plain map")
+    void testMerges() {
+        Random random = new Random(8);
+        int groups = 100_000;
+        Map<Integer, long[]> expected = new HashMap<>();
+        // Leaves of very different widths: a few codes, then up to half of all groups
+        List<GroupTotals> leaves = new ArrayList<>();
+        for (int width : new int[] {1, 40, 3000, 20_000, 50_000, 7}) {
+            GroupTotals leaf = new GroupTotals(groups);
+            for (int i = 0; i < width; i++) {
+                int g = random.nextInt(groups);
+                long amount = random.nextInt(1000) - 200;
+                leaf.add(g, amount);
+                long[] sumAndCount = expected.computeIfAbsent(g, k -> new long[2]);
+                sumAndCount[0] += amount;
+                sumAndCount[1]++;
+            }
+            leaves.add(leaf);
+        }
+        GroupTotals reversed = new GroupTotals(groups);
+        for (int l = leaves.size() - 1; l > 0; l--) {
+            reversed.merge(leaves.get(l));
+        }
+        reversed.merge(leaves.get(0));
+        assertTotals(expected, reversed);
+
+        // Merging into the first leaf mutates it, so this runs last
+        GroupTotals merged = leaves.get(0);
+        for (GroupTotals leaf : leaves.subList(1, leaves.size())) {
+            merged.merge(leaf);
+        }
+        assertTotals(expected, merged);
+    }
+
+    @Test
+    @DisplayName("A group that only received zero is still present")
+    void testZeroAmounts() {
+        for (int groups : new int[] {10, 10_000}) {
+            GroupTotals totals = new GroupTotals(groups);
+            totals.add(3, 0);
+            totals.add(7, 5);
+            totals.add(3, 0);
+            assertEquals(List.of(3, 7), totals.presentGroups().boxed().toList());
+            assertTrue(totals.present(3));
+            assertFalse(totals.present(4));
+            assertEquals(2, totals.count(3));
+            assertArrayEquals(new int[] {7, 3}, totals.topGroups(5));
+            assertThrows(ArithmeticException.class, () -> totals.add(7, Long.MAX_VALUE));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> new GroupTotals(10_000).add(10_000, 1));
+    }
+
+    @Test
+    @DisplayName("Parallel grouping over many customers matches the sequential result")
+    void testParallelCustomers() {
+        StreamHomework hw = TestOrders.random(4, 50, 40_000, 365).customers(30_000).build().homework();
+        StreamHomework parallel = hw.withExecutionPolicy(ExecutionPolicy.parallel(ForkJoinPool.commonPool()));
+        assertEquals(hw.getRevenueByCustomer(), parallel.getRevenueByCustomer());
+        assertEquals(hw.getCustomerOrderCounts(), parallel.getCustomerOrderCounts());
+        assertEquals(hw.getTopCustomers(10), parallel.getTopCustomers(10));
+        ReportResults results = parallel.runReports(EnumSet.allOf(Report.class));
+        assertEquals(hw.getCustomerOrderCounts(), results.customerOrderCounts());
+        assertEquals(hw.getRevenueByCustomer(), results.revenueByCustomer());
+        assertEquals(hw.getCustomersWithMultipleOrders(), results.customersWithMultipleOrders());
+    }
+}
@@ -0,0 +1,124 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for IncrementalAnalytics.
+ *
+ * After a random sequence of events, every aggregate must equal a full
+ * recomputation by StreamHomework over the resulting orders.
+ *
+ * Run with: mvn test -Dtest=IncrementalAnalyticsTest
+ */
+class IncrementalAnalyticsTest {
+
+    private static void assertSums(Map<?, Double> expected, Map<?, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((k, v) -> assertEquals(v, actual.get(k), 1e-6, "value for " + k));
+    }
+
+    @Test
+    @DisplayName("Random events match a full recomputation")
+    void testMatchesRecomputation() {
+        Random random = new Random(3);
+        List<Product> products = TestOrders.random(3, 15, 0, 1).build().products();
+        OrderStatus[] statuses = OrderStatus.values();
+        Map<String, CustomerOrder> current = new LinkedHashMap<>();
+        IncrementalAnalytics analytics = new IncrementalAnalytics();
+
+        for (int step = 0; step < 3000; step++) {
+            if (current.isEmpty() || random.nextInt(3) > 0) {
+                CustomerOrder order = new CustomerOrder("O" + step, "C" + random.nextInt(60),
+                        IntStream.range(0, 1 + random.nextInt(3))
+                                .mapToObj(j -> new OrderItem(products.get(random.nextInt(products.size())),
+                                        1 + random.nextInt(4)))
+                                .toList(),
+                        LocalDate.of(2024, 1, 1).plusDays(random.nextInt(120)),
+                        statuses[random.nextInt(statuses.length)]);
+                current.put(order.id(), order);
+                analytics.apply(new OrderEvent.OrderAdded(order));
+            } else {
+                List<String> ids = List.copyOf(current.keySet());
+                CustomerOrder order = current.get(ids.get(random.nextInt(ids.size())));
+                OrderStatus status = statuses[random.nextInt(statuses.length)];
+                current.put(order.id(), new CustomerOrder(order.id(), order.customerId(), order.items(),
+                        order.orderDate(), status));
+                analytics.apply(new OrderEvent.StatusChanged(order.id(), status));
+            }
+        }
+
+        StreamHomework hw = new StreamHomework(products, current.values());
+        assertEquals(hw.getTotalRevenue(), analytics.getTotalRevenue(), 1e-6);
+        for (OrderStatus status : statuses) {
+            assertEquals(hw.getOrderCount(status), analytics.getOrderCount(status));
+        }
+        assertEquals(hw.getAverageOrderValue(), analytics.getAverageOrderValue(), 1e-6);
+        assertEquals(hw.getUniqueProducts(), analytics.getUniqueProducts());
+        assertSums(hw.getRevenueByCustomer(), analytics.getRevenueByCustomer());
+        assertEquals(hw.getTopCustomers(10), analytics.getTopCustomers(10));
+        assertEquals(hw.getCustomerOrderCounts(), analytics.getCustomerOrderCounts());
+        assertSums(hw.getRevenueByCategory(), analytics.getRevenueByCategory());
+        assertEquals(hw.getTopSellingProducts(5), analytics.getTopSellingProducts(5));
+        assertEquals(hw.getProductQuantitySold(), analytics.getProductQuantitySold());
+        hw.getCategorySummary().forEach((category, summary) ->
+                assertEquals(summary.totalQuantity(), analytics.getCategorySummary().get(category).totalQuantity()));
+        assertSums(hw.getMonthlyRevenue(), analytics.getMonthlyRevenue());
+        assertEquals(hw.getDailyOrderCounts(), analytics.getDailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("Withdrawing the last delivered order removes the customer")
+    void testStatusRoundTrip() {
+        Product laptop = new Product("P001", "Laptop", "Electronics", 999.99);
+        CustomerOrder order = new CustomerOrder("O1", "C1", List.of(new OrderItem(laptop, 2)),
+                LocalDate.of(2024, 1, 15), OrderStatus.PENDING);
+        IncrementalAnalytics analytics = IncrementalAnalytics.of(List.of(order));
+        assertEquals(0.0, analytics.getTotalRevenue());
+
+        analytics.apply(new OrderEvent.StatusChanged("O1", OrderStatus.DELIVERED));
+        assertEquals(1999.98, analytics.getTotalRevenue(), 1e-9);
+        assertEquals(List.of("C1"), analytics.getTopCustomers(3));
+
+        analytics.apply(new OrderEvent.StatusChanged("O1", OrderStatus.CANCELLED));
+        assertEquals(0.0, analytics.getTotalRevenue());
+        assertTrue(analytics.getRevenueByCustomer().isEmpty());
+        assertTrue(analytics.getTopCustomers(3).isEmpty());
+        assertEquals(1, analytics.getOrderCount(OrderStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("Tied products rank in catalog order, then first appearance, as in StreamHomework")
+    void testProductTies() {
+        Product a = new Product("A", "Alpha", "Cat", 1.0);
+        Product b = new Product("B", "Beta", "Cat", 1.0);
+        Product c = new Product("C", "Gamma", "Cat", 1.0);
+        List<CustomerOrder> orders = List.of(
+                new CustomerOrder("O1", "C1", List.of(new OrderItem(c, 2)), LocalDate.of(2024, 1, 1),
+                        OrderStatus.DELIVERED),
+                new CustomerOrder("O2", "C2", List.of(new OrderItem(a, 2), new OrderItem(b, 2)),
+                        LocalDate.of(2024, 1, 2), OrderStatus.DELIVERED));
+        for (List<Product> catalog : List.of(List.of(b, a), List.of(a, b, c), List.<Product>of())) {
+            assertEquals(new StreamHomework(catalog, orders).getTopSellingProducts(3),
+                    IncrementalAnalytics.of(catalog, orders, null).getTopSellingProducts(3), catalog.toString());
+        }
+        assertEquals(List.of(b, a, c), IncrementalAnalytics.of(List.of(b, a), orders, null).getTopSellingProducts(3));
+    }
+
+    @Test
+    @DisplayName("Invalid events are rejected")
+    void testInvalidEvents() {
+        IncrementalAnalytics analytics = new IncrementalAnalytics();
+        CustomerOrder order = new CustomerOrder("O1", "C1", List.of(), LocalDate.of(2024, 1, 1), OrderStatus.PENDING);
+        analytics.apply(new OrderEvent.OrderAdded(order));
+        assertThrows(IllegalArgumentException.class, () -> analytics.apply(new OrderEvent.OrderAdded(order)));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.apply(new OrderEvent.StatusChanged("O2", OrderStatus.SHIPPED)));
+    }
+}
@@ -0,0 +1,81 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for fixed-point Money and exact revenue totals.
+ *
+ * Run with: mvn test -Dtest=MoneyTest
+ */
+class MoneyTest {
+
+    @Test
+    @DisplayName("Decimal amounts convert to cents, rounding half up")
+    void testConversion() {
+        assertEquals(99999, Money.of(999.99));
+        assertEquals(-1050, Money.of(-10.5));
+        assertEquals(29, Money.of(0.285));
+        assertEquals(1, Money.of(0.005));
+        assertEquals(0, Money.of(0.004));
+        assertEquals(999.99, Money.toDouble(99999));
+        assertEquals("5765.87", Money.format(576587));
+        assertEquals("-0.05", Money.format(-5));
+        assertThrows(ArithmeticException.class, () -> Money.of(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Money.of(1e300));
+    }
+
+    @Test
+    @DisplayName("Revenue over many small prices is exact")
+    void testExactTotals() {
+        Product dime = new Product("P1", "Dime", "Coins", 0.10);
+        List<CustomerOrder> orders = IntStream.range(0, 100_000)
+                .mapToObj(i -> new CustomerOrder("O" + i, "C" + (i % 7), List.of(new OrderItem(dime, 1)),
+                        LocalDate.of(2024, 1, 1).plusDays(i % 90), OrderStatus.DELIVERED))
+                .toList();
+        StreamHomework hw = new StreamHomework(List.of(dime), orders);
+
+        double naive = 0.0;
+        for (int i = 0; i < orders.size(); i++) {
+            naive += 0.10;
+        }
+        assertNotEquals(10_000.0, naive);
+        assertEquals(1_000_000, hw.getTotalRevenueCents());
+        assertEquals(10_000.0, hw.getTotalRevenue());
+        assertEquals(0.10, hw.getAverageOrderValue());
+        assertEquals(10_000.0, hw.getRevenueByCategory().get("Coins"));
+        assertEquals(10_000.0, hw.getMonthlyRevenue().values().stream().mapToLong(Money::of).sum() / 100.0);
+        assertEquals(10_000.0, hw.runReports(EnumSet.of(Report.TOTAL_REVENUE)).totalRevenue());
+        assertEquals(10_000.0, IncrementalAnalytics.of(orders).getTotalRevenue());
+    }
+
+    @Test
+    @DisplayName("Overflow fails loudly instead of wrapping")
+    void testOverflow() {
+        Product yacht = new Product("P1", "Yacht", "Boats", 1e16);
+        CustomerOrder order = new CustomerOrder("O1", "C1", List.of(new OrderItem(yacht, 1000)),
+                LocalDate.of(2024, 1, 1), OrderStatus.DELIVERED);
+        assertThrows(ArithmeticException.class, order::getTotalCents);
+        // Order totals are computed when the store is built
+        assertThrows(ArithmeticException.class, () -> new StreamHomework(List.of(yacht), List.of(order)));
+
+        // Quantities sum in longs; an int result that does not fit is an error, not a wrapped count
+        Product pin = new Product("P2", "Pin", "Office", 0.01);
+        List<CustomerOrder> bulk = List.of(
+                new CustomerOrder("O2", "C1", List.of(new OrderItem(pin, Integer.MAX_VALUE)),
+                        LocalDate.of(2024, 1, 1), OrderStatus.DELIVERED),
+                new CustomerOrder("O3", "C2", List.of(new OrderItem(pin, Integer.MAX_VALUE)),
+                        LocalDate.of(2024, 1, 2), OrderStatus.DELIVERED));
+        StreamHomework hw = new StreamHomework(List.of(pin), bulk);
+        assertThrows(ArithmeticException.class, hw::getProductQuantitySold);
+        assertThrows(ArithmeticException.class, hw::getCategorySummary);
+        assertThrows(ArithmeticException.class, () -> IncrementalAnalytics.of(bulk).getProductQuantitySold());
+        assertEquals(100, Money.ONE);
+    }
+}
@@ -0,0 +1,251 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.collectors.KllSketch;
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics.QueryStats;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for OrderColumns and the columnar query paths of StreamHomework.
+ *
+ * Each query is compared against a plain record-based stream pipeline over a
+ * randomly generated dataset.
+ *
+ * Run with: mvn test -Dtest=OrderColumnsTest
+ */
+class OrderColumnsTest {
+
+    private List<Product> products;
+    private List<CustomerOrder> orders;
+    private StreamHomework hw;
+
+    @BeforeEach
+    void setUp() {
+        TestOrders.Fixture fixture = TestOrders.random(42, 40, 2000, 500)
+                .categories(5)
+                .customers(150)
+                .items(1, 4)
+                .build();
+        products = fixture.products();
+        orders = fixture.orders();
+        hw = fixture.homework();
+    }
+
+    private Stream<CustomerOrder> delivered() {
+        return orders.stream().filter(o -> o.status() == OrderStatus.DELIVERED);
+    }
+
+    private static void assertSums(Map<?, Double> expected, Map<?, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((k, v) -> assertEquals(v, actual.get(k), 1e-6, "value for " + k));
+    }
+
+    @Test
+    @DisplayName("Materialized orders round-trip through the columns")
+    void testRoundTrip() {
+        OrderColumns columns = OrderColumns.of(products, orders);
+        assertEquals(orders.size(), columns.orderCount());
+        assertEquals(orders.stream().mapToInt(o -> o.items().size()).sum(), columns.lineCount());
+        assertEquals(orders, IntStream.range(0, columns.orderCount()).mapToObj(columns::order).toList());
+    }
+
+    @Test
+    @DisplayName("Dictionaries are sorted and products outside the catalog are appended")
+    void testDictionaries() {
+        Product extra = new Product("X001", "Extra", "Zebra", 1.0);
+        OrderColumns columns = OrderColumns.of(products.subList(0, 2), List.of(
+                new CustomerOrder("O1", "C2", List.of(new OrderItem(extra, 2)), LocalDate.of(2024, 1, 1),
+                        OrderStatus.PENDING),
+                new CustomerOrder("O2", "C1", List.of(new OrderItem(products.get(0), 1)), LocalDate.of(2024, 1, 2),
+                        OrderStatus.DELIVERED)));
+        assertEquals(3, columns.productCount());
+        assertEquals(extra, columns.product(2));
+        assertEquals("C1", columns.customer(0));
+        assertEquals("C2", columns.customer(1));
+        assertEquals(extra, columns.order(0).items().get(0).product());
+    }
+
+    @Test
+    @DisplayName("Part 1 queries match the record-based versions")
+    void testPartOne() {
+        assertEquals(delivered().mapToDouble(CustomerOrder::getTotal).sum(), hw.getTotalRevenue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(orders.stream().filter(o -> o.status() == status).count(), hw.getOrderCount(status));
+        }
+        assertEquals(orders.stream().flatMap(o -> o.items().stream()).map(OrderItem::product)
+                .collect(Collectors.toSet()), hw.getUniqueProducts());
+        assertEquals(delivered().mapToDouble(CustomerOrder::getTotal).average().orElse(0.0),
+                hw.getAverageOrderValue(), 1e-6);
+        assertEquals(delivered().mapToLong(CustomerOrder::getTotalCents).summaryStatistics().toString(),
+                hw.getOrderValueStatisticsCents().toString());
+    }
+
+    @Test
+    @DisplayName("Part 2 queries match the record-based versions")
+    void testPartTwo() {
+        Map<String, Double> revenue = delivered().collect(Collectors.groupingBy(CustomerOrder::customerId,
+                Collectors.summingDouble(CustomerOrder::getTotal)));
+        assertSums(revenue, hw.getRevenueByCustomer());
+
+        List<String> top = hw.getTopCustomers(10);
+        assertEquals(10, top.size());
+        double[] topRevenue = top.stream().mapToDouble(revenue::get).toArray();
+        double[] expected = revenue.values().stream().sorted(Comparator.reverseOrder())
+                .mapToDouble(Double::doubleValue).limit(10).toArray();
+        assertArrayEquals(expected, topRevenue, 1e-6);
+
+        Map<String, Long> counts = orders.stream()
+                .collect(Collectors.groupingBy(CustomerOrder::customerId, Collectors.counting()));
+        assertEquals(counts, hw.getCustomerOrderCounts());
+        assertEquals(counts.entrySet().stream().filter(e -> e.getValue() > 1).map(Map.Entry::getKey).sorted()
+                .toList(), hw.getCustomersWithMultipleOrders());
+    }
+
+    @Test
+    @DisplayName("Part 3 queries match the record-based versions")
+    void testPartThree() {
+        assertSums(delivered().flatMap(o -> o.items().stream())
+                .collect(Collectors.groupingBy(i -> i.product().category(),
+                        Collectors.summingDouble(OrderItem::getLineTotal))), hw.getRevenueByCategory());
+
+        Map<String, Integer> quantities = orders.stream().flatMap(o -> o.items().stream())
+                .collect(Collectors.groupingBy(i -> i.product().id(), Collectors.summingInt(OrderItem::quantity)));
+        assertEquals(quantities, hw.getProductQuantitySold());
+
+        List<Product> top = hw.getTopSellingProducts(5);
+        assertEquals(5, top.size());
+        assertEquals(quantities.values().stream().sorted(Comparator.reverseOrder()).limit(5).toList(),
+                top.stream().map(p -> quantities.get(p.id())).toList());
+
+        Map<String, CategorySummary> summary = hw.getCategorySummary();
+        delivered().flatMap(o -> o.items().stream())
+                .collect(Collectors.groupingBy(i -> i.product().category(),
+                        Collectors.summingInt(OrderItem::quantity)))
+                .forEach((category, quantity) -> assertEquals(quantity, summary.get(category).totalQuantity()));
+    }
+
+    @Test
+    @DisplayName("Part 4 queries match the record-based versions")
+    void testPartFour() {
+        assertEquals(orders.stream().collect(Collectors.groupingBy(o -> YearMonth.from(o.orderDate()))),
+                hw.getOrdersByMonth());
+        assertSums(delivered().collect(Collectors.groupingBy(o -> YearMonth.from(o.orderDate()),
+                Collectors.summingDouble(CustomerOrder::getTotal))), hw.getMonthlyRevenue());
+
+        LocalDate start = LocalDate.of(2023, 3, 1);
+        LocalDate end = LocalDate.of(2023, 4, 15);
+        assertEquals(orders.stream().filter(o -> !o.orderDate().isBefore(start) && !o.orderDate().isAfter(end))
+                .toList(), hw.getOrdersInDateRange(start, end));
+        assertEquals(orders.stream().collect(Collectors.groupingBy(CustomerOrder::orderDate, Collectors.counting())),
+                hw.getDailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("Date-range queries from the index match a linear filter")
+    void testDateRanges() {
+        Random random = new Random(5);
+        LocalDate base = LocalDate.of(2022, 12, 1);
+        for (int q = 0; q < 200; q++) {
+            LocalDate start = base.plusDays(random.nextInt(600));
+            LocalDate end = start.plusDays(random.nextInt(120) - 10);
+            List<CustomerOrder> expected = orders.stream()
+                    .filter(o -> !o.orderDate().isBefore(start) && !o.orderDate().isAfter(end))
+                    .toList();
+            assertEquals(expected, hw.getOrdersInDateRange(start, end));
+            assertEquals(expected.size(), hw.getOrderCountInDateRange(start, end));
+            assertEquals(expected.stream().filter(o -> o.status() == OrderStatus.DELIVERED)
+                    .mapToDouble(CustomerOrder::getTotal).sum(), hw.getRevenueInDateRange(start, end), 1e-6);
+        }
+        assertEquals(orders.size(), hw.getOrderCountInDateRange(LocalDate.MIN, LocalDate.MAX));
+    }
+
+    @Test
+    @DisplayName("Zone maps skip blocks of date-ordered orders and match a linear filter")
+    void testZoneMaps() {
+        Random random = new Random(6);
+        OrderStatus[] statuses = OrderStatus.values();
+        LocalDate base = LocalDate.of(2020, 1, 1);
+        int count = 40_000;
+        // Loaded in date order; only the most recent orders are still open
+        List<CustomerOrder> history = IntStream.range(0, count)
+                .mapToObj(i -> new CustomerOrder(String.format("O%06d", i),
+                        String.format("C%03d", random.nextInt(150)),
+                        List.of(new OrderItem(products.get(random.nextInt(products.size())), 1 + random.nextInt(5))),
+                        base.plusDays(i / 40),
+                        i < count * 9 / 10 ? OrderStatus.DELIVERED : statuses[random.nextInt(statuses.length)]))
+                .toList();
+        QueryMetrics metrics = new QueryMetrics();
+        StreamHomework store = new StreamHomework(products, history).withMetrics(metrics);
+
+        for (OrderStatus status : statuses) {
+            assertEquals(history.stream().filter(o -> o.status() == status).count(), store.getOrderCount(status));
+        }
+        QueryStats counts = metrics.stats("getOrderCount").orElseThrow();
+        assertTrue(counts.blocksSkipped() > 0, "PENDING, SHIPPED and CANCELLED skip the old blocks");
+        assertEquals(history.stream().filter(o -> o.status() == OrderStatus.DELIVERED)
+                .mapToLong(CustomerOrder::getTotalCents).sum(), store.getTotalRevenueCents());
+
+        for (int q = 0; q < 100; q++) {
+            LocalDate start = base.plusDays(random.nextInt(1100) - 50);
+            LocalDate end = start.plusDays(random.nextInt(60) - 5);
+            OrderStatus status = statuses[random.nextInt(statuses.length)];
+            assertEquals(history.stream()
+                            .filter(o -> o.status() == status)
+                            .filter(o -> !o.orderDate().isBefore(start) && !o.orderDate().isAfter(end))
+                            .count(),
+                    store.getOrderCountInDateRange(start, end, status), start + ".." + end + " " + status);
+        }
+        QueryStats ranges = metrics.stats("getOrderCountInDateRangeByStatus").orElseThrow();
+        assertEquals(100, ranges.calls());
+        assertTrue(metrics.stats("getOrderCountInDateRange").isEmpty(), "the index-backed overload is its own series");
+        int blocks = (count + ExecutionPolicy.BLOCK_SIZE - 1) / ExecutionPolicy.BLOCK_SIZE;
+        assertEquals(100L * blocks, ranges.blocksScanned() + ranges.blocksSkipped());
+        assertTrue(ranges.blocksSkipped() > ranges.blocksScanned(), "narrow ranges skip most blocks");
+    }
+
+    @Test
+    @DisplayName("Memoized order aggregates match the records")
+    void testOrderAggregates() {
+        OrderColumns columns = OrderColumns.of(products, orders);
+        for (int o = 0; o < orders.size(); o++) {
+            CustomerOrder order = orders.get(o);
+            assertEquals(order.getTotalCents(), columns.orderTotalCents(o));
+            assertEquals(order.items().size(), columns.itemCount(o));
+            assertEquals(order.items().stream().mapToInt(OrderItem::quantity).sum(), columns.orderQuantity(o));
+
+            Map<String, Long> subtotals = new HashMap<>();
+            for (int k = columns.orderCategoryStart[o]; k < columns.orderCategoryStart[o + 1]; k++) {
+                assertNull(subtotals.put(columns.category(columns.subtotalCategory[k]), columns.subtotalRevenue[k]));
+            }
+            assertEquals(order.items().stream().collect(Collectors.groupingBy(i -> i.product().category(),
+                    Collectors.summingLong(OrderItem::getLineTotalCents))), subtotals);
+        }
+    }
+
+    @Test
+    @DisplayName("Approximate twins agree with the exact queries")
+    void testApproximate() {
+        assertEquals(hw.getUniqueProducts().size(), hw.getApproxUniqueProductCount(), 1);
+        assertEquals(hw.getCustomerOrderCounts().size(), hw.getApproxCustomerCount(), 2);
+        LocalDate start = LocalDate.of(2023, 3, 1);
+        LocalDate end = LocalDate.of(2023, 3, 31);
+        assertEquals(hw.getOrdersInDateRange(start, end).stream().map(CustomerOrder::customerId).distinct().count(),
+                hw.getApproxCustomerCount(start, end), 2);
+
+        double[] totals = delivered().mapToDouble(CustomerOrder::getTotal).sorted().toArray();
+        KllSketch sketch = hw.getOrderValueSketch();
+        assertEquals(totals.length, sketch.count());
+        double median = hw.getApproxOrderValueQuantile(0.5);
+        assertEquals(0.5, Arrays.stream(totals).filter(t -> t <= median).count() / (double) totals.length,
+                2 * sketch.rankError());
+        assertEquals(totals[totals.length - 1], hw.getApproxOrderValueQuantile(1.0));
+    }
+}
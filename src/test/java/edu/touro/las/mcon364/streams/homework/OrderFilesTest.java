@@ -0,0 +1,121 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for streaming CSV / NDJSON order ingest.
+ *
+ * Run with: mvn test -Dtest=OrderFilesTest
+ */
+class OrderFilesTest {
+
+    @TempDir
+    Path dir;
+
+    private List<Product> products;
+    private List<CustomerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        // Large enough for the file to be split several times
+        TestOrders.Fixture fixture = TestOrders.random(3, 20, 20000, 200)
+                .categories(3)
+                .customers(500)
+                .items(0, 3)
+                .quantity(9)
+                .from(LocalDate.of(2024, 1, 1))
+                .build();
+        products = fixture.products();
+        orders = fixture.orders();
+    }
+
+    private static String toJson(CustomerOrder order) {
+        return String.format("{\"id\": \"%s\", \"customerId\": \"%s\", \"orderDate\": \"%s\", \"status\": \"%s\", "
+                        + "\"items\": [%s]}",
+                order.id(), order.customerId(), order.orderDate(), order.status(),
+                order.items().stream()
+                        .map(i -> String.format("{\"quantity\": %d, \"productId\": \"%s\"}",
+                                i.quantity(), i.product().id()))
+                        .collect(Collectors.joining(", ")));
+    }
+
+    private Path writeCsv(String newline) throws IOException {
+        Path file = dir.resolve("orders.csv");
+        Files.writeString(file, OrderFiles.CSV_HEADER + newline + orders.stream().map(OrderFiles::toCsv)
+                .collect(Collectors.joining(newline)) + newline);
+        return file;
+    }
+
+    @Test
+    @DisplayName("CSV is parsed lazily, in order, sequentially and in parallel")
+    void testCsv() throws IOException {
+        Path file = writeCsv("\n");
+        try (Stream<CustomerOrder> stream = OrderFiles.csv(file, products)) {
+            assertEquals(orders, stream.toList());
+        }
+        try (Stream<CustomerOrder> stream = OrderFiles.csv(file, products)) {
+            assertEquals(orders, stream.parallel().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("CRLF line endings and a missing final newline are accepted")
+    void testCrLf() throws IOException {
+        Path file = dir.resolve("orders.csv");
+        Files.writeString(file, orders.stream().map(OrderFiles::toCsv).collect(Collectors.joining("\r\n")));
+        try (Stream<CustomerOrder> stream = OrderFiles.csv(file, products)) {
+            assertEquals(orders, stream.parallel().toList());
+        }
+    }
+
+    @Test
+    @DisplayName("NDJSON is parsed sequentially and in parallel")
+    void testNdjson() throws IOException {
+        Path file = dir.resolve("orders.ndjson");
+        Files.write(file, orders.stream().map(OrderFilesTest::toJson).toList());
+        try (Stream<CustomerOrder> stream = OrderFiles.ndjson(file, products)) {
+            assertEquals(orders, stream.toList());
+        }
+        try (Stream<CustomerOrder> stream = OrderFiles.ndjson(file, products)) {
+            assertEquals(orders.size(), stream.parallel().count());
+        }
+    }
+
+    @Test
+    @DisplayName("StreamHomework queries accept a parsed stream directly")
+    void testStreamHomeworkFromFile() throws IOException {
+        StreamHomework expected = new StreamHomework(products, orders);
+        StreamHomework actual;
+        try (Stream<CustomerOrder> stream = OrderFiles.csv(writeCsv("\n"), products)) {
+            actual = new StreamHomework(products, stream.parallel());
+        }
+        assertEquals(expected.getTotalRevenue(), actual.getTotalRevenue(), 1e-6);
+        assertEquals(expected.getCustomerOrderCounts(), actual.getCustomerOrderCounts());
+        assertEquals(expected.getOrdersByMonth(), actual.getOrdersByMonth());
+    }
+
+    @Test
+    @DisplayName("Malformed lines and unknown products are reported with the line")
+    void testMalformed() throws IOException {
+        Path file = dir.resolve("bad.csv");
+        Files.writeString(file, "O1,C1,2024-01-01,DELIVERED,P1:2\nO2,C1,2024-01-01,DELIVERED,X9:1\n");
+        try (Stream<CustomerOrder> stream = OrderFiles.csv(file, products)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, stream::toList);
+            assertTrue(e.getMessage().contains("O2"));
+        }
+        Files.writeString(file, "{\"id\": \"O1\", \"items\": [}\n");
+        try (Stream<CustomerOrder> stream = OrderFiles.ndjson(file, products)) {
+            assertThrows(IllegalArgumentException.class, stream::toList);
+        }
+    }
+}
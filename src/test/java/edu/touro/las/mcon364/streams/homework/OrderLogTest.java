@@ -0,0 +1,142 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.*;
+
+/**
+ * Unit tests for the memory-mapped binary order log.
+ *
+ * Run with: mvn test -Dtest=OrderLogTest
+ */
+class OrderLogTest {
+
+    @TempDir
+    Path dir;
+
+    private List<Product> products;
+    private List<CustomerOrder> orders;
+    private StreamHomework hw;
+
+    @BeforeEach
+    void setUp() {
+        TestOrders.Fixture fixture = TestOrders.random(11, 30, 3000, 300)
+                .names("Prodüct ", "Ö-")
+                .sold(25)
+                .items(0, 3)
+                .from(LocalDate.of(2023, 6, 1))
+                .build();
+        products = fixture.products();
+        orders = fixture.orders();
+        hw = fixture.homework();
+    }
+
+    private OrderLog writeAndOpen(OrderColumns columns) throws IOException {
+        Path file = dir.resolve("orders.log");
+        OrderLog.write(file, columns);
+        return OrderLog.open(file);
+    }
+
+    @Test
+    @DisplayName("Orders read back from the mapped file equal the originals")
+    void testRoundTrip() throws IOException {
+        OrderLog log = writeAndOpen(OrderColumns.of(products, orders));
+        assertEquals(orders.size(), log.orderCount());
+        assertEquals(orders.stream().mapToInt(o -> o.items().size()).sum(), log.lineCount());
+        assertEquals(products, log.products());
+        assertEquals(orders, log.orders().toList());
+        assertEquals(orders, log.orders().parallel().toList());
+    }
+
+    @Test
+    @DisplayName("Copying the log onto the heap gives the same query results")
+    void testToColumns() throws IOException {
+        StreamHomework loaded = new StreamHomework(writeAndOpen(OrderColumns.of(products, orders)).toColumns());
+        assertEquals(orders, IntStream.range(0, loaded.source().orderCount())
+                .mapToObj(loaded.source()::order).toList());
+        assertEquals(hw.getTotalRevenue(), loaded.getTotalRevenue(), 1e-6);
+        assertEquals(hw.getOrdersByMonth(), loaded.getOrdersByMonth());
+        assertEquals(hw.getCategorySummary(), loaded.getCategorySummary());
+    }
+
+    @Test
+    @DisplayName("Queries run over the mapped columns, without copying them, match the heap store")
+    void testQueriesInPlace() throws IOException {
+        OrderLog log = writeAndOpen(OrderColumns.of(products, orders));
+        for (StreamHomework mapped : List.of(new StreamHomework(log),
+                new StreamHomework(log).withExecutionPolicy(ExecutionPolicy.parallel(ForkJoinPool.commonPool())))) {
+            assertSame(log, mapped.source());
+            assertEquals(hw.getTotalRevenueCents(), mapped.getTotalRevenueCents());
+            for (OrderStatus status : OrderStatus.values()) {
+                assertEquals(hw.getOrderCount(status), mapped.getOrderCount(status));
+            }
+            assertEquals(hw.getUniqueProducts(), mapped.getUniqueProducts());
+            assertEquals(hw.getOrderValueStatisticsCents().toString(), mapped.getOrderValueStatisticsCents().toString());
+            assertEquals(hw.getRevenueByCustomer(), mapped.getRevenueByCustomer());
+            assertEquals(hw.getTopCustomers(10), mapped.getTopCustomers(10));
+            assertEquals(hw.getCustomersWithMultipleOrders(), mapped.getCustomersWithMultipleOrders());
+            assertEquals(hw.getRevenueByCategory(), mapped.getRevenueByCategory());
+            assertEquals(hw.getTopSellingProducts(5), mapped.getTopSellingProducts(5));
+            assertEquals(hw.getProductQuantitySold(), mapped.getProductQuantitySold());
+            assertEquals(hw.getCategorySummary(), mapped.getCategorySummary());
+            assertEquals(hw.getOrdersByMonth(), mapped.getOrdersByMonth());
+            assertEquals(hw.getMonthlyRevenue(), mapped.getMonthlyRevenue());
+            assertEquals(hw.getDailyOrderCounts(), mapped.getDailyOrderCounts());
+            LocalDate start = LocalDate.of(2023, 8, 1);
+            LocalDate end = LocalDate.of(2023, 10, 15);
+            assertEquals(hw.getOrdersInDateRange(start, end), mapped.getOrdersInDateRange(start, end));
+            assertEquals(hw.getRevenueInDateRange(start, end), mapped.getRevenueInDateRange(start, end));
+            assertEquals(hw.getOrderCountInDateRange(start, end, OrderStatus.SHIPPED),
+                    mapped.getOrderCountInDateRange(start, end, OrderStatus.SHIPPED));
+            assertEquals(hw.getNeverOrderedProducts(), mapped.getNeverOrderedProducts());
+            assertEquals(hw.getMostPopularByCategory(), mapped.getMostPopularByCategory());
+            assertEquals(hw.getApproxCustomerCount(), mapped.getApproxCustomerCount());
+        }
+        // Sketches compact in encounter order, so only the sequential pass is comparable
+        assertEquals(hw.getApproxOrderValueQuantile(0.5), new StreamHomework(log).getApproxOrderValueQuantile(0.5));
+    }
+
+    @Test
+    @DisplayName("Reports run over the mapped columns match the heap store")
+    void testReportsInPlace() throws IOException {
+        OrderLog log = writeAndOpen(OrderColumns.of(products, orders));
+        ReportResults expected = hw.runReports(EnumSet.allOf(Report.class));
+        ReportResults actual = log.runReports(EnumSet.allOf(Report.class), ExecutionPolicy.sequential());
+        assertEquals(expected.totalRevenue(), actual.totalRevenue(), 1e-6);
+        assertEquals(expected.orderCount(OrderStatus.SHIPPED), actual.orderCount(OrderStatus.SHIPPED));
+        assertEquals(expected.topCustomers(10), actual.topCustomers(10));
+        assertEquals(expected.customerOrderCounts(), actual.customerOrderCounts());
+        assertEquals(expected.productQuantitySold(), actual.productQuantitySold());
+        assertEquals(expected.neverOrderedProducts(), actual.neverOrderedProducts());
+        assertEquals(expected.categorySummary().keySet(), actual.categorySummary().keySet());
+        assertEquals(expected.monthlyRevenue().keySet(), actual.monthlyRevenue().keySet());
+        assertEquals(expected.dailyOrderCounts(), actual.dailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("An empty store round-trips")
+    void testEmpty() throws IOException {
+        OrderLog log = writeAndOpen(OrderColumns.of(products, List.of()));
+        assertEquals(0, log.orderCount());
+        assertEquals(0.0, log.runReports(EnumSet.of(Report.TOTAL_REVENUE), ExecutionPolicy.sequential())
+                .totalRevenue());
+    }
+
+    @Test
+    @DisplayName("Files that are not order logs are rejected")
+    void testRejectsForeignFile() throws IOException {
+        Path file = dir.resolve("orders.csv");
+        Files.writeString(file, "id,customer,date,status\n".repeat(10));
+        assertThrows(IOException.class, () -> OrderLog.open(file));
+    }
+}
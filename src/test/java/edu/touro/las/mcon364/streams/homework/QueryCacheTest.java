@@ -0,0 +1,160 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Unit tests for QueryCache and the cached query paths of StreamHomework and
+ * IncrementalAnalytics.
+ *
+ * Run with: mvn test -Dtest=QueryCacheTest
+ */
+class QueryCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final QueryCache cache = new QueryCache(3, Duration.ofSeconds(10), now::get);
+    private final Object dataset = new Object();
+
+    @Test
+    @DisplayName("Repeated lookups hit until the ttl expires")
+    void testHitsAndTtl() {
+        AtomicInteger computed = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(List.of(1), cache.get(dataset, "q", () -> List.of(computed.incrementAndGet())));
+        }
+        assertEquals(1, computed.get());
+        assertEquals(new QueryCache.Stats(4, 1, 0, 0, 1), cache.stats());
+        assertEquals(0.8, cache.stats().hitRate(), 1e-9);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals(List.of(2), cache.get(dataset, "q", () -> List.of(computed.incrementAndGet())));
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Keys include the dataset and arguments, and the least recently used entry is evicted")
+    void testKeysAndSizeLimit() {
+        assertEquals("a1", cache.get(dataset, "q", List.of(1), () -> "a1"));
+        assertEquals("a2", cache.get(dataset, "q", List.of(2), () -> "a2"));
+        assertEquals("b1", cache.get(new Object(), "q", List.of(1), () -> "b1"));
+        assertEquals("a1", cache.get(dataset, "q", List.of(1), () -> "miss"));
+        assertEquals("c", cache.get(dataset, "r", () -> "c"));
+        assertEquals(3, cache.stats().size());
+        assertEquals(1, cache.stats().evictions());
+        assertEquals("a2 again", cache.get(dataset, "q", List.of(2), () -> "a2 again"));
+        assertEquals("a1", cache.get(dataset, "q", List.of(1), () -> "miss"));
+    }
+
+    @Test
+    @DisplayName("Invalidation drops entries, including results computed across it")
+    void testInvalidation() {
+        assertEquals("old", cache.get(dataset, "q", () -> "old"));
+        cache.invalidate();
+        assertEquals(1, cache.version());
+        assertEquals("racing", cache.get(dataset, "q", () -> {
+            cache.invalidate();
+            return "racing";
+        }));
+        assertEquals(0, cache.stats().size());
+        assertEquals("new", cache.get(dataset, "q", () -> "new"));
+        assertEquals("new", cache.get(dataset, "q", () -> "miss"));
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    @Test
+    @DisplayName("Invalidating one dataset keeps the others' entries")
+    void testDatasetInvalidation() {
+        Object other = new Object();
+        assertEquals("a", cache.get(dataset, "q", () -> "a"));
+        assertEquals("b", cache.get(other, "q", () -> "b"));
+        cache.invalidate(dataset);
+        assertEquals(1, cache.stats().size());
+        assertEquals("b", cache.get(other, "q", () -> "miss"));
+        assertEquals("a2", cache.get(dataset, "q", () -> {
+            cache.invalidate(dataset);
+            return "a2";
+        }));
+        assertEquals("a3", cache.get(dataset, "q", () -> "a3"));
+        assertEquals("a3", cache.get(dataset, "q", () -> "miss"));
+        assertEquals(0, cache.version());
+        assertEquals(2, cache.stats().invalidations());
+    }
+
+    @Test
+    @DisplayName("Null arguments are part of the key")
+    void testNullArguments() {
+        assertEquals("none", cache.get(dataset, "q", Arrays.asList((Object) null), () -> "none"));
+        assertEquals("none", cache.get(dataset, "q", Arrays.asList((Object) null), () -> "miss"));
+        assertEquals("x", cache.get(dataset, "q", List.of("x"), () -> "x"));
+        assertThrows(NullPointerException.class, () -> cache.get(null, "q", () -> "x"));
+    }
+
+    @Test
+    @DisplayName("Expired entries and entries of collected datasets are purged on lookup")
+    void testPurge() throws InterruptedException {
+        QueryCache large = new QueryCache(100, Duration.ofSeconds(10), now::get);
+        large.get(dataset, "stale", () -> "x");
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        large.get(new Object(), "q", () -> "y");
+        assertEquals(1, large.stats().size(), "the expired entry is swept by another dataset's lookup");
+
+        for (int i = 0; i < 10; i++) {
+            large.get(new Object(), "q", () -> "z");
+        }
+        for (int attempt = 0; attempt < 50 && large.stats().size() > 1; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            large.get(dataset, "q", () -> "kept");
+        }
+        assertEquals(1, large.stats().size(), "only the live dataset's entry is left");
+    }
+
+    @Test
+    @DisplayName("Cached collections are read-only")
+    void testReadOnly() {
+        Map<String, Double> map = cache.get(dataset, "map", () -> new TreeMap<>(Map.of("x", 1.0)));
+        assertThrows(UnsupportedOperationException.class, () -> map.put("y", 2.0));
+        assertInstanceOf(SortedMap.class, map);
+        List<Integer> list = cache.get(dataset, "list", () -> new ArrayList<>(List.of(1)));
+        assertThrows(UnsupportedOperationException.class, () -> list.add(2));
+    }
+
+    @Test
+    @DisplayName("StreamHomework serves repeated dashboard queries from the cache")
+    void testStreamHomework() {
+        StreamHomework plain = new StreamHomework();
+        StreamHomework cached = plain.withQueryCache(new QueryCache(100, Duration.ofMinutes(5)));
+        assertEquals(plain.getRevenueByCategory(), cached.getRevenueByCategory());
+        assertSame(cached.getRevenueByCategory(), cached.getRevenueByCategory());
+        assertSame(cached.getCategorySummary(), cached.getCategorySummary());
+        assertEquals(plain.getTopCustomers(2), cached.getTopCustomers(2));
+        assertEquals(plain.getTopCustomers(3), cached.getTopCustomers(3));
+        assertSame(cached.getTopCustomers(3), cached.getTopCustomers(3));
+    }
+
+    @Test
+    @DisplayName("IncrementalAnalytics events invalidate cached results")
+    void testIncrementalAnalytics() {
+        Product product = new Product("P1", "Pen", "Office", 2.50);
+        QueryCache shared = new QueryCache(100, Duration.ofMinutes(5));
+        IncrementalAnalytics analytics = IncrementalAnalytics.of(List.of(
+                new CustomerOrder("O1", "C1", List.of(new OrderItem(product, 2)), LocalDate.of(2024, 1, 1),
+                        OrderStatus.DELIVERED)), shared);
+        Map<String, Double> before = analytics.getRevenueByCategory();
+        assertSame(before, analytics.getRevenueByCategory());
+        assertEquals(Map.of("Office", 5.0), before);
+
+        analytics.apply(new OrderEvent.OrderAdded(new CustomerOrder("O2", "C2", List.of(new OrderItem(product, 4)),
+                LocalDate.of(2024, 1, 2), OrderStatus.DELIVERED)));
+        assertEquals(Map.of("Office", 15.0), analytics.getRevenueByCategory());
+        analytics.apply(new OrderEvent.StatusChanged("O1", OrderStatus.CANCELLED));
+        assertEquals(Map.of("Office", 10.0), analytics.getRevenueByCategory());
+        assertEquals(List.of("C2"), analytics.getTopCustomers(5));
+    }
+}
@@ -0,0 +1,96 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.execution.ExecutionPolicy;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.*;
+
+/**
+ * Unit tests for the fused report pass.
+ *
+ * Run with: mvn test -Dtest=ReportResultsTest
+ */
+class ReportResultsTest {
+
+    private StreamHomework hw;
+
+    @BeforeEach
+    void setUp() {
+        hw = TestOrders.random(7, 25, 5000, 400)
+                .categories(6)
+                .customers(300)
+                .sold(20)
+                .quantity(4)
+                .from(LocalDate.of(2022, 11, 20))
+                .build()
+                .homework();
+    }
+
+    private static void assertSums(Map<?, Double> expected, Map<?, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((k, v) -> assertEquals(v, actual.get(k), 1e-6, "value for " + k));
+    }
+
+    private void assertMatchesQueries(ReportResults results) {
+        assertEquals(hw.getTotalRevenue(), results.totalRevenue(), 1e-6);
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(hw.getOrderCount(status), results.orderCount(status));
+        }
+        assertEquals(hw.getUniqueProducts(), results.uniqueProducts());
+        assertEquals(hw.getAverageOrderValue(), results.averageOrderValue(), 1e-6);
+        assertSums(hw.getRevenueByCustomer(), results.revenueByCustomer());
+        assertEquals(hw.getTopCustomers(10), results.topCustomers(10));
+        assertEquals(hw.getCustomerOrderCounts(), results.customerOrderCounts());
+        assertEquals(hw.getCustomersWithMultipleOrders(), results.customersWithMultipleOrders());
+        assertSums(hw.getRevenueByCategory(), results.revenueByCategory());
+        assertEquals(hw.getTopSellingProducts(5), results.topSellingProducts(5));
+        assertEquals(hw.getProductQuantitySold(), results.productQuantitySold());
+        assertEquals(hw.getCategorySummary().keySet(), results.categorySummary().keySet());
+        assertEquals(hw.getNeverOrderedProducts(), results.neverOrderedProducts());
+        assertEquals(hw.getMostPopularByCategory(), results.mostPopularByCategory());
+        assertSums(hw.getMonthlyRevenue(), results.monthlyRevenue());
+        assertEquals(List.copyOf(hw.getMonthlyRevenue().keySet()), List.copyOf(results.monthlyRevenue().keySet()));
+        assertEquals(hw.getDailyOrderCounts(), results.dailyOrderCounts());
+    }
+
+    @Test
+    @DisplayName("Sequential fused pass matches the individual queries")
+    void testSequential() {
+        assertMatchesQueries(hw.runReports(EnumSet.allOf(Report.class)));
+    }
+
+    @Test
+    @DisplayName("Parallel fused pass matches the individual queries")
+    void testParallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertMatchesQueries(hw.withExecutionPolicy(ExecutionPolicy.parallel(pool))
+                    .runReports(EnumSet.allOf(Report.class)));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Only requested reports are available")
+    void testUnrequestedReport() {
+        ReportResults results = hw.runReports(EnumSet.of(Report.TOTAL_REVENUE));
+        assertEquals(Set.of(Report.TOTAL_REVENUE), results.reports());
+        assertThrows(IllegalStateException.class, results::revenueByCategory);
+    }
+
+    @Test
+    @DisplayName("Fused pass over the sample data")
+    void testSampleData() {
+        ReportResults results = new StreamHomework().runReports(EnumSet.allOf(Report.class));
+        assertEquals(10, results.uniqueProducts().size());
+        assertEquals(List.of("C001", "C002", "C003", "C006"), results.customersWithMultipleOrders());
+        assertEquals(3, results.monthlyRevenue().size());
+    }
+}
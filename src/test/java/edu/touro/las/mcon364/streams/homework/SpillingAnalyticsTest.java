@@ -0,0 +1,80 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.collectors.SpillingSum;
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for SpillingAnalytics: every spilled query must match the
+ * in-memory StreamHomework result.
+ *
+ * Run with: mvn test -Dtest=SpillingAnalyticsTest
+ */
+class SpillingAnalyticsTest {
+
+    @TempDir
+    Path dir;
+
+    private List<Product> products;
+    private List<CustomerOrder> orders;
+    private StreamHomework hw;
+    private SpillingAnalytics analytics;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        TestOrders.Fixture fixture = TestOrders.random(19, 300, 20_000, 700)
+                .categories(7)
+                .customers(4000)
+                .quantity(9)
+                .build();
+        products = fixture.products();
+        orders = fixture.orders();
+        hw = fixture.homework();
+        Files.createDirectories(dir.resolve("spill"));
+        analytics = new SpillingAnalytics(50, dir.resolve("spill"));
+    }
+
+    private long spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("spill"))) {
+            return files.count();
+        }
+    }
+
+    @Test
+    @DisplayName("Spilled grouping queries match the in-memory ones")
+    void testMatchesInMemory() throws IOException {
+        Map<String, Double> revenue = analytics.getRevenueByCustomer(orders.stream());
+        assertEquals(hw.getRevenueByCustomer().keySet(), revenue.keySet());
+        hw.getRevenueByCustomer().forEach((customer, amount) -> assertEquals(amount, revenue.get(customer)));
+        assertEquals(hw.getProductQuantitySold(), analytics.getProductQuantitySold(orders.parallelStream()));
+        assertEquals(hw.getDailyOrderCounts(), analytics.getDailyOrderCounts(orders.stream()));
+        assertEquals(0, spillFiles());
+    }
+
+    @Test
+    @DisplayName("Open sums read from a CSV file spill and iterate in key order")
+    void testFromFile() throws IOException {
+        Path csv = dir.resolve("orders.csv");
+        Files.write(csv, orders.stream().map(OrderFiles::toCsv).toList());
+        List<String> customers = new ArrayList<>();
+        try (Stream<CustomerOrder> fromFile = OrderFiles.csv(csv, products);
+             SpillingSum<String> spent = analytics.revenueCentsByCustomer(fromFile)) {
+            assertTrue(spent.runCount() > SpillingSum.MAX_FAN_IN);
+            spent.forEach((customer, cents) -> {
+                customers.add(customer);
+                assertEquals(Money.toDouble(cents), hw.getRevenueByCustomer().get(customer));
+            });
+        }
+        assertEquals(hw.getRevenueByCustomer().keySet().stream().sorted().toList(), customers);
+        assertEquals(0, spillFiles());
+    }
+}
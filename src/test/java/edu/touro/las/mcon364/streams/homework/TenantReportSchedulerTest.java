@@ -0,0 +1,119 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+import edu.touro.las.mcon364.streams.homework.TenantReportScheduler.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.*;
+
+/**
+ * Unit tests for TenantReportScheduler.
+ *
+ * Run with: mvn test -Dtest=TenantReportSchedulerTest
+ */
+class TenantReportSchedulerTest {
+
+    private static final Set<Report> ALL = EnumSet.allOf(Report.class);
+
+    private static StreamHomework tenant(int seed, int orders) {
+        return TestOrders.random(seed, 20, orders, 90)
+                .customers(50)
+                .items(1, 1)
+                .quantity(3)
+                .from(LocalDate.of(2024, 1, 1))
+                .build()
+                .homework();
+    }
+
+    private static Map<String, StreamHomework> tenants(int count, int orders) {
+        Map<String, StreamHomework> tenants = new LinkedHashMap<>();
+        for (int t = 0; t < count; t++) {
+            tenants.put("tenant-" + t, tenant(t, orders));
+        }
+        return tenants;
+    }
+
+    @Test
+    @DisplayName("Every tenant's reports match a direct run, with batch tail latencies")
+    void testCompletes() throws InterruptedException {
+        Map<String, StreamHomework> tenants = tenants(200, 300);
+        BatchSummary summary = new TenantReportScheduler(8, Duration.ofMinutes(1)).run(tenants, ALL);
+
+        assertEquals(200, summary.runs().size());
+        assertEquals(200, summary.count(Outcome.COMPLETED));
+        for (TenantRun run : summary.runs()) {
+            StreamHomework hw = tenants.get(run.tenant());
+            assertEquals(hw.getTotalRevenue(), run.results().totalRevenue(), 1e-9);
+            assertEquals(hw.getRevenueByCategory(), run.results().revenueByCategory());
+            assertNull(run.failure());
+        }
+        assertTrue(summary.p50().compareTo(summary.p95()) <= 0);
+        assertTrue(summary.p95().compareTo(summary.p99()) <= 0);
+        assertTrue(summary.p99().compareTo(summary.max()) <= 0);
+        assertTrue(summary.max().compareTo(summary.wallTime()) <= 0);
+    }
+
+    @Test
+    @DisplayName("Tenants past their deadline are stopped and reported as timed out")
+    void testDeadline() throws InterruptedException {
+        BatchSummary summary = new TenantReportScheduler(4, Duration.ofNanos(1)).run(tenants(10, 5000), ALL);
+        assertEquals(10, summary.count(Outcome.TIMED_OUT));
+        assertTrue(summary.runs().stream().allMatch(r -> r.results() == null && r.failure() == null));
+    }
+
+    @Test
+    @DisplayName("Cancelling a batch stops the running tenant and skips the waiting ones")
+    void testCancel() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, StreamHomework> tenants = new LinkedHashMap<>();
+        tenants(20, 1000).forEach((name, hw) -> tenants.put(name, hw.withCancellation(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        })));
+        Batch batch = new TenantReportScheduler(1, Duration.ofMinutes(1)).submit(tenants, ALL);
+        started.await();
+        batch.cancel();
+        release.countDown();
+        BatchSummary summary = batch.await();
+        assertTrue(batch.isCancelled());
+        assertEquals(20, summary.count(Outcome.CANCELLED));
+        // Only the first tenant computed; the 19 that never started stay out of the percentiles
+        assertEquals(1, summary.runs().stream().filter(TenantRun::started).count());
+        assertEquals(summary.runs().get(0).elapsed(), summary.p50());
+        assertEquals(summary.max(), summary.p50());
+        assertFalse(summary.p50().isZero());
+    }
+
+    @Test
+    @DisplayName("Failures are reported per tenant without stopping the batch")
+    void testFailure() throws InterruptedException {
+        Map<String, StreamHomework> tenants = tenants(3, 100);
+        tenants.put("broken", tenants.get("tenant-0").withCancellation(() -> {
+            throw new IllegalStateException("boom");
+        }));
+        BatchSummary summary = new TenantReportScheduler(2, Duration.ofMinutes(1)).run(tenants, ALL);
+        assertEquals(3, summary.count(Outcome.COMPLETED));
+        TenantRun broken = summary.runs().get(3);
+        assertEquals(Outcome.FAILED, broken.outcome());
+        assertEquals("boom", broken.failure().getMessage());
+
+        // A real failure stays FAILED, with its cause, even after the deadline has passed
+        Map<String, StreamHomework> late = Map.of("overflow", tenants.get("tenant-0").withCancellation(() -> {
+            throw new ArithmeticException("long overflow");
+        }));
+        TenantRun overflow = new TenantReportScheduler(1, Duration.ofNanos(1)).run(late, ALL).runs().get(0);
+        assertEquals(Outcome.FAILED, overflow.outcome());
+        assertInstanceOf(ArithmeticException.class, overflow.failure());
+    }
+}
@@ -0,0 +1,116 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+
+import java.time.*;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Seeded random catalog and orders shared by the tests.
+ *
+ * {@code TestOrders.random(seed, products, orders, days).build()} gives
+ * products in "Cat0".."Cat3" and orders of 1 to 3 items dated from
+ * 2023-01-01; the chained settings change only what a test depends on.
+ * The same settings and seed always give the same data.
+ */
+public final class TestOrders {
+
+    public record Fixture(List<Product> products, List<CustomerOrder> orders) {
+
+        public StreamHomework homework() {
+            return new StreamHomework(products, orders);
+        }
+    }
+
+    private final long seed;
+    private final int products;
+    private final int orders;
+    private final int days;
+    private int categories = 4;
+    private int customers = 200;
+    private int sold;
+    private int minItems = 1;
+    private int maxItems = 3;
+    private int maxQuantity = 5;
+    private LocalDate start = LocalDate.of(2023, 1, 1);
+    private String productName = "Product ";
+    private String orderId = "O";
+
+    private TestOrders(long seed, int products, int orders, int days) {
+        this.seed = seed;
+        this.products = products;
+        this.orders = orders;
+        this.days = days;
+        this.sold = products;
+    }
+
+    public static TestOrders random(long seed, int products, int orders, int days) {
+        return new TestOrders(seed, products, orders, days);
+    }
+
+    public TestOrders categories(int categories) {
+        this.categories = categories;
+        return this;
+    }
+
+    public TestOrders customers(int customers) {
+        this.customers = customers;
+        return this;
+    }
+
+    /**
+     * Orders only the first {@code sold} products, leaving the rest unsold.
+     */
+    public TestOrders sold(int sold) {
+        this.sold = sold;
+        return this;
+    }
+
+    /**
+     * Items per order, both bounds inclusive; a minimum of 0 gives empty orders.
+     */
+    public TestOrders items(int min, int max) {
+        this.minItems = min;
+        this.maxItems = max;
+        return this;
+    }
+
+    public TestOrders quantity(int max) {
+        this.maxQuantity = max;
+        return this;
+    }
+
+    public TestOrders from(LocalDate start) {
+        this.start = start;
+        return this;
+    }
+
+    /**
+     * Prefixes of product names and order ids, e.g. to exercise non-ASCII text.
+     */
+    public TestOrders names(String productName, String orderId) {
+        this.productName = productName;
+        this.orderId = orderId;
+        return this;
+    }
+
+    public Fixture build() {
+        Random random = new Random(seed);
+        List<Product> catalog = IntStream.range(0, products)
+                .mapToObj(i -> new Product("P" + i, productName + i, "Cat" + (i % categories),
+                        1 + Math.round(random.nextDouble() * 29900) / 100.0))
+                .toList();
+        OrderStatus[] statuses = OrderStatus.values();
+        List<CustomerOrder> generated = IntStream.range(0, orders)
+                .mapToObj(i -> new CustomerOrder(orderId + i, "C" + random.nextInt(customers),
+                        IntStream.range(0, minItems + random.nextInt(maxItems - minItems + 1))
+                                .mapToObj(j -> new OrderItem(catalog.get(random.nextInt(sold)),
+                                        1 + random.nextInt(maxQuantity)))
+                                .toList(),
+                        start.plusDays(random.nextInt(days)),
+                        statuses[random.nextInt(statuses.length)]))
+                .toList();
+        return new Fixture(catalog, generated);
+    }
+}
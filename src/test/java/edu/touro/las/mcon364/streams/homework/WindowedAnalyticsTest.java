@@ -0,0 +1,159 @@
+package edu.touro.las.mcon364.streams.homework;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.homework.StreamHomework.*;
+import edu.touro.las.mcon364.streams.homework.WindowedAnalytics.*;
+
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for WindowedAnalytics.
+ *
+ * Windows over a random feed, in no particular date order, are compared
+ * against filtering the whole dataset by each window's date range; the
+ * streaming tests feed the same orders in date order.
+ *
+ * Run with: mvn test -Dtest=WindowedAnalyticsTest
+ */
+class WindowedAnalyticsTest {
+
+    private List<Product> products;
+    private List<CustomerOrder> orders;
+
+    @BeforeEach
+    void setUp() {
+        TestOrders.Fixture fixture = TestOrders.random(14, 20, 3000, 400)
+                .categories(3)
+                .customers(100)
+                .build();
+        products = fixture.products();
+        orders = fixture.orders();
+    }
+
+    private List<CustomerOrder> dateOrdered() {
+        return orders.stream().sorted(Comparator.comparing(CustomerOrder::orderDate)).toList();
+    }
+
+    private static void assertSums(Map<?, Double> expected, Map<?, Double> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((k, v) -> assertEquals(v, actual.get(k), 1e-6, "value for " + k));
+    }
+
+    private void assertWindow(Window window, int topN) {
+        List<CustomerOrder> inside = orders.stream()
+                .filter(o -> !o.orderDate().isBefore(window.start()) && o.orderDate().isBefore(window.end()))
+                .toList();
+        assertFalse(inside.isEmpty());
+        assertEquals(inside.size(), window.orderCount());
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(inside.stream().filter(o -> o.status() == status).count(), window.orderCount(status));
+        }
+        assertEquals(inside.stream().filter(o -> o.status() == OrderStatus.DELIVERED)
+                .mapToLong(CustomerOrder::getTotalCents).sum(), Money.of(window.revenue()));
+        Map<Product, Integer> quantities = inside.stream().flatMap(o -> o.items().stream())
+                .collect(Collectors.groupingBy(OrderItem::product, Collectors.summingInt(OrderItem::quantity)));
+        assertEquals(quantities.entrySet().stream()
+                .sorted(Map.Entry.<Product, Integer>comparingByValue().reversed()
+                        .thenComparing(e -> e.getKey().id()))
+                .limit(topN)
+                .map(Map.Entry::getKey)
+                .toList(), window.topProducts());
+    }
+
+    @Test
+    @DisplayName("Daily counts and monthly revenue are the batch case of tumbling windows")
+    void testBatchSpecialCases() {
+        StreamHomework hw = new StreamHomework(products, orders);
+        assertEquals(hw.getDailyOrderCounts(), WindowedAnalytics.dailyOrderCounts(orders.stream()));
+        assertSums(hw.getMonthlyRevenue(), WindowedAnalytics.monthlyRevenue(orders.stream()));
+
+        // Out of date order: a feed would drop January, a batch keeps it
+        CustomerOrder march = new CustomerOrder("M", "C1", List.of(new OrderItem(products.get(0), 1)),
+                LocalDate.of(2024, 3, 1), OrderStatus.DELIVERED);
+        CustomerOrder january = new CustomerOrder("J", "C2", List.of(new OrderItem(products.get(1), 2)),
+                LocalDate.of(2024, 1, 1), OrderStatus.DELIVERED);
+        StreamHomework unordered = new StreamHomework(products, List.of(march, january));
+        assertEquals(unordered.getDailyOrderCounts(), WindowedAnalytics.dailyOrderCounts(Stream.of(march, january)));
+        assertEquals(2, WindowedAnalytics.dailyOrderCounts(Stream.of(march, january)).size());
+        assertSums(unordered.getMonthlyRevenue(), WindowedAnalytics.monthlyRevenue(Stream.of(march, january)));
+    }
+
+    @Test
+    @DisplayName("Sliding and tumbling windows match a filter over their date range")
+    void testWindows() {
+        for (Spec spec : List.of(Spec.sliding(ChronoUnit.DAYS, 7, 1), Spec.sliding(ChronoUnit.DAYS, 10, 4),
+                Spec.tumbling(ChronoUnit.WEEKS, 1), Spec.sliding(ChronoUnit.MONTHS, 3, 1))) {
+            List<Window> windows = WindowedAnalytics.windows(orders.stream(), spec, 3);
+            assertFalse(windows.isEmpty());
+            LocalDate previous = LocalDate.MIN;
+            for (Window window : windows) {
+                assertTrue(window.start().isAfter(previous), "windows are emitted in start order");
+                assertEquals(window.start().plus(spec.size(), spec.unit()), window.end());
+                assertWindow(window, 3);
+                previous = window.start();
+            }
+        }
+        List<Window> weeks = WindowedAnalytics.windows(orders.stream(), Spec.tumbling(ChronoUnit.WEEKS, 1), 0);
+        assertEquals(dateOrdered().stream().map(o -> o.orderDate().with(DayOfWeek.MONDAY)).distinct().toList(),
+                weeks.stream().map(Window::start).toList());
+    }
+
+    @Test
+    @DisplayName("Windows are emitted as they close and panes are evicted")
+    void testBoundedMemory() {
+        List<Window> emitted = new ArrayList<>();
+        WindowedAnalytics analytics = new WindowedAnalytics(Spec.sliding(ChronoUnit.DAYS, 7, 1), 2, emitted::add);
+        int maxPanes = 0;
+        for (CustomerOrder order : dateOrdered()) {
+            analytics.accept(order);
+            maxPanes = Math.max(maxPanes, analytics.openPanes());
+            if (!emitted.isEmpty()) {
+                assertTrue(emitted.get(emitted.size() - 1).end().compareTo(order.orderDate()) <= 0);
+            }
+        }
+        assertTrue(maxPanes <= 8, "panes held: " + maxPanes);
+        int beforeFlush = emitted.size();
+        assertTrue(beforeFlush > 300);
+        analytics.flush();
+        assertEquals(0, analytics.openPanes());
+        assertEquals(7, emitted.size() - beforeFlush);
+        assertEquals(0, analytics.lateOrders());
+    }
+
+    @Test
+    @DisplayName("Late orders are dropped unless within the allowed lateness")
+    void testLateness() {
+        CustomerOrder early = dateOrdered().get(0);
+        CustomerOrder later = dateOrdered().stream().filter(o -> o.orderDate().isAfter(early.orderDate().plusDays(3)))
+                .findFirst().orElseThrow();
+
+        List<Window> strict = new ArrayList<>();
+        WindowedAnalytics analytics = new WindowedAnalytics(Spec.tumbling(ChronoUnit.DAYS, 1), 0, strict::add);
+        analytics.accept(later);
+        analytics.accept(early);
+        analytics.flush();
+        assertEquals(1, analytics.lateOrders());
+        assertEquals(List.of(later.orderDate()), strict.stream().map(Window::start).toList());
+
+        List<Window> lenient = new ArrayList<>();
+        analytics = new WindowedAnalytics(Spec.tumbling(ChronoUnit.DAYS, 1).withLateness(30), 0, lenient::add);
+        analytics.accept(later);
+        analytics.accept(early);
+        analytics.flush();
+        assertEquals(0, analytics.lateOrders());
+        assertEquals(List.of(early.orderDate(), later.orderDate()), lenient.stream().map(Window::start).toList());
+    }
+
+    @Test
+    @DisplayName("Window specs are validated")
+    void testSpecValidation() {
+        assertThrows(IllegalArgumentException.class, () -> Spec.tumbling(ChronoUnit.HOURS, 1));
+        assertThrows(IllegalArgumentException.class, () -> Spec.sliding(ChronoUnit.DAYS, 3, 4));
+        assertThrows(IllegalArgumentException.class, () -> Spec.tumbling(ChronoUnit.DAYS, 0));
+    }
+}
@@ -0,0 +1,139 @@
+package edu.touro.las.mcon364.streams.kernels;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Unit tests for the scalar and vector kernels: on every input the vector
+ * kernels must return exactly what the scalar ones return, or throw where
+ * they throw. Surefire runs with the Vector API module.
+ *
+ * Run with: mvn test -Dtest=KernelsTest
+ */
+class KernelsTest {
+
+    private final Kernels scalar = Kernels.scalar();
+    private final Kernels vector = Kernels.vector();
+    private final Random random = new Random(20);
+
+    private long[] prices(int n, long bound) {
+        return random.longs(n, 0, bound).toArray();
+    }
+
+    private int[] quantities(int n) {
+        return random.ints(n, 1, 10).toArray();
+    }
+
+    private byte[] codes(int n) {
+        byte[] codes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = (byte) random.nextInt(5);
+        }
+        return codes;
+    }
+
+    private static <R> void assertSame(Supplier<R> expected, Supplier<R> actual) {
+        R result;
+        try {
+            result = expected.get();
+        } catch (ArithmeticException e) {
+            assertThrows(ArithmeticException.class, actual::get);
+            return;
+        }
+        assertEquals(result, actual.get());
+    }
+
+    private static String summary(LongSummaryStatistics stats) {
+        return stats.toString();
+    }
+
+    @Test
+    @DisplayName("The Vector API module is on the test JVM")
+    void testAvailable() {
+        assertTrue(Kernels.vectorAvailable());
+        assertNotNull(Kernels.best());
+    }
+
+    @Test
+    @DisplayName("Sums and counts match the scalar kernels on unaligned ranges")
+    void testRandomRanges() {
+        int n = 10_000;
+        long[] prices = prices(n, 1_000_000);
+        int[] quantities = quantities(n);
+        byte[] codes = codes(n);
+        for (int q = 0; q < 500; q++) {
+            int from = random.nextInt(n);
+            int to = from + random.nextInt(Math.min(200, n - from + 1));
+            byte code = (byte) random.nextInt(6);
+            assertEquals(scalar.sumProduct(prices, quantities, from, to),
+                    vector.sumProduct(prices, quantities, from, to));
+            assertEquals(scalar.sumProduct(prices, quantities, codes, code, from, to),
+                    vector.sumProduct(prices, quantities, codes, code, from, to));
+            assertEquals(scalar.sum(prices, codes, code, from, to), vector.sum(prices, codes, code, from, to));
+            assertEquals(scalar.count(codes, code, from, to), vector.count(codes, code, from, to));
+            assertEquals(summary(scalar.summary(prices, codes, code, from, to)),
+                    summary(vector.summary(prices, codes, code, from, to)));
+        }
+        assertEquals(0, vector.sumProduct(prices, quantities, 5, 5));
+        assertEquals(0, vector.summary(prices, codes, (byte) 0, 5, 5).getCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.count(codes, (byte) 0, 10, n + 1));
+    }
+
+    @Test
+    @DisplayName("Negative values and ranges near overflow fall back to exact results")
+    void testOverflow() {
+        int n = 1000;
+        long[] mixed = random.longs(n, -1_000_000, 1_000_000).toArray();
+        int[] quantities = random.ints(n, -5, 5).toArray();
+        byte[] codes = codes(n);
+        assertEquals(scalar.sumProduct(mixed, quantities, 0, n), vector.sumProduct(mixed, quantities, 0, n));
+
+        // Each value is near the limit, but they cancel out: the bound fails, the scalar result is exact
+        long[] large = new long[n];
+        for (int i = 0; i < n; i++) {
+            large[i] = i % 2 == 0 ? Long.MAX_VALUE / 4 : -(Long.MAX_VALUE / 4);
+        }
+        Arrays.fill(codes, (byte) 1);
+        assertSame(() -> scalar.sum(large, codes, (byte) 1, 0, n), () -> vector.sum(large, codes, (byte) 1, 0, n));
+        assertSame(() -> summary(scalar.summary(large, codes, (byte) 1, 0, n)),
+                () -> summary(vector.summary(large, codes, (byte) 1, 0, n)));
+
+        // A sum that really overflows throws from both
+        long[] huge = new long[n];
+        Arrays.fill(huge, Long.MAX_VALUE / 100);
+        assertThrows(ArithmeticException.class, () -> scalar.sum(huge, codes, (byte) 1, 0, n));
+        assertThrows(ArithmeticException.class, () -> vector.sum(huge, codes, (byte) 1, 0, n));
+        assertThrows(ArithmeticException.class, () -> vector.sumProduct(huge, quantities(n), 0, n));
+        huge[7] = Long.MIN_VALUE;
+        assertSame(() -> scalar.sum(huge, codes, (byte) 0, 0, n), () -> vector.sum(huge, codes, (byte) 0, 0, n));
+    }
+
+    @Test
+    @DisplayName("Run sums over sorted groups match the scalar kernel")
+    void testRunSums() {
+        int n = 5000;
+        int[] groups = new int[n];
+        for (int i = 1; i < n; i++) {
+            groups[i] = groups[i - 1] + (random.nextInt(12) == 0 ? 1 + random.nextInt(3) : 0);
+        }
+        long[] values = prices(n, 1_000_000_000L);
+        for (int q = 0; q < 200; q++) {
+            int from = random.nextInt(n);
+            int to = from + random.nextInt(n - from + 1);
+            long[] expected = random.longs(groups[n - 1] + 1, 0, 1000).toArray();
+            long[] actual = expected.clone();
+            scalar.runSums(groups, values, from, to, expected);
+            vector.runSums(groups, values, from, to, actual);
+            assertArrayEquals(expected, actual);
+        }
+
+        long[] sums = {Long.MAX_VALUE - 10};
+        int[] zero = new int[16];
+        long[] ones = new long[16];
+        Arrays.fill(ones, 1);
+        assertThrows(ArithmeticException.class, () -> vector.runSums(zero, ones, 0, 16, sums));
+    }
+}
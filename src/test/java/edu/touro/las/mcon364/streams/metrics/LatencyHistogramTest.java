@@ -0,0 +1,87 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Unit tests for LatencyHistogram.
+ *
+ * Run with: mvn test -Dtest=LatencyHistogramTest
+ */
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Every value maps to a bucket whose upper bound is within 1/64 of it")
+    void testBuckets() {
+        Random random = new Random(18);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(1L << random.nextInt(1, 44));
+            long upper = LatencyHistogram.highestValue(LatencyHistogram.bucket(value));
+            assertTrue(upper >= value && upper - value <= value / 64, value + " -> " + upper);
+        }
+        for (long v = 0; v < 128; v++) {
+            assertEquals(v, LatencyHistogram.highestValue(LatencyHistogram.bucket(v)));
+        }
+    }
+
+    @Test
+    @DisplayName("Percentiles match the exact order statistics within the resolution")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new Random(7).longs(50_000, 1_000, 50_000_000).toArray();
+        Arrays.stream(values).forEach(histogram::record);
+        Arrays.sort(values);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.count());
+        assertEquals(values[0], snapshot.min());
+        assertEquals(values[values.length - 1], snapshot.max());
+        assertEquals(Arrays.stream(values).average().orElseThrow(), snapshot.mean(), 1e-6);
+        long p99 = values[(int) Math.ceil(0.99 * values.length) - 1];
+        assertEquals(p99, snapshot.p99(), p99 / 64.0);
+        assertEquals(values[values.length / 2 - 1], snapshot.p50(), snapshot.p50() / 64.0);
+        assertEquals(snapshot.p99(), histogram.valueAtPercentile(99));
+    }
+
+    @Test
+    @DisplayName("Concurrent recording loses no values")
+    void testConcurrentRecording() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.range(0, 1_000_000).parallel().forEach(i -> histogram.record(i % 1000));
+        assertEquals(1_000_000, histogram.snapshot().count());
+        assertEquals(999, histogram.snapshot().max());
+        histogram.reset();
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0.0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    @Test
+    @DisplayName("Snapshots taken during recording and resets have a finite mean within min and max")
+    void testSnapshotMeanUnderConcurrency() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread writer = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 2_000_000; i++) {
+                histogram.record(1000);
+            }
+        });
+        while (writer.isAlive()) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            if (snapshot.count() > 0) {
+                assertEquals(1000.0, snapshot.mean(), snapshot.toString());
+            }
+        }
+        writer.join();
+
+        Thread resetter = Thread.ofPlatform().start(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                histogram.reset();
+            }
+        });
+        while (resetter.isAlive()) {
+            histogram.record(1000);
+            assertFalse(Double.isNaN(histogram.snapshot().mean()));
+        }
+        resetter.join();
+    }
+}
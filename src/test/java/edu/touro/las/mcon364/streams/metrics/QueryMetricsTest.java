@@ -0,0 +1,112 @@
+package edu.touro.las.mcon364.streams.metrics;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import edu.touro.las.mcon364.streams.exercises.StreamExercise;
+import edu.touro.las.mcon364.streams.homework.StreamHomework;
+import edu.touro.las.mcon364.streams.metrics.QueryMetrics.*;
+
+import java.nio.file.*;
+import java.util.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.*;
+
+/**
+ * Unit tests for QueryMetrics and the instrumented StreamHomework and
+ * StreamExercise facades.
+ *
+ * Run with: mvn test -Dtest=QueryMetricsTest
+ */
+class QueryMetricsTest {
+
+    @Test
+    @DisplayName("Calls, rows and failures are recorded per query")
+    void testMeasure() {
+        QueryMetrics metrics = new QueryMetrics();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(List.of(1, 2), metrics.measure("list", () -> {
+                QueryMetrics.scanned(10);
+                return List.of(1, 2);
+            }));
+        }
+        assertThrows(IllegalStateException.class, () -> metrics.measure("list", () -> {
+            throw new IllegalStateException();
+        }));
+        QueryMetrics.scanned(1_000);
+
+        QueryStats stats = metrics.stats("list").orElseThrow();
+        assertEquals(4, stats.calls());
+        assertEquals(1, stats.failures());
+        assertEquals(30, stats.rowsScanned());
+        assertEquals(6, stats.rowsEmitted());
+        assertEquals(4, stats.latency().count());
+        assertTrue(stats.latency().max() >= stats.latency().p50());
+        assertTrue(stats.allocatedBytes() >= 0);
+        assertTrue(metrics.stats("other").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Nested queries count their rows toward the outer query")
+    void testNested() {
+        QueryMetrics metrics = new QueryMetrics();
+        metrics.measure("outer", () -> {
+            QueryMetrics.scanned(5);
+            return metrics.measure("inner", () -> {
+                QueryMetrics.scanned(7);
+                return 1;
+            });
+        });
+        assertEquals(7, metrics.stats("inner").orElseThrow().rowsScanned());
+        assertEquals(12, metrics.stats("outer").orElseThrow().rowsScanned());
+    }
+
+    @Test
+    @DisplayName("Instrumented facades record every public query they run")
+    void testFacades() {
+        QueryMetrics metrics = new QueryMetrics();
+        StreamHomework hw = new StreamHomework().withMetrics(metrics);
+        hw.getRevenueByCategory();
+        hw.getRevenueByCategory();
+        hw.getTopCustomers(3);
+        StreamExercise exercise = new StreamExercise().withMetrics(metrics);
+        exercise.getPassingStudents(80);
+
+        SortedMap<String, QueryStats> snapshot = metrics.snapshot();
+        assertEquals(Set.of("getRevenueByCategory", "getTopCustomers", "getPassingStudents"), snapshot.keySet());
+        QueryStats revenue = snapshot.get("getRevenueByCategory");
+        assertEquals(2, revenue.calls());
+        QueryMetrics single = new QueryMetrics();
+        new StreamHomework().withMetrics(single).getRevenueByCategory();
+        long scannedOnce = single.stats("getRevenueByCategory").orElseThrow().rowsScanned();
+        assertTrue(scannedOnce > 0);
+        assertEquals(2 * scannedOnce, revenue.rowsScanned());
+        assertEquals(2L * hw.getRevenueByCategory().size(), revenue.rowsEmitted());
+        assertEquals(8, snapshot.get("getPassingStudents").rowsScanned());
+        assertEquals(4, snapshot.get("getPassingStudents").rowsEmitted());
+
+        metrics.reset();
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Each call is committed as a Flight Recorder event")
+    void testFlightRecorder() throws Exception {
+        Path file = Files.createTempFile("queries", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("edu.touro.las.mcon364.streams.Query").withThreshold(java.time.Duration.ZERO);
+            recording.start();
+            new StreamExercise().withMetrics(new QueryMetrics()).getStudentAverages();
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("getStudentAverages", event.getString("query"));
+        assertEquals(8, event.getLong("rowsScanned"));
+        assertEquals(8, event.getLong("rowsEmitted"));
+        assertFalse(event.getBoolean("failed"));
+    }
+}